@@ -0,0 +1,72 @@
+package com.blackducksoftware.integration.hub.artifactory;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.blackducksoftware.integration.hub.artifactory.inspect.InspectPluginProperty;
+import com.blackducksoftware.integration.hub.artifactory.model.ComponentDataCache;
+import com.blackducksoftware.integration.hub.artifactory.model.HubCallExecutor;
+import com.blackducksoftware.integration.hub.artifactory.model.HubMetrics;
+import com.blackducksoftware.integration.log.LogLevel;
+import com.blackducksoftware.integration.log.PrintStreamIntLogger;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ArtifactMetaDataManagerBenchmark {
+    @Param({ "100", "1000", "10000", "50000" })
+    private int componentCount;
+
+    @Param({ "1", "8" })
+    private int concurrencyLevel;
+
+    @Param({ "VULNERABILITIES", "SECURITY_RISK_PROFILE" })
+    private SeverityCountSource severityCountSource;
+
+    private SyntheticHub syntheticHub;
+    private HubCallExecutor hubCallExecutor;
+    private ArtifactMetaDataManager artifactMetaDataManager;
+
+    @Setup(Level.Trial)
+    public void createSyntheticHub() {
+        syntheticHub = new SyntheticHub(componentCount);
+    }
+
+    @Setup(Level.Invocation)
+    public void createArtifactMetaDataManager() {
+        final Properties properties = new Properties();
+        properties.setProperty(InspectPluginProperty.SEVERITY_COUNT_SOURCE.getKey(), severityCountSource.name());
+        hubCallExecutor = new HubCallExecutor(HubMetrics.NONE, concurrencyLevel, null);
+        artifactMetaDataManager = new ArtifactMetaDataManager(new PrintStreamIntLogger(System.out, LogLevel.OFF), new BlackDuckArtifactoryConfigSnapshot(properties).getInspectPluginConfig(),
+                ComponentDataCache.disabled(), hubCallExecutor);
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeHubCallExecutor() {
+        hubCallExecutor.close();
+    }
+
+    @Benchmark
+    public List<ArtifactMetaData> getMetaData() throws Exception {
+        return artifactMetaDataManager.getMetaData("repo", syntheticHub.getHubService(), syntheticHub.getProjectVersionView());
+    }
+
+}
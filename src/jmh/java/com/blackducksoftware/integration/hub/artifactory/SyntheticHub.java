@@ -0,0 +1,58 @@
+package com.blackducksoftware.integration.hub.artifactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.blackducksoftware.integration.hub.api.generated.view.ProjectVersionView;
+import com.blackducksoftware.integration.hub.api.generated.view.VersionBomComponentView;
+import com.blackducksoftware.integration.hub.notification.NotificationDetailResults;
+import com.blackducksoftware.integration.hub.notification.content.detail.NotificationContentDetail;
+
+public class SyntheticHub {
+    public static final String PROJECT_VERSION_URI = FakeHubService.HUB_URL + "/api/projects/project/versions/version";
+
+    private static final List<List<String>> SEVERITIES = Arrays.asList(Collections.emptyList(), Arrays.asList("HIGH"), Arrays.asList("MEDIUM", "LOW"), Arrays.asList("HIGH", "MEDIUM", "LOW", "LOW"));
+
+    private final FakeHubService hubService;
+    private final FakeNotificationService notificationService;
+    private final ProjectVersionView projectVersionView;
+    private final List<VersionBomComponentView> versionBomComponentViews;
+
+    public SyntheticHub(final int componentCount) {
+        hubService = new FakeHubService();
+        notificationService = new FakeNotificationService(hubService);
+        projectVersionView = FakeHubService.projectVersion(PROJECT_VERSION_URI);
+        versionBomComponentViews = new ArrayList<>(componentCount);
+
+        final List<NotificationContentDetail> notificationContentDetails = new ArrayList<>(componentCount);
+        for (int i = 0; i < componentCount; i++) {
+            final VersionBomComponentView versionBomComponentView = hubService.addComponent(PROJECT_VERSION_URI, i, 1 + i % 3, SEVERITIES.get(i % SEVERITIES.size()));
+            versionBomComponentViews.add(versionBomComponentView);
+            notificationContentDetails.add(FakeNotificationService.vulnerabilityDetail(PROJECT_VERSION_URI, versionBomComponentView.componentVersion));
+        }
+        notificationService.addNotification(notificationContentDetails);
+    }
+
+    public FakeHubService getHubService() {
+        return hubService;
+    }
+
+    public FakeNotificationService getNotificationService() {
+        return notificationService;
+    }
+
+    public ProjectVersionView getProjectVersionView() {
+        return projectVersionView;
+    }
+
+    public List<VersionBomComponentView> getVersionBomComponentViews() {
+        return versionBomComponentViews;
+    }
+
+    public NotificationDetailResults getNotificationDetailResults() throws Exception {
+        return notificationService.getAllNotificationDetailResults(null, null, null);
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.blackducksoftware.integration.hub.artifactory.inspect;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.artifactory.fs.FileLayoutInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.blackducksoftware.integration.hub.bdio.model.dependency.Dependency;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DependencyFactoryBenchmark {
+    private static final int BULK_INPUT_COUNT = 10000;
+    private static final int DISTINCT_COMPONENT_COUNT = 1000;
+
+    @Param({ "gems", "maven", "gradle", "pypi", "nuget", "npm" })
+    private String packageType;
+
+    private final Logger logger = LoggerFactory.getLogger(DependencyFactoryBenchmark.class);
+    private final DependencyFactory dependencyFactory = new DependencyFactory();
+    private FileLayoutInfo fileLayoutInfo;
+    private org.artifactory.md.Properties properties;
+    private List<DependencyInput> dependencyInputs;
+
+    @Setup
+    public void createInputs() {
+        fileLayoutInfo = fileLayoutInfo("group", "component", "1.0.0");
+        properties = properties(new HashMap<>());
+
+        dependencyInputs = new ArrayList<>(BULK_INPUT_COUNT);
+        for (int i = 0; i < BULK_INPUT_COUNT; i++) {
+            final String version = "1.0." + i % DISTINCT_COMPONENT_COUNT;
+            dependencyInputs.add(new DependencyInput(packageType, fileLayoutInfo("group", "component", version), properties));
+        }
+    }
+
+    @Benchmark
+    public Optional<Dependency> createDependency() {
+        return dependencyFactory.createDependency(logger, packageType, fileLayoutInfo, properties);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK_INPUT_COUNT)
+    public DependencyResults createDependencies() {
+        return dependencyFactory.createDependencies(logger, dependencyInputs);
+    }
+
+    private FileLayoutInfo fileLayoutInfo(final String organization, final String module, final String baseRevision) {
+        final Map<String, Object> values = new HashMap<>();
+        values.put("getOrganization", organization);
+        values.put("getModule", module);
+        values.put("getBaseRevision", baseRevision);
+        return (FileLayoutInfo) Proxy.newProxyInstance(FileLayoutInfo.class.getClassLoader(), new Class<?>[] { FileLayoutInfo.class }, (proxy, method, args) -> values.get(method.getName()));
+    }
+
+    private org.artifactory.md.Properties properties(final Map<String, String> values) {
+        return (org.artifactory.md.Properties) Proxy.newProxyInstance(org.artifactory.md.Properties.class.getClassLoader(), new Class<?>[] { org.artifactory.md.Properties.class },
+                (proxy, method, args) -> "getFirst".equals(method.getName()) ? values.get(args[0]) : null);
+    }
+
+}
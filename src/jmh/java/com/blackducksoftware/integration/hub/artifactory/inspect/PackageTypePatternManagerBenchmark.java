@@ -0,0 +1,63 @@
+package com.blackducksoftware.integration.hub.artifactory.inspect;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PackageTypePatternManagerBenchmark {
+    private static final int FILE_NAME_COUNT = 10000;
+    private static final String[] EXTENSIONS = { ".jar", ".pom", ".whl", ".tar.gz", ".zip", ".egg", ".nupkg", ".tgz", ".gem", ".md5", ".sha1", ".xml" };
+
+    private final PackageTypePatternManager packageTypePatternManager = new PackageTypePatternManager();
+    private final List<String> fileNames = new ArrayList<>(FILE_NAME_COUNT);
+
+    @Setup
+    public void configurePatterns() {
+        packageTypePatternManager.setPattern("gems", "*.gem");
+        packageTypePatternManager.setPattern("maven", "*.jar");
+        packageTypePatternManager.setPattern("gradle", "*.jar");
+        packageTypePatternManager.setPattern("pypi", "*.whl,*.tar.gz,*.zip,*.egg");
+        packageTypePatternManager.setPattern("nuget", "*.nupkg");
+        packageTypePatternManager.setPattern("npm", "*.tgz");
+
+        for (int i = 0; i < FILE_NAME_COUNT; i++) {
+            fileNames.add("component-" + i + "-1.0." + i + EXTENSIONS[i % EXTENSIONS.length]);
+        }
+    }
+
+    @Benchmark
+    public Optional<String> getPattern() {
+        return packageTypePatternManager.getPattern("pypi");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILE_NAME_COUNT)
+    public void classify(final Blackhole blackhole) {
+        for (final String fileName : fileNames) {
+            final Set<SupportedPackageType> packageTypes = packageTypePatternManager.classify(fileName);
+            blackhole.consume(packageTypes);
+        }
+    }
+
+}
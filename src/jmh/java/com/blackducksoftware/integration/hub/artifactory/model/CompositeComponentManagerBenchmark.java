@@ -0,0 +1,73 @@
+package com.blackducksoftware.integration.hub.artifactory.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.blackducksoftware.integration.hub.artifactory.SyntheticHub;
+import com.blackducksoftware.integration.hub.artifactory.inspect.InspectPluginConfig;
+import com.blackducksoftware.integration.hub.notification.NotificationDetailResults;
+import com.blackducksoftware.integration.log.LogLevel;
+import com.blackducksoftware.integration.log.PrintStreamIntLogger;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CompositeComponentManagerBenchmark {
+    @Param({ "100", "1000", "10000", "50000" })
+    private int componentCount;
+
+    @Param({ "1", "8" })
+    private int concurrencyLevel;
+
+    private SyntheticHub syntheticHub;
+    private NotificationDetailResults notificationDetailResults;
+    private HubCallExecutor hubCallExecutor;
+    private CompositeComponentManager compositeComponentManager;
+
+    @Setup(Level.Trial)
+    public void createSyntheticHub() throws Exception {
+        syntheticHub = new SyntheticHub(componentCount);
+        notificationDetailResults = syntheticHub.getNotificationDetailResults();
+    }
+
+    @Setup(Level.Invocation)
+    public void createCompositeComponentManager() {
+        hubCallExecutor = new HubCallExecutor(HubMetrics.NONE, concurrencyLevel, null);
+        compositeComponentManager = new CompositeComponentManager(new PrintStreamIntLogger(System.out, LogLevel.OFF), syntheticHub.getHubService(), InspectPluginConfig.defaults(), ComponentDataCache.disabled(),
+                hubCallExecutor);
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeHubCallExecutor() {
+        hubCallExecutor.close();
+    }
+
+    @Benchmark
+    public List<CompositeComponentModel> parseBom() {
+        return compositeComponentManager.parseBom(syntheticHub.getProjectVersionView(), syntheticHub.getVersionBomComponentViews());
+    }
+
+    @Benchmark
+    public List<CompositeComponentModel> parseNotifications() {
+        return compositeComponentManager.parseNotifications(notificationDetailResults, Collections.singletonList(syntheticHub.getProjectVersionView()));
+    }
+
+}
@@ -23,6 +23,9 @@
  */
 package com.blackducksoftware.integration.hub.artifactory;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 import com.blackducksoftware.integration.hub.api.generated.enumeration.PolicyStatusApprovalStatusType;
 import com.blackducksoftware.integration.util.Stringable;
 
@@ -36,4 +39,44 @@ public class ArtifactMetaData extends Stringable {
     public String forge;
     public String originId;
 
+    public static String getKey(final String forge, final String originId) {
+        return forge + ":" + originId;
+    }
+
+    public static Map<BlackDuckArtifactoryProperty, String> getPropertyValues(final int highSeverityCount, final int mediumSeverityCount, final int lowSeverityCount, final PolicyStatusApprovalStatusType policyStatus,
+            final String componentVersionLink) {
+        final Map<BlackDuckArtifactoryProperty, String> propertyValues = new EnumMap<>(BlackDuckArtifactoryProperty.class);
+        propertyValues.put(BlackDuckArtifactoryProperty.HIGH_VULNERABILITIES, Integer.toString(highSeverityCount));
+        propertyValues.put(BlackDuckArtifactoryProperty.MEDIUM_VULNERABILITIES, Integer.toString(mediumSeverityCount));
+        propertyValues.put(BlackDuckArtifactoryProperty.LOW_VULNERABILITIES, Integer.toString(lowSeverityCount));
+        if (policyStatus != null) {
+            propertyValues.put(BlackDuckArtifactoryProperty.POLICY_STATUS, policyStatus.toString());
+        }
+        if (componentVersionLink != null) {
+            propertyValues.put(BlackDuckArtifactoryProperty.COMPONENT_VERSION_URL, componentVersionLink);
+        }
+        return propertyValues;
+    }
+
+    public String getKey() {
+        return getKey(forge, originId);
+    }
+
+    public ArtifactMetaData copy(final String repoKey) {
+        final ArtifactMetaData artifactMetaData = new ArtifactMetaData();
+        artifactMetaData.repoKey = repoKey;
+        artifactMetaData.componentVersionLink = componentVersionLink;
+        artifactMetaData.highSeverityCount = highSeverityCount;
+        artifactMetaData.mediumSeverityCount = mediumSeverityCount;
+        artifactMetaData.lowSeverityCount = lowSeverityCount;
+        artifactMetaData.policyStatus = policyStatus;
+        artifactMetaData.forge = forge;
+        artifactMetaData.originId = originId;
+        return artifactMetaData;
+    }
+
+    public Map<BlackDuckArtifactoryProperty, String> getPropertyValues() {
+        return getPropertyValues(highSeverityCount, mediumSeverityCount, lowSeverityCount, policyStatus, componentVersionLink);
+    }
+
 }
@@ -0,0 +1,243 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.blackducksoftware.integration.hub.api.generated.enumeration.PolicyStatusApprovalStatusType;
+
+public class ArtifactMetaDataBatch {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final byte NO_POLICY_STATUS = -1;
+    private static final PolicyStatusApprovalStatusType[] POLICY_STATUSES = PolicyStatusApprovalStatusType.values();
+
+    private final Dictionary repoKeys = new Dictionary();
+    private final Dictionary forges = new Dictionary();
+    private final Dictionary componentVersionLinks = new Dictionary();
+
+    private int size;
+    private int[] repoKeyIds;
+    private int[] forgeIds;
+    private int[] componentVersionLinkIds;
+    private String[] originIds;
+    private int[] highSeverityCounts;
+    private int[] mediumSeverityCounts;
+    private int[] lowSeverityCounts;
+    private byte[] policyStatuses;
+
+    public ArtifactMetaDataBatch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ArtifactMetaDataBatch(final int initialCapacity) {
+        final int capacity = Math.max(1, initialCapacity);
+        repoKeyIds = new int[capacity];
+        forgeIds = new int[capacity];
+        componentVersionLinkIds = new int[capacity];
+        originIds = new String[capacity];
+        highSeverityCounts = new int[capacity];
+        mediumSeverityCounts = new int[capacity];
+        lowSeverityCounts = new int[capacity];
+        policyStatuses = new byte[capacity];
+    }
+
+    public static ArtifactMetaDataBatch of(final List<ArtifactMetaData> artifactMetaData) {
+        final ArtifactMetaDataBatch artifactMetaDataBatch = new ArtifactMetaDataBatch(artifactMetaData.size());
+        artifactMetaData.forEach(artifactMetaDataBatch::add);
+        return artifactMetaDataBatch;
+    }
+
+    public void add(final ArtifactMetaData artifactMetaData) {
+        add(artifactMetaData.repoKey, artifactMetaData.forge, artifactMetaData.originId, artifactMetaData.componentVersionLink, artifactMetaData.highSeverityCount, artifactMetaData.mediumSeverityCount,
+                artifactMetaData.lowSeverityCount, artifactMetaData.policyStatus);
+    }
+
+    public void add(final String repoKey, final String forge, final String originId, final String componentVersionLink, final int highSeverityCount, final int mediumSeverityCount, final int lowSeverityCount,
+            final PolicyStatusApprovalStatusType policyStatus) {
+        if (size == originIds.length) {
+            resize(size * 2);
+        }
+        repoKeyIds[size] = repoKeys.intern(repoKey);
+        forgeIds[size] = forges.intern(forge);
+        componentVersionLinkIds[size] = componentVersionLinks.intern(componentVersionLink);
+        originIds[size] = originId;
+        highSeverityCounts[size] = highSeverityCount;
+        mediumSeverityCounts[size] = mediumSeverityCount;
+        lowSeverityCounts[size] = lowSeverityCount;
+        policyStatuses[size] = policyStatus == null ? NO_POLICY_STATUS : (byte) policyStatus.ordinal();
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getRepoKeyCount() {
+        return repoKeys.size();
+    }
+
+    public int getForgeCount() {
+        return forges.size();
+    }
+
+    public int getComponentVersionLinkCount() {
+        return componentVersionLinks.size();
+    }
+
+    public View view(final int index) {
+        return new View().moveTo(index);
+    }
+
+    public void forEach(final Consumer<View> viewConsumer) {
+        final View view = new View();
+        for (int i = 0; i < size; i++) {
+            viewConsumer.accept(view.moveTo(i));
+        }
+    }
+
+    public ArtifactMetaData get(final int index) {
+        return view(index).toArtifactMetaData();
+    }
+
+    public List<ArtifactMetaData> toList() {
+        final List<ArtifactMetaData> artifactMetaData = new ArrayList<>(size);
+        forEach(view -> artifactMetaData.add(view.toArtifactMetaData()));
+        return artifactMetaData;
+    }
+
+    public void trimToSize() {
+        resize(Math.max(1, size));
+    }
+
+    private void resize(final int capacity) {
+        repoKeyIds = Arrays.copyOf(repoKeyIds, capacity);
+        forgeIds = Arrays.copyOf(forgeIds, capacity);
+        componentVersionLinkIds = Arrays.copyOf(componentVersionLinkIds, capacity);
+        originIds = Arrays.copyOf(originIds, capacity);
+        highSeverityCounts = Arrays.copyOf(highSeverityCounts, capacity);
+        mediumSeverityCounts = Arrays.copyOf(mediumSeverityCounts, capacity);
+        lowSeverityCounts = Arrays.copyOf(lowSeverityCounts, capacity);
+        policyStatuses = Arrays.copyOf(policyStatuses, capacity);
+    }
+
+    public class View {
+        private int index;
+
+        private View moveTo(final int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(String.format("Index %d is outside of a batch of %d", index, size));
+            }
+            this.index = index;
+            return this;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String getRepoKey() {
+            return repoKeys.get(repoKeyIds[index]);
+        }
+
+        public String getForge() {
+            return forges.get(forgeIds[index]);
+        }
+
+        public String getOriginId() {
+            return originIds[index];
+        }
+
+        public String getComponentVersionLink() {
+            return componentVersionLinks.get(componentVersionLinkIds[index]);
+        }
+
+        public int getHighSeverityCount() {
+            return highSeverityCounts[index];
+        }
+
+        public int getMediumSeverityCount() {
+            return mediumSeverityCounts[index];
+        }
+
+        public int getLowSeverityCount() {
+            return lowSeverityCounts[index];
+        }
+
+        public PolicyStatusApprovalStatusType getPolicyStatus() {
+            return policyStatuses[index] == NO_POLICY_STATUS ? null : POLICY_STATUSES[policyStatuses[index]];
+        }
+
+        public String getKey() {
+            return ArtifactMetaData.getKey(getForge(), getOriginId());
+        }
+
+        public Map<BlackDuckArtifactoryProperty, String> getPropertyValues() {
+            return ArtifactMetaData.getPropertyValues(getHighSeverityCount(), getMediumSeverityCount(), getLowSeverityCount(), getPolicyStatus(), getComponentVersionLink());
+        }
+
+        public ArtifactMetaData toArtifactMetaData() {
+            final ArtifactMetaData artifactMetaData = new ArtifactMetaData();
+            artifactMetaData.repoKey = getRepoKey();
+            artifactMetaData.forge = getForge();
+            artifactMetaData.originId = getOriginId();
+            artifactMetaData.componentVersionLink = getComponentVersionLink();
+            artifactMetaData.highSeverityCount = getHighSeverityCount();
+            artifactMetaData.mediumSeverityCount = getMediumSeverityCount();
+            artifactMetaData.lowSeverityCount = getLowSeverityCount();
+            artifactMetaData.policyStatus = getPolicyStatus();
+            return artifactMetaData;
+        }
+    }
+
+    private static class Dictionary {
+        private static final int NULL_ID = -1;
+
+        private final Map<String, Integer> valueToId = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        private int intern(final String value) {
+            if (value == null) {
+                return NULL_ID;
+            }
+            return valueToId.computeIfAbsent(value, key -> {
+                values.add(key);
+                return values.size() - 1;
+            });
+        }
+
+        private String get(final int id) {
+            return id == NULL_ID ? null : values.get(id);
+        }
+
+        private int size() {
+            return values.size();
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+public class ArtifactMetaDataChange {
+    private final ArtifactMetaData previousArtifactMetaData;
+    private final ArtifactMetaData artifactMetaData;
+    private final Set<BlackDuckArtifactoryProperty> changedProperties;
+
+    public ArtifactMetaDataChange(final ArtifactMetaData previousArtifactMetaData, final ArtifactMetaData artifactMetaData, final Set<BlackDuckArtifactoryProperty> changedProperties) {
+        this.previousArtifactMetaData = previousArtifactMetaData;
+        this.artifactMetaData = artifactMetaData;
+        this.changedProperties = changedProperties;
+    }
+
+    public ArtifactMetaData getPreviousArtifactMetaData() {
+        return previousArtifactMetaData;
+    }
+
+    public ArtifactMetaData getArtifactMetaData() {
+        return artifactMetaData;
+    }
+
+    public Set<BlackDuckArtifactoryProperty> getChangedProperties() {
+        return changedProperties;
+    }
+
+    public Map<BlackDuckArtifactoryProperty, String> getChangedPropertyValues() {
+        final Map<BlackDuckArtifactoryProperty, String> changedPropertyValues = new EnumMap<>(BlackDuckArtifactoryProperty.class);
+        artifactMetaData.getPropertyValues().forEach((property, value) -> {
+            if (changedProperties.contains(property)) {
+                changedPropertyValues.put(property, value);
+            }
+        });
+        return changedPropertyValues;
+    }
+
+    public Set<BlackDuckArtifactoryProperty> getRemovedProperties() {
+        final Set<BlackDuckArtifactoryProperty> removedProperties = EnumSet.noneOf(BlackDuckArtifactoryProperty.class);
+        removedProperties.addAll(changedProperties);
+        removedProperties.removeAll(artifactMetaData.getPropertyValues().keySet());
+        return removedProperties;
+    }
+
+}
@@ -0,0 +1,55 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory;
+
+import java.util.List;
+
+public class ArtifactMetaDataDelta {
+    private final List<ArtifactMetaData> added;
+    private final List<ArtifactMetaDataChange> changed;
+    private final List<ArtifactMetaData> removed;
+
+    public ArtifactMetaDataDelta(final List<ArtifactMetaData> added, final List<ArtifactMetaDataChange> changed, final List<ArtifactMetaData> removed) {
+        this.added = added;
+        this.changed = changed;
+        this.removed = removed;
+    }
+
+    public List<ArtifactMetaData> getAdded() {
+        return added;
+    }
+
+    public List<ArtifactMetaDataChange> getChanged() {
+        return changed;
+    }
+
+    public List<ArtifactMetaData> getRemoved() {
+        return removed;
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && changed.isEmpty() && removed.isEmpty();
+    }
+
+}
@@ -24,106 +24,331 @@
 package com.blackducksoftware.integration.hub.artifactory;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import com.blackducksoftware.integration.exception.IntegrationException;
-import com.blackducksoftware.integration.hub.api.generated.view.ComponentVersionView;
+import com.blackducksoftware.integration.hub.api.generated.response.VersionRiskProfileView;
 import com.blackducksoftware.integration.hub.api.generated.view.ProjectVersionView;
 import com.blackducksoftware.integration.hub.api.generated.view.VersionBomComponentView;
+import com.blackducksoftware.integration.hub.api.generated.view.VersionBomPolicyStatusView;
 import com.blackducksoftware.integration.hub.api.generated.view.VulnerabilityV2View;
+import com.blackducksoftware.integration.hub.artifactory.inspect.InspectPluginConfig;
+import com.blackducksoftware.integration.hub.artifactory.model.ComponentDataCache;
+import com.blackducksoftware.integration.hub.artifactory.model.ComponentOrigin;
 import com.blackducksoftware.integration.hub.artifactory.model.CompositeComponentManager;
 import com.blackducksoftware.integration.hub.artifactory.model.CompositeComponentModel;
+import com.blackducksoftware.integration.hub.artifactory.model.HubCallExecutor;
+import com.blackducksoftware.integration.hub.artifactory.model.HubCallType;
+import com.blackducksoftware.integration.hub.artifactory.model.VulnerabilityCounts;
 import com.blackducksoftware.integration.hub.notification.NotificationDetailResults;
 import com.blackducksoftware.integration.hub.service.HubService;
 import com.blackducksoftware.integration.hub.service.NotificationService;
 import com.blackducksoftware.integration.hub.service.bucket.HubBucket;
+import com.blackducksoftware.integration.hub.service.model.RequestFactory;
 import com.blackducksoftware.integration.log.IntLogger;
+import com.blackducksoftware.integration.rest.request.Request;
 
 public class ArtifactMetaDataManager {
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
     private final IntLogger intLogger;
+    private final InspectPluginConfig inspectPluginConfig;
+    private final ComponentDataCache componentDataCache;
+    private final SeverityCountSource severityCountSource;
+    private final HubCallExecutor hubCallExecutor;
+    private final long metaDataReuseMillis;
+    private final Map<String, SharedMetaData> projectVersionUriToSharedMetaData = new ConcurrentHashMap<>();
 
     public ArtifactMetaDataManager(final IntLogger intLogger) {
+        this(intLogger, InspectPluginConfig.defaults(), ComponentDataCache.disabled(), new HubCallExecutor());
+    }
+
+    public ArtifactMetaDataManager(final IntLogger intLogger, final InspectPluginConfig inspectPluginConfig, final ComponentDataCache componentDataCache, final HubCallExecutor hubCallExecutor) {
         this.intLogger = intLogger;
+        this.inspectPluginConfig = inspectPluginConfig;
+        this.componentDataCache = componentDataCache;
+        this.severityCountSource = inspectPluginConfig.getSeverityCountSource();
+        this.hubCallExecutor = hubCallExecutor;
+        this.metaDataReuseMillis = inspectPluginConfig.getMetadataReuseMillis();
     }
 
     public List<ArtifactMetaData> getMetaData(final String repoKey, final HubService hubService, final ProjectVersionView projectVersionView) throws IntegrationException {
-        final Map<String, ArtifactMetaData> idToArtifactMetaData = new HashMap<>();
+        final String projectVersionUri = projectVersionView._meta.href;
+        final long now = System.currentTimeMillis();
+        projectVersionUriToSharedMetaData.values().removeIf(sharedMetaData -> sharedMetaData.isExpired(now));
 
-        final List<VersionBomComponentView> versionBomComponentViews = hubService.getAllResponses(projectVersionView, ProjectVersionView.COMPONENTS_LINK_RESPONSE);
+        final SharedMetaData newSharedMetaData = new SharedMetaData();
+        final SharedMetaData sharedMetaData = projectVersionUriToSharedMetaData.compute(projectVersionUri, (key, existingSharedMetaData) -> {
+            return existingSharedMetaData == null || existingSharedMetaData.isExpired(now) ? newSharedMetaData : existingSharedMetaData;
+        });
 
-        final CompositeComponentManager compositeComponentManager = new CompositeComponentManager(intLogger, hubService);
-        final List<CompositeComponentModel> projectVersionComponentVersionModels = compositeComponentManager.parseBom(projectVersionView, versionBomComponentViews);
+        final List<ArtifactMetaData> sharedArtifactMetaData;
+        if (sharedMetaData == newSharedMetaData) {
+            try {
+                sharedArtifactMetaData = collectMetaData(null, hubService, projectVersionView);
+                sharedMetaData.complete(sharedArtifactMetaData);
+            } catch (final IntegrationException | RuntimeException e) {
+                sharedMetaData.completeExceptionally(e);
+                throw e;
+            } finally {
+                if (metaDataReuseMillis <= 0 || !sharedMetaData.isCompletedSuccessfully()) {
+                    projectVersionUriToSharedMetaData.remove(projectVersionUri, sharedMetaData);
+                }
+            }
+        } else {
+            intLogger.debug(String.format("Sharing the metadata for %s with %s", projectVersionUri, repoKey));
+            sharedArtifactMetaData = sharedMetaData.get();
+        }
 
-        for (final CompositeComponentModel projectVersionComponentVersionModel : projectVersionComponentVersionModels) {
-            populateMetaDataMap(repoKey, idToArtifactMetaData, hubService, projectVersionComponentVersionModel);
+        return sharedArtifactMetaData
+                .stream()
+                .map(artifactMetaData -> artifactMetaData.copy(repoKey))
+                .collect(Collectors.toList());
+    }
+
+    public Optional<List<ArtifactMetaData>> getMetaDataIfChanged(final String repoKey, final HubService hubService, final ProjectVersionView projectVersionView, final ProjectVersionFingerprints projectVersionFingerprints)
+            throws IntegrationException {
+        final String projectVersionUri = projectVersionView._meta.href;
+        final String fingerprint = getFingerprint(hubService, projectVersionView);
+        if (projectVersionFingerprints.matches(repoKey, projectVersionUri, fingerprint)) {
+            intLogger.debug(String.format("Skipping %s for %s because it has not changed since the last run", projectVersionUri, repoKey));
+            return Optional.empty();
         }
 
-        return new ArrayList<>(idToArtifactMetaData.values());
+        final List<ArtifactMetaData> artifactMetaData = getMetaData(repoKey, hubService, projectVersionView);
+        projectVersionFingerprints.setPendingFingerprint(repoKey, projectVersionUri, fingerprint);
+        return Optional.of(artifactMetaData);
+    }
+
+    public String getFingerprint(final HubService hubService, final ProjectVersionView projectVersionView) throws IntegrationException {
+        final VersionRiskProfileView versionRiskProfileView = hubCallExecutor.execute(HubCallType.RISK_PROFILE, () -> hubService.getResponse(projectVersionView, ProjectVersionView.RISKPROFILE_LINK_RESPONSE));
+        final VersionBomPolicyStatusView versionBomPolicyStatusView = hubCallExecutor.execute(HubCallType.POLICY_STATUS, () -> hubService.getResponse(projectVersionView, ProjectVersionView.POLICY_STATUS_LINK_RESPONSE));
+
+        final StringBuilder fingerprint = new StringBuilder();
+        fingerprint.append(versionRiskProfileView.bomLastUpdatedAt == null ? "" : versionRiskProfileView.bomLastUpdatedAt.getTime());
+        fingerprint.append('|').append(hubService.getGson().toJson(versionRiskProfileView.categories));
+        fingerprint.append('|').append(versionBomPolicyStatusView.overallStatus);
+        fingerprint.append('|').append(versionBomPolicyStatusView.updatedAt == null ? "" : versionBomPolicyStatusView.updatedAt.getTime());
+        fingerprint.append('|').append(hubService.getGson().toJson(versionBomPolicyStatusView.componentVersionStatusCounts));
+        fingerprint.append('|').append(severityCountSource);
+
+        return DigestUtils.sha256Hex(fingerprint.toString());
+    }
+
+    public void processMetaData(final String repoKey, final HubService hubService, final ProjectVersionView projectVersionView, final Consumer<ArtifactMetaData> artifactMetaDataConsumer) throws IntegrationException {
+        processMetaData(repoKey, hubService, projectVersionView, inspectPluginConfig.getMetadataPageSize(), artifactMetaDataConsumer);
+    }
+
+    public void processMetaData(final String repoKey, final HubService hubService, final ProjectVersionView projectVersionView, final int pageSize, final Consumer<ArtifactMetaData> artifactMetaDataConsumer) throws IntegrationException {
+        final Set<String> processedIds = new HashSet<>();
+        final CompositeComponentManager compositeComponentManager = new CompositeComponentManager(intLogger, hubService, inspectPluginConfig, componentDataCache, hubCallExecutor);
+
+        final int limit = Math.max(1, pageSize);
+        int offset = 0;
+        List<VersionBomComponentView> versionBomComponentViews;
+        do {
+            final Request.Builder requestBuilder = RequestFactory.createCommonGetRequestBuilder(limit, offset);
+            versionBomComponentViews = hubCallExecutor.execute(HubCallType.BOM_PAGE, () -> hubService.getResponses(projectVersionView, ProjectVersionView.COMPONENTS_LINK_RESPONSE, requestBuilder, false));
+
+            final List<CompositeComponentModel> projectVersionComponentVersionModels = compositeComponentManager.parseBom(projectVersionView, versionBomComponentViews);
+            for (final CompositeComponentModel projectVersionComponentVersionModel : projectVersionComponentVersionModels) {
+                populateMetaData(repoKey, processedIds, hubService, projectVersionComponentVersionModel, artifactMetaDataConsumer);
+            }
+
+            offset += versionBomComponentViews.size();
+        } while (versionBomComponentViews.size() >= limit);
+    }
+
+    public ArtifactMetaDataBatch getMetaDataBatch(final String repoKey, final HubService hubService, final ProjectVersionView projectVersionView) throws IntegrationException {
+        final ArtifactMetaDataBatch artifactMetaDataBatch = new ArtifactMetaDataBatch();
+        processMetaData(repoKey, hubService, projectVersionView, artifactMetaDataBatch::add);
+        artifactMetaDataBatch.trimToSize();
+        return artifactMetaDataBatch;
     }
 
     public ArtifactMetaDataFromNotifications getMetaDataFromNotifications(final String repoKey, final HubService hubService, final NotificationService notificationService, final ProjectVersionView projectVersionView, final Date startDate,
             final Date endDate) throws IntegrationException {
-        final Map<String, ArtifactMetaData> idToArtifactMetaData = new HashMap<>();
+        final Map<String, ProjectVersionView> repoKeyToProjectVersionView = Collections.singletonMap(repoKey, projectVersionView);
+        final RepoArtifactMetaDataFromNotifications repoArtifactMetaDataFromNotifications = getMetaDataFromNotifications(hubService, notificationService, repoKeyToProjectVersionView, startDate, endDate);
+
+        return repoArtifactMetaDataFromNotifications.getArtifactMetaDataFromNotifications(repoKey);
+    }
+
+    public RepoArtifactMetaDataFromNotifications getMetaDataFromNotifications(final HubService hubService, final NotificationService notificationService, final Map<String, ProjectVersionView> repoKeyToProjectVersionView, final Date startDate,
+            final Date endDate) throws IntegrationException {
         final HubBucket hubBucket = new HubBucket();
-        final NotificationDetailResults notificationDetailResults = notificationService.getAllNotificationDetailResults(hubBucket, startDate, endDate);
-        final List<ProjectVersionView> projectVersionViews = Arrays.asList(projectVersionView);
+        final NotificationDetailResults notificationDetailResults = hubCallExecutor.execute(HubCallType.NOTIFICATIONS, () -> notificationService.getAllNotificationDetailResults(hubBucket, startDate, endDate));
 
-        final CompositeComponentManager compositeComponentManager = new CompositeComponentManager(intLogger, hubService);
+        final Map<String, List<String>> projectVersionUriToRepoKeys = new HashMap<>();
+        final Map<String, List<ArtifactMetaData>> repoKeyToArtifactMetaData = new HashMap<>();
+        final Map<String, Set<String>> repoKeyToProcessedIds = new HashMap<>();
+        for (final Map.Entry<String, ProjectVersionView> repoKeyAndProjectVersionView : repoKeyToProjectVersionView.entrySet()) {
+            final String repoKey = repoKeyAndProjectVersionView.getKey();
+            projectVersionUriToRepoKeys.computeIfAbsent(repoKeyAndProjectVersionView.getValue()._meta.href, projectVersionUri -> new ArrayList<>()).add(repoKey);
+            repoKeyToArtifactMetaData.put(repoKey, new ArrayList<>());
+            repoKeyToProcessedIds.put(repoKey, new HashSet<>());
+        }
+        final List<ProjectVersionView> projectVersionViews = new ArrayList<>(repoKeyToProjectVersionView.values());
+
+        final CompositeComponentManager compositeComponentManager = new CompositeComponentManager(intLogger, hubService, inspectPluginConfig, componentDataCache, hubCallExecutor);
         final List<CompositeComponentModel> projectVersionComponentVersionModels = compositeComponentManager.parseNotifications(notificationDetailResults, projectVersionViews);
 
         for (final CompositeComponentModel projectVersionComponentVersionModel : projectVersionComponentVersionModels) {
-            populateMetaDataMap(repoKey, idToArtifactMetaData, hubService, projectVersionComponentVersionModel);
+            final List<String> repoKeys = projectVersionUriToRepoKeys.getOrDefault(projectVersionComponentVersionModel.getProjectVersionUri(), Collections.emptyList());
+            for (final String repoKey : repoKeys) {
+                populateMetaData(repoKey, repoKeyToProcessedIds.get(repoKey), hubService, projectVersionComponentVersionModel, repoKeyToArtifactMetaData.get(repoKey)::add);
+            }
+        }
+
+        return new RepoArtifactMetaDataFromNotifications(notificationDetailResults.getLatestNotificationCreatedAtDate(), repoKeyToArtifactMetaData);
+    }
+
+    private List<ArtifactMetaData> collectMetaData(final String repoKey, final HubService hubService, final ProjectVersionView projectVersionView) throws IntegrationException {
+        final List<ArtifactMetaData> artifactMetaData = new ArrayList<>();
+        final Set<String> processedIds = new HashSet<>();
+
+        final List<CompositeComponentModel> projectVersionComponentVersionModels = parseBom(hubService, projectVersionView);
+        for (final CompositeComponentModel projectVersionComponentVersionModel : projectVersionComponentVersionModels) {
+            populateMetaData(repoKey, processedIds, hubService, projectVersionComponentVersionModel, artifactMetaData::add);
         }
 
-        return new ArtifactMetaDataFromNotifications(notificationDetailResults.getLatestNotificationCreatedAtDate(), new ArrayList<>(idToArtifactMetaData.values()));
+        return artifactMetaData;
+    }
+
+    private List<CompositeComponentModel> parseBom(final HubService hubService, final ProjectVersionView projectVersionView) throws IntegrationException {
+        final List<VersionBomComponentView> versionBomComponentViews = hubCallExecutor.execute(HubCallType.BOM_PAGE, () -> hubService.getAllResponses(projectVersionView, ProjectVersionView.COMPONENTS_LINK_RESPONSE));
+
+        final CompositeComponentManager compositeComponentManager = new CompositeComponentManager(intLogger, hubService, inspectPluginConfig, componentDataCache, hubCallExecutor);
+        return compositeComponentManager.parseBom(projectVersionView, versionBomComponentViews);
     }
 
-    private void populateMetaDataMap(final String repoKey, final Map<String, ArtifactMetaData> idToArtifactMetaData, final HubService hubService, final CompositeComponentModel compositeComponentModel) {
-        compositeComponentModel.originViews.forEach(originView -> {
-            final String forge = originView.originName;
-            final String originId = originView.originId;
-            if (!idToArtifactMetaData.containsKey(key(forge, originId))) {
+    private void populateMetaData(final String repoKey, final Set<String> processedIds, final HubService hubService, final CompositeComponentModel compositeComponentModel, final Consumer<ArtifactMetaData> artifactMetaDataConsumer) {
+        final List<ComponentOrigin> componentOrigins = compositeComponentModel.getComponentOrigins();
+        if (componentOrigins == null) {
+            return;
+        }
+
+        VulnerabilityCounts vulnerabilityCounts = null;
+        for (final ComponentOrigin componentOrigin : componentOrigins) {
+            final String forge = componentOrigin.originName;
+            final String originId = componentOrigin.originId;
+            if (processedIds.add(ArtifactMetaData.getKey(forge, originId))) {
                 final ArtifactMetaData artifactMetaData = new ArtifactMetaData();
                 artifactMetaData.repoKey = repoKey;
                 artifactMetaData.forge = forge;
                 artifactMetaData.originId = originId;
-                artifactMetaData.componentVersionLink = compositeComponentModel.componentVersionView._meta.href;
-                artifactMetaData.policyStatus = compositeComponentModel.versionBomComponentView.policyStatus;
+                artifactMetaData.componentVersionLink = compositeComponentModel.getComponentVersionHref();
+                artifactMetaData.policyStatus = compositeComponentModel.getPolicyStatus();
 
-                populateVulnerabilityCounts(artifactMetaData, compositeComponentModel.componentVersionView, hubService);
+                if (vulnerabilityCounts == null) {
+                    vulnerabilityCounts = getVulnerabilityCounts(compositeComponentModel, hubService);
+                }
+                artifactMetaData.highSeverityCount = vulnerabilityCounts.highSeverityCount;
+                artifactMetaData.mediumSeverityCount = vulnerabilityCounts.mediumSeverityCount;
+                artifactMetaData.lowSeverityCount = vulnerabilityCounts.lowSeverityCount;
 
-                idToArtifactMetaData.put(key(forge, originId), artifactMetaData);
+                artifactMetaDataConsumer.accept(artifactMetaData);
             }
-        });
+        }
+    }
+
+    private VulnerabilityCounts getVulnerabilityCounts(final CompositeComponentModel compositeComponentModel, final HubService hubService) {
+        if (SeverityCountSource.SECURITY_RISK_PROFILE == severityCountSource) {
+            final Optional<VulnerabilityCounts> riskProfileVulnerabilityCounts = compositeComponentModel.getRiskProfileVulnerabilityCounts();
+            if (riskProfileVulnerabilityCounts.isPresent()) {
+                return riskProfileVulnerabilityCounts.get();
+            }
+        }
+
+        return getVulnerabilityCounts(compositeComponentModel.getComponentVersionHref(), compositeComponentModel.getVulnerabilitiesLink(), hubService);
     }
 
-    private void populateVulnerabilityCounts(final ArtifactMetaData artifactMetaData, final ComponentVersionView componentVersionView, final HubService hubService) {
-        final String vulnerabilitiesLink = hubService.getFirstLinkSafely(componentVersionView, ComponentVersionView.VULNERABILITIES_LINK);
+    private VulnerabilityCounts getVulnerabilityCounts(final String componentVersionHref, final String vulnerabilitiesLink, final HubService hubService) {
+        final Optional<VulnerabilityCounts> cachedVulnerabilityCounts = componentDataCache.getVulnerabilityCounts(componentVersionHref);
+        if (cachedVulnerabilityCounts.isPresent()) {
+            hubCallExecutor.getHubMetrics().recordCacheHit(HubCallType.VULNERABILITIES);
+            return cachedVulnerabilityCounts.get();
+        }
+        hubCallExecutor.getHubMetrics().recordCacheMiss(HubCallType.VULNERABILITIES);
+
+        int highSeverityCount = 0;
+        int mediumSeverityCount = 0;
+        int lowSeverityCount = 0;
         if (StringUtils.isNotBlank(vulnerabilitiesLink)) {
             try {
-                final List<VulnerabilityV2View> componentVulnerabilities = hubService.getAllResponses(vulnerabilitiesLink, VulnerabilityV2View.class);
-                componentVulnerabilities.forEach(vulnerability -> {
+                final List<VulnerabilityV2View> componentVulnerabilities = hubCallExecutor.execute(HubCallType.VULNERABILITIES, () -> hubService.getAllResponses(vulnerabilitiesLink, VulnerabilityV2View.class));
+                for (final VulnerabilityV2View vulnerability : componentVulnerabilities) {
                     if ("HIGH".equals(vulnerability.severity)) {
-                        artifactMetaData.highSeverityCount++;
+                        highSeverityCount++;
                     } else if ("MEDIUM".equals(vulnerability.severity)) {
-                        artifactMetaData.mediumSeverityCount++;
+                        mediumSeverityCount++;
                     } else if ("LOW".equals(vulnerability.severity)) {
-                        artifactMetaData.lowSeverityCount++;
+                        lowSeverityCount++;
                     }
-                });
+                }
             } catch (final IntegrationException e) {
-                intLogger.error(String.format("Can't populate vulnerability counts for %s: %s", componentVersionView._meta.href, e.getMessage()));
+                intLogger.error(String.format("Can't populate vulnerability counts for %s: %s", componentVersionHref, e.getMessage()));
+                return new VulnerabilityCounts(0, 0, 0);
             }
         }
+
+        final VulnerabilityCounts vulnerabilityCounts = new VulnerabilityCounts(highSeverityCount, mediumSeverityCount, lowSeverityCount);
+        componentDataCache.putVulnerabilityCounts(componentVersionHref, vulnerabilityCounts);
+        return vulnerabilityCounts;
     }
 
-    private String key(final String forge, final String originId) {
-        return forge + ":" + originId;
+    private class SharedMetaData {
+        private final CompletableFuture<List<ArtifactMetaData>> future = new CompletableFuture<>();
+        private volatile long completedAt;
+
+        private void complete(final List<ArtifactMetaData> artifactMetaData) {
+            completedAt = System.currentTimeMillis();
+            future.complete(artifactMetaData);
+        }
+
+        private void completeExceptionally(final Exception e) {
+            completedAt = System.currentTimeMillis();
+            future.completeExceptionally(e);
+        }
+
+        private boolean isCompletedSuccessfully() {
+            return future.isDone() && !future.isCompletedExceptionally();
+        }
+
+        private boolean isExpired(final long now) {
+            return future.isDone() && (future.isCompletedExceptionally() || completedAt + metaDataReuseMillis < now);
+        }
+
+        private List<ArtifactMetaData> get() throws IntegrationException {
+            try {
+                return future.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IntegrationException("Interrupted while waiting for the shared metadata", e);
+            } catch (final ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof IntegrationException) {
+                    throw (IntegrationException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IntegrationException(cause);
+            }
+        }
     }
 }
@@ -0,0 +1,116 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+public class ArtifactMetaDataSnapshot {
+    private final Map<String, ArtifactMetaData> idToArtifactMetaData = new HashMap<>();
+
+    public ArtifactMetaDataSnapshot() {
+    }
+
+    public ArtifactMetaDataSnapshot(final Collection<ArtifactMetaData> artifactMetaData) {
+        artifactMetaData.forEach(it -> idToArtifactMetaData.put(it.getKey(), it));
+    }
+
+    public ArtifactMetaDataDelta diff(final List<ArtifactMetaData> artifactMetaData) {
+        return diff(artifactMetaData, true);
+    }
+
+    public ArtifactMetaDataDelta diffUpdates(final List<ArtifactMetaData> artifactMetaData) {
+        return diff(artifactMetaData, false);
+    }
+
+    public void apply(final ArtifactMetaDataDelta artifactMetaDataDelta) {
+        artifactMetaDataDelta.getRemoved().forEach(it -> idToArtifactMetaData.remove(it.getKey()));
+        artifactMetaDataDelta.getAdded().forEach(it -> idToArtifactMetaData.put(it.getKey(), it));
+        artifactMetaDataDelta.getChanged().forEach(it -> idToArtifactMetaData.put(it.getArtifactMetaData().getKey(), it.getArtifactMetaData()));
+    }
+
+    public Optional<ArtifactMetaData> get(final String forge, final String originId) {
+        return Optional.ofNullable(idToArtifactMetaData.get(ArtifactMetaData.getKey(forge, originId)));
+    }
+
+    public Collection<ArtifactMetaData> getArtifactMetaData() {
+        return idToArtifactMetaData.values();
+    }
+
+    public int size() {
+        return idToArtifactMetaData.size();
+    }
+
+    private ArtifactMetaDataDelta diff(final List<ArtifactMetaData> artifactMetaData, final boolean complete) {
+        final List<ArtifactMetaData> added = new ArrayList<>();
+        final List<ArtifactMetaDataChange> changed = new ArrayList<>();
+        final List<ArtifactMetaData> removed = new ArrayList<>();
+        final Set<String> currentIds = new HashSet<>();
+
+        for (final ArtifactMetaData currentArtifactMetaData : artifactMetaData) {
+            final String id = currentArtifactMetaData.getKey();
+            currentIds.add(id);
+            final ArtifactMetaData previousArtifactMetaData = idToArtifactMetaData.get(id);
+            if (previousArtifactMetaData == null) {
+                added.add(currentArtifactMetaData);
+            } else {
+                final Set<BlackDuckArtifactoryProperty> changedProperties = getChangedProperties(previousArtifactMetaData, currentArtifactMetaData);
+                if (!changedProperties.isEmpty()) {
+                    changed.add(new ArtifactMetaDataChange(previousArtifactMetaData, currentArtifactMetaData, changedProperties));
+                }
+            }
+        }
+
+        if (complete) {
+            idToArtifactMetaData.forEach((id, previousArtifactMetaData) -> {
+                if (!currentIds.contains(id)) {
+                    removed.add(previousArtifactMetaData);
+                }
+            });
+        }
+
+        return new ArtifactMetaDataDelta(added, changed, removed);
+    }
+
+    private Set<BlackDuckArtifactoryProperty> getChangedProperties(final ArtifactMetaData previousArtifactMetaData, final ArtifactMetaData currentArtifactMetaData) {
+        final Set<BlackDuckArtifactoryProperty> changedProperties = EnumSet.noneOf(BlackDuckArtifactoryProperty.class);
+        final Map<BlackDuckArtifactoryProperty, String> previousPropertyValues = previousArtifactMetaData.getPropertyValues();
+        final Map<BlackDuckArtifactoryProperty, String> currentPropertyValues = currentArtifactMetaData.getPropertyValues();
+        for (final BlackDuckArtifactoryProperty property : BlackDuckArtifactoryProperty.values()) {
+            if (!Objects.equals(currentPropertyValues.get(property), previousPropertyValues.get(property))) {
+                changedProperties.add(property);
+            }
+        }
+        return changedProperties;
+    }
+
+}
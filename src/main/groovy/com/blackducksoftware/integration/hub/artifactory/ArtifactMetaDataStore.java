@@ -0,0 +1,403 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.input.CountingInputStream;
+import org.slf4j.LoggerFactory;
+
+import com.blackducksoftware.integration.hub.api.generated.enumeration.PolicyStatusApprovalStatusType;
+import com.blackducksoftware.integration.hub.artifactory.model.ComponentDataCache;
+import com.blackducksoftware.integration.hub.artifactory.model.VulnerabilityCounts;
+import com.blackducksoftware.integration.log.IntLogger;
+import com.blackducksoftware.integration.log.Slf4jIntLogger;
+
+public class ArtifactMetaDataStore implements Closeable {
+    public static final String STORE_FILE_NAME = "artifact-metadata.store";
+
+    private static final int MAGIC_NUMBER = 0x4244414D;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_LENGTH = 8;
+    private static final int MINIMUM_RECORDS_BEFORE_COMPACTION = 10000;
+
+    private static final byte ARTIFACT_META_DATA_RECORD = 1;
+    private static final byte ARTIFACT_META_DATA_REMOVED_RECORD = 2;
+    private static final byte VULNERABILITY_COUNTS_RECORD = 3;
+    private static final byte FINGERPRINT_RECORD = 4;
+
+    private final IntLogger intLogger;
+    private final File storeFile;
+    private final long vulnerabilityCountsTimeToLiveMillis;
+    private final Map<String, Map<String, ArtifactMetaData>> repoKeyToArtifactMetaData = new HashMap<>();
+    private final Map<String, StoredVulnerabilityCounts> componentVersionHrefToVulnerabilityCounts = new HashMap<>();
+    private final Map<String, String[]> fingerprints = new LinkedHashMap<>();
+    private DataOutputStream outputStream;
+    private boolean loaded;
+    private long recordCount;
+
+    public ArtifactMetaDataStore(final File blackDuckDirectory) {
+        this(new Slf4jIntLogger(LoggerFactory.getLogger(ArtifactMetaDataStore.class)), blackDuckDirectory);
+    }
+
+    public ArtifactMetaDataStore(final BlackDuckArtifactoryConfig blackDuckArtifactoryConfig) {
+        this(new Slf4jIntLogger(LoggerFactory.getLogger(ArtifactMetaDataStore.class)), blackDuckArtifactoryConfig);
+    }
+
+    public ArtifactMetaDataStore(final IntLogger intLogger, final File blackDuckDirectory) {
+        this(intLogger, blackDuckDirectory, ComponentDataCache.DEFAULT_TIME_TO_LIVE_MILLIS);
+    }
+
+    public ArtifactMetaDataStore(final IntLogger intLogger, final BlackDuckArtifactoryConfig blackDuckArtifactoryConfig) {
+        this(intLogger, blackDuckArtifactoryConfig.getBlackDuckDirectory(), blackDuckArtifactoryConfig.getSnapshot().getInspectPluginConfig().getComponentCacheTtlMillis());
+    }
+
+    public ArtifactMetaDataStore(final IntLogger intLogger, final File blackDuckDirectory, final long vulnerabilityCountsTimeToLiveMillis) {
+        this.intLogger = intLogger;
+        this.storeFile = new File(blackDuckDirectory, STORE_FILE_NAME);
+        this.vulnerabilityCountsTimeToLiveMillis = vulnerabilityCountsTimeToLiveMillis;
+    }
+
+    public File getStoreFile() {
+        return storeFile;
+    }
+
+    public synchronized ArtifactMetaDataSnapshot getSnapshot(final String repoKey) throws IOException {
+        ensureLoaded();
+        final Map<String, ArtifactMetaData> idToArtifactMetaData = repoKeyToArtifactMetaData.getOrDefault(repoKey, new HashMap<>());
+        return new ArtifactMetaDataSnapshot(new ArrayList<>(idToArtifactMetaData.values()));
+    }
+
+    public synchronized void store(final String repoKey, final ArtifactMetaDataDelta artifactMetaDataDelta) throws IOException {
+        ensureLoaded();
+        final Map<String, ArtifactMetaData> idToArtifactMetaData = repoKeyToArtifactMetaData.computeIfAbsent(repoKey, key -> new HashMap<>());
+        for (final ArtifactMetaData artifactMetaData : artifactMetaDataDelta.getAdded()) {
+            writeArtifactMetaData(outputStream, repoKey, artifactMetaData);
+            idToArtifactMetaData.put(artifactMetaData.getKey(), artifactMetaData);
+        }
+        for (final ArtifactMetaDataChange artifactMetaDataChange : artifactMetaDataDelta.getChanged()) {
+            writeArtifactMetaData(outputStream, repoKey, artifactMetaDataChange.getArtifactMetaData());
+            idToArtifactMetaData.put(artifactMetaDataChange.getArtifactMetaData().getKey(), artifactMetaDataChange.getArtifactMetaData());
+        }
+        for (final ArtifactMetaData artifactMetaData : artifactMetaDataDelta.getRemoved()) {
+            writeArtifactMetaDataRemoved(outputStream, repoKey, artifactMetaData.getKey());
+            idToArtifactMetaData.remove(artifactMetaData.getKey());
+        }
+        outputStream.flush();
+    }
+
+    public synchronized void storeFingerprint(final String repoKey, final String projectVersionUri, final String fingerprint) throws IOException {
+        ensureLoaded();
+        final String[] storedFingerprint = fingerprints.get(repoKey + "|" + projectVersionUri);
+        if (storedFingerprint == null || !fingerprint.equals(storedFingerprint[2])) {
+            writeFingerprint(outputStream, repoKey, projectVersionUri, fingerprint);
+            outputStream.flush();
+        }
+    }
+
+    public synchronized void loadFingerprints(final ProjectVersionFingerprints projectVersionFingerprints) throws IOException {
+        ensureLoaded();
+        fingerprints.values().forEach(fingerprint -> projectVersionFingerprints.setFingerprint(fingerprint[0], fingerprint[1], fingerprint[2]));
+    }
+
+    public synchronized void storeVulnerabilityCounts(final ComponentDataCache componentDataCache) throws IOException {
+        ensureLoaded();
+        final List<IOException> writeFailures = new ArrayList<>();
+        componentDataCache.forEachVulnerabilityCounts((componentVersionHref, vulnerabilityCounts, createdAtMillis) -> {
+            final StoredVulnerabilityCounts storedVulnerabilityCounts = componentVersionHrefToVulnerabilityCounts.get(componentVersionHref);
+            if (storedVulnerabilityCounts == null || storedVulnerabilityCounts.createdAtMillis != createdAtMillis) {
+                try {
+                    writeVulnerabilityCounts(outputStream, componentVersionHref, vulnerabilityCounts, createdAtMillis);
+                } catch (final IOException e) {
+                    writeFailures.add(e);
+                }
+            }
+        });
+        outputStream.flush();
+        if (!writeFailures.isEmpty()) {
+            throw writeFailures.get(0);
+        }
+    }
+
+    public synchronized void loadVulnerabilityCounts(final ComponentDataCache componentDataCache) throws IOException {
+        ensureLoaded();
+        componentVersionHrefToVulnerabilityCounts.forEach((componentVersionHref, storedVulnerabilityCounts) -> {
+            componentDataCache.putVulnerabilityCounts(componentVersionHref, storedVulnerabilityCounts.vulnerabilityCounts, storedVulnerabilityCounts.createdAtMillis);
+        });
+    }
+
+    public synchronized void compact() throws IOException {
+        ensureLoaded();
+        closeOutputStream();
+
+        final File compactedFile = new File(storeFile.getParentFile(), STORE_FILE_NAME + ".compacting");
+        final long appendedRecordCount = recordCount;
+        boolean compacted = false;
+        try {
+            recordCount = 0;
+            try (DataOutputStream compactedOutputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(compactedFile)))) {
+                compactedOutputStream.writeInt(MAGIC_NUMBER);
+                compactedOutputStream.writeInt(FORMAT_VERSION);
+                for (final Map.Entry<String, Map<String, ArtifactMetaData>> repoKeyAndArtifactMetaData : repoKeyToArtifactMetaData.entrySet()) {
+                    for (final ArtifactMetaData artifactMetaData : repoKeyAndArtifactMetaData.getValue().values()) {
+                        writeArtifactMetaData(compactedOutputStream, repoKeyAndArtifactMetaData.getKey(), artifactMetaData);
+                    }
+                }
+                final long nowMillis = System.currentTimeMillis();
+                componentVersionHrefToVulnerabilityCounts.values().removeIf(storedVulnerabilityCounts -> isExpired(storedVulnerabilityCounts, nowMillis));
+                for (final Map.Entry<String, StoredVulnerabilityCounts> hrefAndVulnerabilityCounts : componentVersionHrefToVulnerabilityCounts.entrySet()) {
+                    final StoredVulnerabilityCounts storedVulnerabilityCounts = hrefAndVulnerabilityCounts.getValue();
+                    writeVulnerabilityCounts(compactedOutputStream, hrefAndVulnerabilityCounts.getKey(), storedVulnerabilityCounts.vulnerabilityCounts, storedVulnerabilityCounts.createdAtMillis);
+                }
+                for (final String[] fingerprint : new ArrayList<>(fingerprints.values())) {
+                    writeFingerprint(compactedOutputStream, fingerprint[0], fingerprint[1], fingerprint[2]);
+                }
+            }
+
+            Files.move(compactedFile.toPath(), storeFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            compacted = true;
+        } finally {
+            if (!compacted) {
+                recordCount = appendedRecordCount;
+                Files.deleteIfExists(compactedFile.toPath());
+            }
+            outputStream = openOutputStream();
+        }
+    }
+
+    public synchronized long getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closeOutputStream();
+        loaded = false;
+        repoKeyToArtifactMetaData.clear();
+        componentVersionHrefToVulnerabilityCounts.clear();
+        fingerprints.clear();
+    }
+
+    private void ensureLoaded() throws IOException {
+        if (loaded) {
+            return;
+        }
+
+        storeFile.getParentFile().mkdirs();
+        recordCount = 0;
+        long validLength = 0;
+        if (storeFile.isFile()) {
+            validLength = readStoreFile();
+        }
+
+        if (validLength < HEADER_LENGTH) {
+            try (DataOutputStream headerOutputStream = new DataOutputStream(new FileOutputStream(storeFile))) {
+                headerOutputStream.writeInt(MAGIC_NUMBER);
+                headerOutputStream.writeInt(FORMAT_VERSION);
+            }
+        } else if (validLength < storeFile.length()) {
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(storeFile, "rw")) {
+                randomAccessFile.setLength(validLength);
+            }
+        }
+
+        outputStream = openOutputStream();
+        loaded = true;
+
+        final long liveRecordCount = componentVersionHrefToVulnerabilityCounts.size() + fingerprints.size() + repoKeyToArtifactMetaData.values().stream().mapToLong(Map::size).sum();
+        if (recordCount > MINIMUM_RECORDS_BEFORE_COMPACTION && recordCount > liveRecordCount * 2) {
+            compact();
+        }
+    }
+
+    private boolean isExpired(final StoredVulnerabilityCounts storedVulnerabilityCounts, final long nowMillis) {
+        return vulnerabilityCountsTimeToLiveMillis > 0 && nowMillis - storedVulnerabilityCounts.createdAtMillis > vulnerabilityCountsTimeToLiveMillis;
+    }
+
+    private long readStoreFile() throws IOException {
+        try (CountingInputStream countingInputStream = new CountingInputStream(new BufferedInputStream(new FileInputStream(storeFile)));
+                DataInputStream inputStream = new DataInputStream(countingInputStream)) {
+            if (inputStream.readInt() != MAGIC_NUMBER || inputStream.readInt() != FORMAT_VERSION) {
+                return 0;
+            }
+
+            long validLength = countingInputStream.getByteCount();
+            try {
+                while (true) {
+                    readRecord(inputStream);
+                    recordCount++;
+                    validLength = countingInputStream.getByteCount();
+                }
+            } catch (final EOFException e) {
+                // the end of the file, or a record that was only partially written before a crash
+            } catch (final IOException | RuntimeException e) {
+                intLogger.error(String.format("Could not read record %d of %s, keeping the records before it and discarding the remaining %d bytes: %s", recordCount + 1, storeFile.getAbsolutePath(), storeFile.length() - validLength,
+                        e.getMessage()));
+                intLogger.debug(e.getMessage(), e);
+            }
+            return validLength;
+        } catch (final EOFException e) {
+            return 0;
+        }
+    }
+
+    private void readRecord(final DataInputStream inputStream) throws IOException {
+        final byte recordType = inputStream.readByte();
+        if (ARTIFACT_META_DATA_RECORD == recordType) {
+            final String repoKey = inputStream.readUTF();
+            final ArtifactMetaData artifactMetaData = new ArtifactMetaData();
+            artifactMetaData.repoKey = repoKey;
+            artifactMetaData.forge = readNullableString(inputStream);
+            artifactMetaData.originId = readNullableString(inputStream);
+            artifactMetaData.componentVersionLink = readNullableString(inputStream);
+            artifactMetaData.highSeverityCount = inputStream.readInt();
+            artifactMetaData.mediumSeverityCount = inputStream.readInt();
+            artifactMetaData.lowSeverityCount = inputStream.readInt();
+            final String policyStatus = readNullableString(inputStream);
+            artifactMetaData.policyStatus = readPolicyStatus(policyStatus);
+            repoKeyToArtifactMetaData.computeIfAbsent(repoKey, key -> new HashMap<>()).put(artifactMetaData.getKey(), artifactMetaData);
+        } else if (ARTIFACT_META_DATA_REMOVED_RECORD == recordType) {
+            final String repoKey = inputStream.readUTF();
+            final String id = inputStream.readUTF();
+            final Map<String, ArtifactMetaData> idToArtifactMetaData = repoKeyToArtifactMetaData.get(repoKey);
+            if (idToArtifactMetaData != null) {
+                idToArtifactMetaData.remove(id);
+            }
+        } else if (VULNERABILITY_COUNTS_RECORD == recordType) {
+            final String componentVersionHref = inputStream.readUTF();
+            final VulnerabilityCounts vulnerabilityCounts = new VulnerabilityCounts(inputStream.readInt(), inputStream.readInt(), inputStream.readInt());
+            final long createdAtMillis = inputStream.readLong();
+            componentVersionHrefToVulnerabilityCounts.put(componentVersionHref, new StoredVulnerabilityCounts(vulnerabilityCounts, createdAtMillis));
+        } else if (FINGERPRINT_RECORD == recordType) {
+            final String repoKey = inputStream.readUTF();
+            final String projectVersionUri = inputStream.readUTF();
+            final String fingerprint = inputStream.readUTF();
+            fingerprints.put(repoKey + "|" + projectVersionUri, new String[] { repoKey, projectVersionUri, fingerprint });
+        } else {
+            throw new IOException(String.format("Unknown record type %d", recordType));
+        }
+    }
+
+    private PolicyStatusApprovalStatusType readPolicyStatus(final String policyStatus) {
+        if (policyStatus == null) {
+            return null;
+        }
+        try {
+            return PolicyStatusApprovalStatusType.valueOf(policyStatus);
+        } catch (final IllegalArgumentException e) {
+            intLogger.debug(String.format("Ignoring the unknown policy status %s in %s", policyStatus, storeFile.getAbsolutePath()));
+            return null;
+        }
+    }
+
+    private void writeArtifactMetaData(final DataOutputStream dataOutputStream, final String repoKey, final ArtifactMetaData artifactMetaData) throws IOException {
+        dataOutputStream.writeByte(ARTIFACT_META_DATA_RECORD);
+        dataOutputStream.writeUTF(repoKey);
+        writeNullableString(dataOutputStream, artifactMetaData.forge);
+        writeNullableString(dataOutputStream, artifactMetaData.originId);
+        writeNullableString(dataOutputStream, artifactMetaData.componentVersionLink);
+        dataOutputStream.writeInt(artifactMetaData.highSeverityCount);
+        dataOutputStream.writeInt(artifactMetaData.mediumSeverityCount);
+        dataOutputStream.writeInt(artifactMetaData.lowSeverityCount);
+        writeNullableString(dataOutputStream, artifactMetaData.policyStatus == null ? null : artifactMetaData.policyStatus.name());
+        recordCount++;
+    }
+
+    private void writeArtifactMetaDataRemoved(final DataOutputStream dataOutputStream, final String repoKey, final String id) throws IOException {
+        dataOutputStream.writeByte(ARTIFACT_META_DATA_REMOVED_RECORD);
+        dataOutputStream.writeUTF(repoKey);
+        dataOutputStream.writeUTF(id);
+        recordCount++;
+    }
+
+    private void writeVulnerabilityCounts(final DataOutputStream dataOutputStream, final String componentVersionHref, final VulnerabilityCounts vulnerabilityCounts, final long createdAtMillis) throws IOException {
+        dataOutputStream.writeByte(VULNERABILITY_COUNTS_RECORD);
+        dataOutputStream.writeUTF(componentVersionHref);
+        dataOutputStream.writeInt(vulnerabilityCounts.highSeverityCount);
+        dataOutputStream.writeInt(vulnerabilityCounts.mediumSeverityCount);
+        dataOutputStream.writeInt(vulnerabilityCounts.lowSeverityCount);
+        dataOutputStream.writeLong(createdAtMillis);
+        componentVersionHrefToVulnerabilityCounts.put(componentVersionHref, new StoredVulnerabilityCounts(vulnerabilityCounts, createdAtMillis));
+        recordCount++;
+    }
+
+    private void writeFingerprint(final DataOutputStream dataOutputStream, final String repoKey, final String projectVersionUri, final String fingerprint) throws IOException {
+        dataOutputStream.writeByte(FINGERPRINT_RECORD);
+        dataOutputStream.writeUTF(repoKey);
+        dataOutputStream.writeUTF(projectVersionUri);
+        dataOutputStream.writeUTF(fingerprint);
+        fingerprints.put(repoKey + "|" + projectVersionUri, new String[] { repoKey, projectVersionUri, fingerprint });
+        recordCount++;
+    }
+
+    private String readNullableString(final DataInputStream inputStream) throws IOException {
+        return inputStream.readBoolean() ? inputStream.readUTF() : null;
+    }
+
+    private void writeNullableString(final DataOutputStream dataOutputStream, final String value) throws IOException {
+        dataOutputStream.writeBoolean(value != null);
+        if (value != null) {
+            dataOutputStream.writeUTF(value);
+        }
+    }
+
+    private DataOutputStream openOutputStream() throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(storeFile, true)));
+    }
+
+    private void closeOutputStream() throws IOException {
+        if (outputStream != null) {
+            outputStream.close();
+            outputStream = null;
+        }
+    }
+
+    private static class StoredVulnerabilityCounts {
+        private final VulnerabilityCounts vulnerabilityCounts;
+        private final long createdAtMillis;
+
+        private StoredVulnerabilityCounts(final VulnerabilityCounts vulnerabilityCounts, final long createdAtMillis) {
+            this.vulnerabilityCounts = vulnerabilityCounts;
+            this.createdAtMillis = createdAtMillis;
+        }
+    }
+
+}
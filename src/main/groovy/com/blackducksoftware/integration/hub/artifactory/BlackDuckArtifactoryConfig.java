@@ -28,44 +28,97 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.Properties;
 
+import org.slf4j.LoggerFactory;
+
 import com.blackducksoftware.integration.hub.configuration.HubServerConfig;
 import com.blackducksoftware.integration.hub.configuration.HubServerConfigBuilder;
+import com.blackducksoftware.integration.log.IntLogger;
+import com.blackducksoftware.integration.log.Slf4jIntLogger;
 
 public class BlackDuckArtifactoryConfig {
+    private static final String HUB_PROPERTY_PREFIX = "blackduck.hub.";
+
     private File homeDirectory;
     private File etcDirectory;
     private File pluginsDirectory;
     private File pluginsLibDirectory;
     private File blackDuckDirectory;
     private File versionFile;
-    private Properties properties;
-    private HubServerConfig hubServerConfig;
+    private File propertiesFile;
+    private volatile Properties properties;
+    private volatile HubServerConfig hubServerConfig;
+    private volatile BlackDuckArtifactoryConfigSnapshot snapshot;
+    private IntLogger intLogger = new Slf4jIntLogger(LoggerFactory.getLogger(BlackDuckArtifactoryConfig.class));
 
     public void loadProperties(final String propertiesFilePath) throws IOException {
         loadProperties(new File(propertiesFilePath));
     }
 
-    public void loadProperties(final File propertiesFile) throws IOException {
-        properties = new Properties();
-        try (FileInputStream fileInputStream = new FileInputStream(propertiesFile)) {
-            properties.load(fileInputStream);
+    public synchronized void loadProperties(final File propertiesFile) throws IOException {
+        final Properties loadedProperties = readProperties(propertiesFile);
+        final BlackDuckArtifactoryConfigSnapshot loadedSnapshot = new BlackDuckArtifactoryConfigSnapshot(loadedProperties, true);
+        for (final String invalidValueMessage : loadedSnapshot.getInvalidValueMessages()) {
+            intLogger.warn(String.format("%s: %s", propertiesFile.getAbsolutePath(), invalidValueMessage));
         }
 
-        final HubServerConfigBuilder hubServerConfigBuilder = new HubServerConfigBuilder();
-        hubServerConfigBuilder.setFromProperties(properties);
-        hubServerConfig = hubServerConfigBuilder.build();
+        this.propertiesFile = propertiesFile;
+        hubServerConfig = buildHubServerConfig(loadedProperties);
+        properties = loadedProperties;
+        snapshot = loadedSnapshot;
+    }
+
+    public synchronized boolean reloadPropertiesIfChanged() throws IOException {
+        if (propertiesFile == null) {
+            return false;
+        }
+
+        final Properties loadedProperties = readProperties(propertiesFile);
+        final BlackDuckArtifactoryConfigSnapshot currentSnapshot = snapshot;
+        if (currentSnapshot.hasSameProperties(loadedProperties)) {
+            return false;
+        }
+
+        final BlackDuckArtifactoryConfigSnapshot loadedSnapshot = new BlackDuckArtifactoryConfigSnapshot(loadedProperties);
+        if (!currentSnapshot.hasSameProperties(loadedProperties, HUB_PROPERTY_PREFIX)) {
+            hubServerConfig = buildHubServerConfig(loadedProperties);
+        }
+        properties = loadedProperties;
+        snapshot = loadedSnapshot;
+        return true;
+    }
+
+    public File getPropertiesFile() {
+        return propertiesFile;
     }
 
     public Properties getProperties() {
         return properties;
     }
 
+    public BlackDuckArtifactoryConfigSnapshot getSnapshot() {
+        return snapshot;
+    }
+
     public String getProperty(final ConfigurationProperty property) {
         return properties.getProperty(property.getKey());
     }
 
-    public Object setProperty(final ConfigurationProperty property, final String value) {
-        return properties.setProperty(property.getKey(), value);
+    public synchronized Object setProperty(final ConfigurationProperty property, final String value) {
+        final Properties updatedProperties = new Properties();
+        updatedProperties.putAll(properties);
+        final Object previousValue = updatedProperties.setProperty(property.getKey(), value);
+        final Properties propertyToValidate = new Properties();
+        propertyToValidate.setProperty(property.getKey(), value);
+        new BlackDuckArtifactoryConfigSnapshot(propertyToValidate);
+        final BlackDuckArtifactoryConfigSnapshot updatedSnapshot = new BlackDuckArtifactoryConfigSnapshot(updatedProperties, true);
+
+        properties = updatedProperties;
+        snapshot = updatedSnapshot;
+        return previousValue;
+    }
+
+    public void setIntLogger(final IntLogger intLogger) {
+        this.intLogger = intLogger;
     }
 
     public HubServerConfig getHubServerConfig() {
@@ -114,4 +167,18 @@ public class BlackDuckArtifactoryConfig {
         return versionFile;
     }
 
+    private Properties readProperties(final File propertiesFile) throws IOException {
+        final Properties loadedProperties = new Properties();
+        try (FileInputStream fileInputStream = new FileInputStream(propertiesFile)) {
+            loadedProperties.load(fileInputStream);
+        }
+        return loadedProperties;
+    }
+
+    private HubServerConfig buildHubServerConfig(final Properties hubProperties) {
+        final HubServerConfigBuilder hubServerConfigBuilder = new HubServerConfigBuilder();
+        hubServerConfigBuilder.setFromProperties(hubProperties);
+        return hubServerConfigBuilder.build();
+    }
+
 }
@@ -0,0 +1,149 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.blackducksoftware.integration.hub.artifactory.inspect.InspectPluginConfig;
+import com.blackducksoftware.integration.hub.artifactory.scan.ScanPluginConfig;
+
+public class BlackDuckArtifactoryConfigSnapshot {
+    private final Map<String, String> properties;
+    private final boolean lenient;
+    private final List<String> invalidValueMessages = new ArrayList<>();
+    private final InspectPluginConfig inspectPluginConfig;
+    private final ScanPluginConfig scanPluginConfig;
+
+    public BlackDuckArtifactoryConfigSnapshot(final Properties properties) {
+        this(properties, false);
+    }
+
+    public BlackDuckArtifactoryConfigSnapshot(final Properties properties, final boolean lenient) {
+        final Map<String, String> propertyMap = new HashMap<>();
+        for (final String key : properties.stringPropertyNames()) {
+            propertyMap.put(key, properties.getProperty(key));
+        }
+        this.properties = Collections.unmodifiableMap(propertyMap);
+        this.lenient = lenient;
+        this.inspectPluginConfig = new InspectPluginConfig(this);
+        this.scanPluginConfig = new ScanPluginConfig(this);
+    }
+
+    public InspectPluginConfig getInspectPluginConfig() {
+        return inspectPluginConfig;
+    }
+
+    public ScanPluginConfig getScanPluginConfig() {
+        return scanPluginConfig;
+    }
+
+    public List<String> getInvalidValueMessages() {
+        return Collections.unmodifiableList(invalidValueMessages);
+    }
+
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    public String getProperty(final ConfigurationProperty property) {
+        return properties.get(property.getKey());
+    }
+
+    public Optional<String> getOptionalString(final ConfigurationProperty property) {
+        return Optional.ofNullable(StringUtils.trimToNull(getProperty(property)));
+    }
+
+    public String getString(final ConfigurationProperty property, final String defaultValue) {
+        return getOptionalString(property).orElse(defaultValue);
+    }
+
+    public List<String> getList(final ConfigurationProperty property) {
+        return Collections.unmodifiableList(Arrays.stream(StringUtils.split(StringUtils.defaultString(getProperty(property)), ','))
+                .map(String::trim)
+                .filter(StringUtils::isNotEmpty)
+                .collect(Collectors.toList()));
+    }
+
+    public boolean getBoolean(final ConfigurationProperty property, final boolean defaultValue) {
+        return getOptionalString(property).map(Boolean::parseBoolean).orElse(defaultValue);
+    }
+
+    public int getInt(final ConfigurationProperty property, final int defaultValue) {
+        final Optional<String> value = getOptionalString(property);
+        try {
+            return value.isPresent() ? Integer.parseInt(value.get()) : defaultValue;
+        } catch (final NumberFormatException e) {
+            return rejectInvalidValue(String.format("%s must be a whole number but was '%s'", property.getKey(), value.get()), e, defaultValue);
+        }
+    }
+
+    public long getLong(final ConfigurationProperty property, final long defaultValue) {
+        final Optional<String> value = getOptionalString(property);
+        try {
+            return value.isPresent() ? Long.parseLong(value.get()) : defaultValue;
+        } catch (final NumberFormatException e) {
+            return rejectInvalidValue(String.format("%s must be a whole number but was '%s'", property.getKey(), value.get()), e, defaultValue);
+        }
+    }
+
+    public <T extends Enum<T>> T getEnum(final ConfigurationProperty property, final Class<T> enumClass, final T defaultValue) {
+        final Optional<String> value = getOptionalString(property);
+        try {
+            return value.isPresent() ? Enum.valueOf(enumClass, value.get()) : defaultValue;
+        } catch (final IllegalArgumentException e) {
+            return rejectInvalidValue(String.format("%s must be one of %s but was '%s'", property.getKey(), Arrays.toString(enumClass.getEnumConstants()), value.get()), e, defaultValue);
+        }
+    }
+
+    public <T> T rejectInvalidValue(final String message, final RuntimeException e, final T defaultValue) {
+        if (!lenient) {
+            throw new IllegalArgumentException(message, e);
+        }
+        invalidValueMessages.add(String.format("%s, using %s instead", message, defaultValue));
+        return defaultValue;
+    }
+
+    public boolean hasSameProperties(final Properties otherProperties) {
+        return hasSameProperties(otherProperties, "");
+    }
+
+    public boolean hasSameProperties(final Properties otherProperties, final String keyPrefix) {
+        final List<String> keys = otherProperties.stringPropertyNames().stream().filter(key -> key.startsWith(keyPrefix)).collect(Collectors.toList());
+        if (keys.size() != properties.keySet().stream().filter(key -> key.startsWith(keyPrefix)).count()) {
+            return false;
+        }
+        return keys.stream().allMatch(key -> otherProperties.getProperty(key).equals(properties.get(key)));
+    }
+
+}
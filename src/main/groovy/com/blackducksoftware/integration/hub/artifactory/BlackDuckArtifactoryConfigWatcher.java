@@ -0,0 +1,141 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.blackducksoftware.integration.log.IntLogger;
+
+public class BlackDuckArtifactoryConfigWatcher implements Closeable {
+    public static final long DEFAULT_QUIET_PERIOD_MILLIS = 1000;
+
+    private final IntLogger intLogger;
+    private final BlackDuckArtifactoryConfig blackDuckArtifactoryConfig;
+    private final Path propertiesPath;
+    private final long quietPeriodMillis;
+    private final WatchService watchService;
+    private final Thread watchThread;
+
+    public BlackDuckArtifactoryConfigWatcher(final IntLogger intLogger, final BlackDuckArtifactoryConfig blackDuckArtifactoryConfig) throws IOException {
+        this(intLogger, blackDuckArtifactoryConfig, DEFAULT_QUIET_PERIOD_MILLIS);
+    }
+
+    public BlackDuckArtifactoryConfigWatcher(final IntLogger intLogger, final BlackDuckArtifactoryConfig blackDuckArtifactoryConfig, final long quietPeriodMillis) throws IOException {
+        this.intLogger = intLogger;
+        this.blackDuckArtifactoryConfig = blackDuckArtifactoryConfig;
+        this.propertiesPath = blackDuckArtifactoryConfig.getPropertiesFile().getAbsoluteFile().toPath();
+        this.quietPeriodMillis = Math.max(0, quietPeriodMillis);
+
+        final Path directory = propertiesPath.getParent();
+        watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        watchThread = new Thread(this::watch, "blackduck-config-watcher");
+        watchThread.setDaemon(true);
+        watchThread.start();
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        watchThread.interrupt();
+    }
+
+    private void watch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (isPropertiesFileChange(watchService.take())) {
+                    waitForQuietPeriod();
+                    reloadProperties();
+                }
+            }
+        } catch (final InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean isPropertiesFileChange(final WatchKey watchKey) {
+        boolean propertiesFileChanged = false;
+        for (final WatchEvent<?> watchEvent : watchKey.pollEvents()) {
+            if (watchEvent.kind() == StandardWatchEventKinds.OVERFLOW || propertiesPath.getFileName().equals(watchEvent.context())) {
+                propertiesFileChanged = true;
+            }
+        }
+        watchKey.reset();
+        return propertiesFileChanged;
+    }
+
+    private void waitForQuietPeriod() throws InterruptedException {
+        List<Long> propertiesFileState = readPropertiesFileState();
+        long quietUntil = System.currentTimeMillis() + quietPeriodMillis;
+        while (true) {
+            final long remainingMillis = quietUntil - System.currentTimeMillis();
+            if (remainingMillis > 0) {
+                final WatchKey watchKey = watchService.poll(remainingMillis, TimeUnit.MILLISECONDS);
+                if (watchKey != null && isPropertiesFileChange(watchKey)) {
+                    propertiesFileState = readPropertiesFileState();
+                    quietUntil = System.currentTimeMillis() + quietPeriodMillis;
+                }
+                continue;
+            }
+
+            final List<Long> currentPropertiesFileState = readPropertiesFileState();
+            if (currentPropertiesFileState.equals(propertiesFileState)) {
+                return;
+            }
+            propertiesFileState = currentPropertiesFileState;
+            quietUntil = System.currentTimeMillis() + quietPeriodMillis;
+        }
+    }
+
+    private List<Long> readPropertiesFileState() {
+        try {
+            return Arrays.asList(Files.size(propertiesPath), Files.getLastModifiedTime(propertiesPath).toMillis());
+        } catch (final IOException e) {
+            return Arrays.asList(-1L, -1L);
+        }
+    }
+
+    private void reloadProperties() {
+        try {
+            if (blackDuckArtifactoryConfig.reloadPropertiesIfChanged()) {
+                intLogger.info(String.format("Reloaded the configuration from %s", propertiesPath));
+            }
+        } catch (final IOException | RuntimeException e) {
+            intLogger.error(String.format("Could not reload the configuration from %s, keeping the previous configuration: %s", propertiesPath, e.getMessage()));
+        }
+    }
+
+}
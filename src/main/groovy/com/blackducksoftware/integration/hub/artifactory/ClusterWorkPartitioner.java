@@ -0,0 +1,198 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import com.blackducksoftware.integration.log.IntLogger;
+
+public class ClusterWorkPartitioner implements Closeable {
+    public static final int VIRTUAL_NODES_PER_NODE = 128;
+
+    private static final String LEASE_FILE_EXTENSION = ".lease";
+
+    private final IntLogger intLogger;
+    private final File leaseDirectory;
+    private final String nodeId;
+    private final long leaseTtlMillis;
+    private final LongSupplier currentTimeMillis;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, ObservedLease> nodeIdToObservedLease = new HashMap<>();
+    private long heartbeat;
+    private volatile Ring ring;
+
+    public ClusterWorkPartitioner(final IntLogger intLogger, final File leaseDirectory, final String nodeId, final long leaseTtlMillis) throws IOException {
+        this(intLogger, leaseDirectory, nodeId, leaseTtlMillis, System::currentTimeMillis);
+    }
+
+    public ClusterWorkPartitioner(final IntLogger intLogger, final File leaseDirectory, final String nodeId, final long leaseTtlMillis, final LongSupplier currentTimeMillis) throws IOException {
+        if (StringUtils.isBlank(nodeId) || StringUtils.containsAny(nodeId, '/', '\\')) {
+            throw new IllegalArgumentException(String.format("'%s' can not be used as a cluster node id", nodeId));
+        }
+        this.intLogger = intLogger;
+        this.leaseDirectory = leaseDirectory;
+        this.nodeId = nodeId;
+        this.leaseTtlMillis = leaseTtlMillis;
+        this.currentTimeMillis = currentTimeMillis;
+        renewLease();
+    }
+
+    public synchronized void renewLease() throws IOException {
+        heartbeat++;
+        writeLease(instanceId + ":" + heartbeat);
+
+        // a lease is live while its content keeps changing, measured on this node's clock, so the nodes' clocks do not need to agree
+        final long now = currentTimeMillis.getAsLong();
+        final Set<String> liveNodeIds = new TreeSet<>();
+        liveNodeIds.add(nodeId);
+        final Set<String> leaseNodeIds = new TreeSet<>();
+        final File[] leaseFiles = leaseDirectory.listFiles((directory, name) -> name.endsWith(LEASE_FILE_EXTENSION));
+        if (leaseFiles != null) {
+            for (final File leaseFile : leaseFiles) {
+                final String leaseNodeId = StringUtils.removeEnd(leaseFile.getName(), LEASE_FILE_EXTENSION);
+                final Optional<String> lease = readLease(leaseFile);
+                if (nodeId.equals(leaseNodeId) || !lease.isPresent()) {
+                    continue;
+                }
+
+                leaseNodeIds.add(leaseNodeId);
+                ObservedLease observedLease = nodeIdToObservedLease.get(leaseNodeId);
+                if (observedLease == null || !observedLease.lease.equals(lease.get())) {
+                    observedLease = new ObservedLease(lease.get(), now);
+                    nodeIdToObservedLease.put(leaseNodeId, observedLease);
+                }
+                if (observedLease.changedAtMillis + leaseTtlMillis > now) {
+                    liveNodeIds.add(leaseNodeId);
+                }
+            }
+        }
+        nodeIdToObservedLease.keySet().retainAll(leaseNodeIds);
+
+        final Ring currentRing = ring;
+        if (currentRing == null || !currentRing.nodeIds.equals(liveNodeIds)) {
+            intLogger.info(String.format("Partitioning work across cluster nodes %s (this node is %s)", liveNodeIds, nodeId));
+            ring = new Ring(liveNodeIds);
+        }
+    }
+
+    public Set<String> getLiveNodeIds() {
+        return ring.nodeIds;
+    }
+
+    public String getOwner(final String workKey) {
+        return ring.getOwner(workKey);
+    }
+
+    public boolean isOwner(final String workKey) {
+        return nodeId.equals(ring.getOwner(workKey));
+    }
+
+    public boolean isArtifactOwner(final String repoKey, final String artifactPath) {
+        return isOwner(repoKey + "/" + artifactPath);
+    }
+
+    public Stream<String> filterOwned(final Stream<String> workKeys) {
+        final Ring currentRing = ring;
+        return workKeys.filter(workKey -> nodeId.equals(currentRing.getOwner(workKey)));
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        Files.deleteIfExists(getLeaseFile().toPath());
+    }
+
+    private File getLeaseFile() {
+        return new File(leaseDirectory, nodeId + LEASE_FILE_EXTENSION);
+    }
+
+    private void writeLease(final String lease) throws IOException {
+        leaseDirectory.mkdirs();
+        final File temporaryFile = new File(leaseDirectory, nodeId + LEASE_FILE_EXTENSION + ".tmp");
+        Files.write(temporaryFile.toPath(), lease.getBytes(StandardCharsets.UTF_8));
+        Files.move(temporaryFile.toPath(), getLeaseFile().toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Optional<String> readLease(final File leaseFile) {
+        try {
+            return Optional.of(new String(Files.readAllBytes(leaseFile.toPath()), StandardCharsets.UTF_8).trim());
+        } catch (final IOException e) {
+            intLogger.debug(String.format("Ignoring unreadable lease %s: %s", leaseFile.getName(), e.getMessage()));
+            return Optional.empty();
+        }
+    }
+
+    private static long hash(final String value) {
+        return ByteBuffer.wrap(DigestUtils.md5(value)).getLong();
+    }
+
+    private static class ObservedLease {
+        private final String lease;
+        private final long changedAtMillis;
+
+        private ObservedLease(final String lease, final long changedAtMillis) {
+            this.lease = lease;
+            this.changedAtMillis = changedAtMillis;
+        }
+    }
+
+    private static class Ring {
+        private final Set<String> nodeIds;
+        private final NavigableMap<Long, String> positionToNodeId = new TreeMap<>();
+
+        private Ring(final Set<String> nodeIds) {
+            this.nodeIds = Collections.unmodifiableSet(nodeIds);
+            for (final String ringNodeId : nodeIds) {
+                for (int i = 0; i < VIRTUAL_NODES_PER_NODE; i++) {
+                    positionToNodeId.put(hash(ringNodeId + "#" + i), ringNodeId);
+                }
+            }
+        }
+
+        private String getOwner(final String workKey) {
+            final Map.Entry<Long, String> entry = positionToNodeId.ceilingEntry(hash(workKey));
+            return entry != null ? entry.getValue() : positionToNodeId.firstEntry().getValue();
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ProjectVersionFingerprints {
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+    private final Map<String, String> pendingFingerprints = new ConcurrentHashMap<>();
+
+    public Optional<String> getFingerprint(final String repoKey, final String projectVersionUri) {
+        return Optional.ofNullable(fingerprints.get(key(repoKey, projectVersionUri)));
+    }
+
+    public boolean matches(final String repoKey, final String projectVersionUri, final String fingerprint) {
+        return fingerprint.equals(fingerprints.get(key(repoKey, projectVersionUri)));
+    }
+
+    public void setFingerprint(final String repoKey, final String projectVersionUri, final String fingerprint) {
+        fingerprints.put(key(repoKey, projectVersionUri), fingerprint);
+    }
+
+    public void setPendingFingerprint(final String repoKey, final String projectVersionUri, final String fingerprint) {
+        pendingFingerprints.put(key(repoKey, projectVersionUri), fingerprint);
+    }
+
+    public Optional<String> commitFingerprint(final String repoKey, final String projectVersionUri) {
+        final String key = key(repoKey, projectVersionUri);
+        final String pendingFingerprint = pendingFingerprints.remove(key);
+        if (pendingFingerprint != null) {
+            fingerprints.put(key, pendingFingerprint);
+        }
+        return Optional.ofNullable(pendingFingerprint);
+    }
+
+    public void discardPendingFingerprint(final String repoKey, final String projectVersionUri) {
+        pendingFingerprints.remove(key(repoKey, projectVersionUri));
+    }
+
+    public void forget(final String repoKey, final String projectVersionUri) {
+        final String key = key(repoKey, projectVersionUri);
+        fingerprints.remove(key);
+        pendingFingerprints.remove(key);
+    }
+
+    public void clear() {
+        fingerprints.clear();
+        pendingFingerprints.clear();
+    }
+
+    public int size() {
+        return fingerprints.size();
+    }
+
+    private String key(final String repoKey, final String projectVersionUri) {
+        return repoKey + "|" + projectVersionUri;
+    }
+
+}
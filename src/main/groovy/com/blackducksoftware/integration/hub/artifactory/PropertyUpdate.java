@@ -0,0 +1,57 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+public class PropertyUpdate {
+    private final String path;
+    private final Map<BlackDuckArtifactoryProperty, String> propertyValues;
+    private final Set<BlackDuckArtifactoryProperty> removedProperties;
+
+    public PropertyUpdate(final String path, final Map<BlackDuckArtifactoryProperty, String> propertyValues) {
+        this(path, propertyValues, Collections.emptySet());
+    }
+
+    public PropertyUpdate(final String path, final Map<BlackDuckArtifactoryProperty, String> propertyValues, final Set<BlackDuckArtifactoryProperty> removedProperties) {
+        this.path = path;
+        this.propertyValues = propertyValues;
+        this.removedProperties = removedProperties;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public Map<BlackDuckArtifactoryProperty, String> getPropertyValues() {
+        return propertyValues;
+    }
+
+    public Set<BlackDuckArtifactoryProperty> getRemovedProperties() {
+        return removedProperties;
+    }
+
+}
@@ -0,0 +1,394 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.blackducksoftware.integration.log.IntLogger;
+
+public class PropertyUpdatePipeline implements Closeable {
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final int DEFAULT_MAXIMUM_PENDING_PATHS = 10000;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+
+    private final IntLogger intLogger;
+    private final PropertyUpdateWriter propertyUpdateWriter;
+    private final int batchSize;
+    private final int maximumPendingPaths;
+    private final long flushIntervalNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pendingChanged = lock.newCondition();
+    private final Map<String, PendingPropertyUpdate> pathToPendingPropertyUpdate = new LinkedHashMap<>();
+    private final Set<String> retriedPaths = new HashSet<>();
+    private final Thread writerThread;
+    private final long startedAtNanos = System.nanoTime();
+
+    private long oldestPendingAtNanos;
+    private int writingCount;
+    private int flushRequests;
+    private boolean closed;
+    private boolean writerStopped;
+    private long submittedCount;
+    private long mergedCount;
+    private long writtenCount;
+    private long failedCount;
+    private long retriedCount;
+    private long batchCount;
+    private long blockedSubmitCount;
+    private int maximumQueueDepth;
+
+    public PropertyUpdatePipeline(final IntLogger intLogger, final PropertyUpdateWriter propertyUpdateWriter) {
+        this(intLogger, propertyUpdateWriter, DEFAULT_BATCH_SIZE, DEFAULT_MAXIMUM_PENDING_PATHS, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    public PropertyUpdatePipeline(final IntLogger intLogger, final PropertyUpdateWriter propertyUpdateWriter, final BlackDuckArtifactoryConfig blackDuckArtifactoryConfig) {
+        this(intLogger, propertyUpdateWriter, blackDuckArtifactoryConfig.getSnapshot().getInspectPluginConfig().getPropertyUpdateBatchSize(),
+                blackDuckArtifactoryConfig.getSnapshot().getInspectPluginConfig().getPropertyUpdateQueueSize(), DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    public PropertyUpdatePipeline(final IntLogger intLogger, final PropertyUpdateWriter propertyUpdateWriter, final int batchSize, final int maximumPendingPaths, final long flushIntervalMillis) {
+        this.intLogger = intLogger;
+        this.propertyUpdateWriter = propertyUpdateWriter;
+        this.batchSize = Math.max(1, batchSize);
+        this.maximumPendingPaths = Math.max(this.batchSize, maximumPendingPaths);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushIntervalMillis));
+
+        writerThread = new Thread(this::writePendingUpdates, "blackduck-property-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    public void submit(final String path, final ArtifactMetaData artifactMetaData) throws InterruptedException {
+        submit(path, artifactMetaData.getPropertyValues());
+    }
+
+    public void submit(final String path, final ArtifactMetaDataChange artifactMetaDataChange) throws InterruptedException {
+        submit(path, artifactMetaDataChange.getChangedPropertyValues(), artifactMetaDataChange.getRemovedProperties());
+    }
+
+    public void submit(final String path, final Map<BlackDuckArtifactoryProperty, String> propertyValues) throws InterruptedException {
+        submit(path, propertyValues, Collections.emptySet());
+    }
+
+    public void submit(final String path, final Map<BlackDuckArtifactoryProperty, String> propertyValues, final Set<BlackDuckArtifactoryProperty> removedProperties) throws InterruptedException {
+        lock.lock();
+        try {
+            if (closed || writerStopped) {
+                throw new IllegalStateException("The property update pipeline has been closed");
+            }
+
+            PendingPropertyUpdate pendingPropertyUpdate = pathToPendingPropertyUpdate.get(path);
+            if (pendingPropertyUpdate == null) {
+                if (pathToPendingPropertyUpdate.size() >= maximumPendingPaths) {
+                    blockedSubmitCount++;
+                    while (pathToPendingPropertyUpdate.size() >= maximumPendingPaths && !closed && !writerStopped) {
+                        pendingChanged.await();
+                    }
+                    if (closed || writerStopped) {
+                        throw new IllegalStateException("The property update pipeline was closed while waiting to submit");
+                    }
+                }
+                if (pathToPendingPropertyUpdate.isEmpty()) {
+                    oldestPendingAtNanos = System.nanoTime();
+                }
+                pendingPropertyUpdate = pathToPendingPropertyUpdate.computeIfAbsent(path, key -> new PendingPropertyUpdate());
+            } else {
+                mergedCount++;
+            }
+            pendingPropertyUpdate.merge(propertyValues, removedProperties);
+            submittedCount++;
+            maximumQueueDepth = Math.max(maximumQueueDepth, pathToPendingPropertyUpdate.size());
+
+            if (pathToPendingPropertyUpdate.size() == 1 || pathToPendingPropertyUpdate.size() >= batchSize) {
+                pendingChanged.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void flush() throws InterruptedException {
+        lock.lock();
+        try {
+            flushRequests++;
+            try {
+                pendingChanged.signalAll();
+                while ((!pathToPendingPropertyUpdate.isEmpty() || writingCount > 0) && !writerStopped) {
+                    pendingChanged.await();
+                }
+            } finally {
+                flushRequests--;
+            }
+            if (!pathToPendingPropertyUpdate.isEmpty()) {
+                throw new IllegalStateException(String.format("The property writer stopped with %d property updates still pending", pathToPendingPropertyUpdate.size()));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            flush();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.lock();
+            try {
+                closed = true;
+                pendingChanged.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+        intLogger.info(getSummary());
+    }
+
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return pathToPendingPropertyUpdate.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaximumQueueDepth() {
+        lock.lock();
+        try {
+            return maximumQueueDepth;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getMergedCount() {
+        lock.lock();
+        try {
+            return mergedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getWrittenCount() {
+        lock.lock();
+        try {
+            return writtenCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getFailedCount() {
+        lock.lock();
+        try {
+            return failedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRetriedCount() {
+        lock.lock();
+        try {
+            return retriedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getBatchCount() {
+        lock.lock();
+        try {
+            return batchCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getBlockedSubmitCount() {
+        lock.lock();
+        try {
+            return blockedSubmitCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getFlushRatePerSecond() {
+        final double elapsedSeconds = (System.nanoTime() - startedAtNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        return elapsedSeconds > 0 ? getWrittenCount() / elapsedSeconds : 0;
+    }
+
+    public String getSummary() {
+        lock.lock();
+        try {
+            return String.format("Property updates: %d submitted, %d merged, %d written in %d batches (%.1f/s), %d retried, %d failed, queue depth %d (max %d), %d submits waited for the writer", submittedCount, mergedCount,
+                    writtenCount, batchCount, getFlushRatePerSecond(), retriedCount, failedCount, pathToPendingPropertyUpdate.size(), maximumQueueDepth, blockedSubmitCount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void writePendingUpdates() {
+        try {
+            while (true) {
+                final List<PropertyUpdate> batch;
+                try {
+                    batch = takeBatch();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (batch == null) {
+                    return;
+                }
+
+                boolean written = false;
+                try {
+                    propertyUpdateWriter.write(batch);
+                    written = true;
+                } catch (final Throwable e) {
+                    intLogger.error(String.format("Could not write %d property updates: %s", batch.size(), e.getMessage()));
+                    intLogger.debug(e.getMessage(), e);
+                } finally {
+                    finishBatch(batch, written);
+                }
+            }
+        } finally {
+            lock.lock();
+            try {
+                writerStopped = true;
+                pendingChanged.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private List<PropertyUpdate> takeBatch() throws InterruptedException {
+        lock.lock();
+        try {
+            while (pathToPendingPropertyUpdate.size() < batchSize) {
+                if (pathToPendingPropertyUpdate.isEmpty()) {
+                    if (closed) {
+                        return null;
+                    }
+                    pendingChanged.await();
+                } else if (flushRequests > 0 || closed) {
+                    break;
+                } else {
+                    final long remainingNanos = oldestPendingAtNanos + flushIntervalNanos - System.nanoTime();
+                    if (remainingNanos <= 0) {
+                        break;
+                    }
+                    pendingChanged.awaitNanos(remainingNanos);
+                }
+            }
+
+            final List<PropertyUpdate> batch = new ArrayList<>(Math.min(batchSize, pathToPendingPropertyUpdate.size()));
+            final Iterator<Map.Entry<String, PendingPropertyUpdate>> pendingIterator = pathToPendingPropertyUpdate.entrySet().iterator();
+            while (pendingIterator.hasNext() && batch.size() < batchSize) {
+                final Map.Entry<String, PendingPropertyUpdate> pending = pendingIterator.next();
+                batch.add(pending.getValue().toPropertyUpdate(pending.getKey()));
+                pendingIterator.remove();
+            }
+            writingCount++;
+            pendingChanged.signalAll();
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void finishBatch(final List<PropertyUpdate> batch, final boolean written) {
+        lock.lock();
+        try {
+            writingCount--;
+            batchCount++;
+            if (written) {
+                writtenCount += batch.size();
+                batch.forEach(propertyUpdate -> retriedPaths.remove(propertyUpdate.getPath()));
+            } else {
+                for (final PropertyUpdate propertyUpdate : batch) {
+                    if (retriedPaths.add(propertyUpdate.getPath())) {
+                        requeue(propertyUpdate);
+                        retriedCount++;
+                    } else {
+                        retriedPaths.remove(propertyUpdate.getPath());
+                        failedCount++;
+                    }
+                }
+            }
+            pendingChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void requeue(final PropertyUpdate propertyUpdate) {
+        final PendingPropertyUpdate requeuedPropertyUpdate = new PendingPropertyUpdate();
+        requeuedPropertyUpdate.merge(propertyUpdate.getPropertyValues(), propertyUpdate.getRemovedProperties());
+        final PendingPropertyUpdate newerPropertyUpdate = pathToPendingPropertyUpdate.remove(propertyUpdate.getPath());
+        if (newerPropertyUpdate != null) {
+            requeuedPropertyUpdate.merge(newerPropertyUpdate.propertyValues, newerPropertyUpdate.removedProperties);
+        }
+        if (pathToPendingPropertyUpdate.isEmpty()) {
+            oldestPendingAtNanos = System.nanoTime();
+        }
+        pathToPendingPropertyUpdate.put(propertyUpdate.getPath(), requeuedPropertyUpdate);
+    }
+
+    private static class PendingPropertyUpdate {
+        private final Map<BlackDuckArtifactoryProperty, String> propertyValues = new EnumMap<>(BlackDuckArtifactoryProperty.class);
+        private final Set<BlackDuckArtifactoryProperty> removedProperties = EnumSet.noneOf(BlackDuckArtifactoryProperty.class);
+
+        private void merge(final Map<BlackDuckArtifactoryProperty, String> newPropertyValues, final Set<BlackDuckArtifactoryProperty> newRemovedProperties) {
+            propertyValues.keySet().removeAll(newRemovedProperties);
+            removedProperties.addAll(newRemovedProperties);
+            removedProperties.removeAll(newPropertyValues.keySet());
+            propertyValues.putAll(newPropertyValues);
+        }
+
+        private PropertyUpdate toPropertyUpdate(final String path) {
+            return new PropertyUpdate(path, Collections.unmodifiableMap(propertyValues), Collections.unmodifiableSet(removedProperties));
+        }
+    }
+
+}
@@ -0,0 +1,57 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class RepoArtifactMetaDataFromNotifications {
+    private final Optional<Date> lastNotificationDate;
+    private final Map<String, List<ArtifactMetaData>> repoKeyToArtifactMetaData;
+
+    public RepoArtifactMetaDataFromNotifications(final Optional<Date> lastNotificationDate, final Map<String, List<ArtifactMetaData>> repoKeyToArtifactMetaData) {
+        this.lastNotificationDate = lastNotificationDate;
+        this.repoKeyToArtifactMetaData = repoKeyToArtifactMetaData;
+    }
+
+    public Optional<Date> getLastNotificationDate() {
+        return lastNotificationDate;
+    }
+
+    public Map<String, List<ArtifactMetaData>> getRepoKeyToArtifactMetaData() {
+        return repoKeyToArtifactMetaData;
+    }
+
+    public List<ArtifactMetaData> getArtifactMetaData(final String repoKey) {
+        return repoKeyToArtifactMetaData.getOrDefault(repoKey, Collections.emptyList());
+    }
+
+    public ArtifactMetaDataFromNotifications getArtifactMetaDataFromNotifications(final String repoKey) {
+        return new ArtifactMetaDataFromNotifications(lastNotificationDate, getArtifactMetaData(repoKey));
+    }
+
+}
@@ -0,0 +1,61 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory;
+
+public class RepoTickResult {
+    private final boolean skipped;
+    private final int processedCount;
+    private final int failureCount;
+    private final int remainingCount;
+    private final boolean cycleCompleted;
+
+    public RepoTickResult(final boolean skipped, final int processedCount, final int failureCount, final int remainingCount, final boolean cycleCompleted) {
+        this.skipped = skipped;
+        this.processedCount = processedCount;
+        this.failureCount = failureCount;
+        this.remainingCount = remainingCount;
+        this.cycleCompleted = cycleCompleted;
+    }
+
+    public boolean isSkipped() {
+        return skipped;
+    }
+
+    public int getProcessedCount() {
+        return processedCount;
+    }
+
+    public int getFailureCount() {
+        return failureCount;
+    }
+
+    public int getRemainingCount() {
+        return remainingCount;
+    }
+
+    public boolean isCycleCompleted() {
+        return cycleCompleted;
+    }
+
+}
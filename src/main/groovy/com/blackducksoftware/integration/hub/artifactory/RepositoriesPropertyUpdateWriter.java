@@ -0,0 +1,55 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.artifactory.repo.RepoPath;
+import org.artifactory.repo.RepoPathFactory;
+import org.artifactory.repo.Repositories;
+
+public class RepositoriesPropertyUpdateWriter implements PropertyUpdateWriter {
+    private final Repositories repositories;
+    private final Function<String, RepoPath> repoPathFactory;
+
+    public RepositoriesPropertyUpdateWriter(final Repositories repositories) {
+        this(repositories, RepoPathFactory::create);
+    }
+
+    public RepositoriesPropertyUpdateWriter(final Repositories repositories, final Function<String, RepoPath> repoPathFactory) {
+        this.repositories = repositories;
+        this.repoPathFactory = repoPathFactory;
+    }
+
+    @Override
+    public void write(final List<PropertyUpdate> propertyUpdates) {
+        for (final PropertyUpdate propertyUpdate : propertyUpdates) {
+            final RepoPath repoPath = repoPathFactory.apply(propertyUpdate.getPath());
+            propertyUpdate.getPropertyValues().forEach((property, value) -> repositories.setProperty(repoPath, property.getName(), value));
+            propertyUpdate.getRemovedProperties().forEach(property -> repositories.deleteProperty(repoPath, property.getName()));
+        }
+    }
+
+}
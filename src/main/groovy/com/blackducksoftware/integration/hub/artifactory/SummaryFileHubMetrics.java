@@ -0,0 +1,102 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.blackducksoftware.integration.hub.artifactory.model.HubCallStatistics;
+import com.blackducksoftware.integration.log.IntLogger;
+import com.blackducksoftware.integration.rest.connection.RestConnection;
+
+public class SummaryFileHubMetrics extends HubCallStatistics implements Closeable {
+    public static final String SUMMARY_FILE_NAME = "hub-metrics.txt";
+    public static final long DEFAULT_SUMMARY_INTERVAL_MINUTES = 5;
+
+    private final IntLogger intLogger;
+    private final File summaryFile;
+    private final long summaryIntervalMillis;
+    private final ScheduledExecutorService scheduledExecutorService;
+
+    public SummaryFileHubMetrics(final IntLogger intLogger, final BlackDuckArtifactoryConfig blackDuckArtifactoryConfig) {
+        this(intLogger, blackDuckArtifactoryConfig.getBlackDuckDirectory(), blackDuckArtifactoryConfig.getSnapshot().getInspectPluginConfig().getMetricsSummaryIntervalMillis());
+    }
+
+    public SummaryFileHubMetrics(final IntLogger intLogger, final File blackDuckDirectory, final long summaryIntervalMillis) {
+        this.intLogger = intLogger;
+        this.summaryFile = new File(blackDuckDirectory, SUMMARY_FILE_NAME);
+        this.summaryIntervalMillis = summaryIntervalMillis;
+        if (summaryIntervalMillis > 0) {
+            scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "blackduck-hub-metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduledExecutorService.scheduleAtFixedRate(this::writeSummarySafely, summaryIntervalMillis, summaryIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            scheduledExecutorService = null;
+        }
+    }
+
+    public File getSummaryFile() {
+        return summaryFile;
+    }
+
+    public long getSummaryIntervalMillis() {
+        return summaryIntervalMillis;
+    }
+
+    public synchronized void writeSummary() throws IOException {
+        summaryFile.getParentFile().mkdirs();
+        final File temporaryFile = new File(summaryFile.getParentFile(), SUMMARY_FILE_NAME + ".tmp");
+        final String summary = String.format("Hub calls as of %s%n%s", RestConnection.formatDate(new Date()), getSummary());
+        Files.write(temporaryFile.toPath(), summary.getBytes(StandardCharsets.UTF_8));
+        Files.move(temporaryFile.toPath(), summaryFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (scheduledExecutorService != null) {
+            scheduledExecutorService.shutdownNow();
+        }
+        writeSummary();
+    }
+
+    private void writeSummarySafely() {
+        try {
+            writeSummary();
+        } catch (final IOException | RuntimeException e) {
+            intLogger.error(String.format("Could not write the Hub metrics summary to %s: %s", summaryFile.getAbsolutePath(), e.getMessage()));
+        }
+    }
+
+}
@@ -0,0 +1,218 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import com.blackducksoftware.integration.exception.IntegrationException;
+import com.blackducksoftware.integration.log.IntLogger;
+
+public class TimeBudgetedRepoScheduler {
+    private static final String NEXT_POSITION = "next.position";
+    private static final String LAST_REPO_KEY = "last.repo.key";
+    private static final String NEXT_REPO_KEY = "next.repo.key";
+    private static final String CYCLE_STARTED_AT = "cycle.started.at";
+
+    private final IntLogger intLogger;
+    private final File cursorFile;
+    private final long tickBudgetMillis;
+    private final LongSupplier currentTimeMillis;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public TimeBudgetedRepoScheduler(final IntLogger intLogger, final BlackDuckArtifactoryConfig blackDuckArtifactoryConfig, final String schedulerName) {
+        this(intLogger, new File(blackDuckArtifactoryConfig.getBlackDuckDirectory(), schedulerName + ".cursor"), blackDuckArtifactoryConfig.getSnapshot().getInspectPluginConfig().getRepoTickBudgetMillis());
+    }
+
+    public TimeBudgetedRepoScheduler(final IntLogger intLogger, final File cursorFile, final long tickBudgetMillis) {
+        this(intLogger, cursorFile, tickBudgetMillis, System::currentTimeMillis);
+    }
+
+    public TimeBudgetedRepoScheduler(final IntLogger intLogger, final File cursorFile, final long tickBudgetMillis, final LongSupplier currentTimeMillis) {
+        this.intLogger = intLogger;
+        this.cursorFile = cursorFile;
+        this.tickBudgetMillis = tickBudgetMillis;
+        this.currentTimeMillis = currentTimeMillis;
+    }
+
+    public RepoTickResult runTick(final Supplier<Stream<String>> repoKeys, final RepoKeyProcessor repoKeyProcessor) throws IOException {
+        if (!running.compareAndSet(false, true)) {
+            intLogger.warn(String.format("Skipping this tick because the previous one for %s is still running", cursorFile.getName()));
+            return new RepoTickResult(true, 0, 0, 0, false);
+        }
+
+        try {
+            return processRepos(repoKeys, repoKeyProcessor);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private RepoTickResult processRepos(final Supplier<Stream<String>> repoKeys, final RepoKeyProcessor repoKeyProcessor) throws IOException {
+        final long tickStartedAt = currentTimeMillis.getAsLong();
+        final Properties cursor = readCursor();
+        final String lastRepoKey = cursor.getProperty(LAST_REPO_KEY);
+        final String nextRepoKey = cursor.getProperty(NEXT_REPO_KEY);
+
+        int repoCount = 0;
+        int lastRepoKeyPosition = -1;
+        int nextRepoKeyPosition = -1;
+        try (Stream<String> repoKeyStream = repoKeys.get()) {
+            final Iterator<String> repoKeyIterator = repoKeyStream.iterator();
+            while (repoKeyIterator.hasNext()) {
+                final String repoKey = repoKeyIterator.next();
+                if (lastRepoKeyPosition < 0 && repoKey.equals(lastRepoKey)) {
+                    lastRepoKeyPosition = repoCount;
+                }
+                if (nextRepoKeyPosition < 0 && repoKey.equals(nextRepoKey)) {
+                    nextRepoKeyPosition = repoCount;
+                }
+                repoCount++;
+            }
+        }
+        if (repoCount == 0) {
+            return new RepoTickResult(false, 0, 0, 0, false);
+        }
+
+        int position;
+        long cycleStartedAt;
+        try {
+            if (lastRepoKeyPosition >= 0) {
+                position = lastRepoKeyPosition + 1;
+            } else if (nextRepoKeyPosition >= 0) {
+                position = nextRepoKeyPosition;
+            } else {
+                position = Integer.parseInt(cursor.getProperty(NEXT_POSITION, "0"));
+            }
+            cycleStartedAt = Long.parseLong(cursor.getProperty(CYCLE_STARTED_AT, Long.toString(tickStartedAt)));
+        } catch (final NumberFormatException e) {
+            intLogger.error(String.format("Could not read the cursor in %s, restarting the cycle from the first repo: %s", cursorFile.getName(), e.getMessage()));
+            intLogger.debug(e.getMessage(), e);
+            position = 0;
+            cycleStartedAt = tickStartedAt;
+        }
+        if (position < 0 || position >= repoCount) {
+            position = 0;
+        }
+
+        int processedCount = 0;
+        int failureCount = 0;
+        boolean cycleCompleted = false;
+        boolean budgetExhausted = false;
+        while (processedCount < repoCount && !budgetExhausted) {
+            final int passStartPosition = position;
+            boolean reachedEnd;
+            try (Stream<String> repoKeyStream = repoKeys.get()) {
+                final Iterator<String> repoKeyIterator = repoKeyStream.skip(position).iterator();
+                String repoKey = repoKeyIterator.hasNext() ? repoKeyIterator.next() : null;
+                while (repoKey != null && processedCount < repoCount) {
+                    if (processedCount > 0 && tickBudgetMillis > 0 && currentTimeMillis.getAsLong() - tickStartedAt >= tickBudgetMillis) {
+                        budgetExhausted = true;
+                        break;
+                    }
+
+                    if (!processRepo(repoKeyProcessor, repoKey)) {
+                        failureCount++;
+                    }
+                    final String followingRepoKey = repoKeyIterator.hasNext() ? repoKeyIterator.next() : null;
+                    processedCount++;
+                    position++;
+                    writeCursor(position, repoKey, followingRepoKey, cycleStartedAt);
+                    repoKey = followingRepoKey;
+                }
+                reachedEnd = repoKey == null && !budgetExhausted;
+            }
+
+            if (reachedEnd && passStartPosition == 0 && position == 0) {
+                break;
+            }
+            if (reachedEnd) {
+                repoCount = position;
+            }
+            if (position >= repoCount || reachedEnd) {
+                final long cycleCompletedAt = currentTimeMillis.getAsLong();
+                intLogger.info(String.format("Processed all %d repos for %s in %d seconds", position, cursorFile.getName(), TimeUnit.MILLISECONDS.toSeconds(cycleCompletedAt - cycleStartedAt)));
+                cycleCompleted = true;
+                cycleStartedAt = cycleCompletedAt;
+                position = 0;
+                writeCursor(position, null, null, cycleStartedAt);
+            }
+        }
+
+        return new RepoTickResult(false, processedCount, failureCount, Math.max(0, repoCount - position), cycleCompleted);
+    }
+
+    private boolean processRepo(final RepoKeyProcessor repoKeyProcessor, final String repoKey) {
+        try {
+            repoKeyProcessor.process(repoKey);
+            return true;
+        } catch (final IntegrationException | RuntimeException e) {
+            intLogger.error(String.format("Could not process repo %s: %s", repoKey, e.getMessage()));
+            intLogger.debug(e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private Properties readCursor() throws IOException {
+        final Properties cursor = new Properties();
+        if (cursorFile.isFile()) {
+            try (FileInputStream fileInputStream = new FileInputStream(cursorFile)) {
+                cursor.load(fileInputStream);
+            }
+        }
+        return cursor;
+    }
+
+    private void writeCursor(final int nextPosition, final String lastRepoKey, final String nextRepoKey, final long cycleStartedAt) throws IOException {
+        final Properties cursor = new Properties();
+        cursor.setProperty(NEXT_POSITION, Integer.toString(nextPosition));
+        if (lastRepoKey != null) {
+            cursor.setProperty(LAST_REPO_KEY, lastRepoKey);
+        }
+        if (nextRepoKey != null) {
+            cursor.setProperty(NEXT_REPO_KEY, nextRepoKey);
+        }
+        cursor.setProperty(CYCLE_STARTED_AT, Long.toString(cycleStartedAt));
+
+        cursorFile.getAbsoluteFile().getParentFile().mkdirs();
+        final File temporaryFile = new File(cursorFile.getAbsoluteFile().getParentFile(), cursorFile.getName() + ".tmp");
+        try (OutputStream outputStream = new FileOutputStream(temporaryFile)) {
+            cursor.store(outputStream, null);
+        }
+        Files.move(temporaryFile.toPath(), cursorFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+}
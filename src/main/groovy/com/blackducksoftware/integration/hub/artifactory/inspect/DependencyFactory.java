@@ -23,7 +23,14 @@
  */
 package com.blackducksoftware.integration.hub.artifactory.inspect;
 
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
 import org.artifactory.fs.FileLayoutInfo;
@@ -36,28 +43,30 @@ import com.blackducksoftware.integration.hub.bdio.model.externalid.ExternalIdFac
 
 public class DependencyFactory {
     private final ExternalIdFactory externalIdFactory;
+    private final Map<SupportedPackageType, DependencyResolver> dependencyResolvers;
 
     public DependencyFactory() {
-        externalIdFactory = new ExternalIdFactory();
+        this(new ExternalIdFactory());
     }
 
     public DependencyFactory(final ExternalIdFactory externalIdFactory) {
         this.externalIdFactory = externalIdFactory;
+
+        dependencyResolvers = new EnumMap<>(SupportedPackageType.class);
+        dependencyResolvers.put(SupportedPackageType.nuget, (fileLayoutInfo, properties, createdDependencies) -> createNameVersionDependency(Forge.NUGET, fileLayoutInfo, properties, "nuget.id", "nuget.version", createdDependencies));
+        dependencyResolvers.put(SupportedPackageType.npm, (fileLayoutInfo, properties, createdDependencies) -> createNameVersionDependency(Forge.NPM, fileLayoutInfo, properties, "npm.name", "npm.version", createdDependencies));
+        dependencyResolvers.put(SupportedPackageType.pypi, (fileLayoutInfo, properties, createdDependencies) -> createNameVersionDependency(Forge.PYPI, fileLayoutInfo, properties, "pypi.name", "pypi.version", createdDependencies));
+        dependencyResolvers.put(SupportedPackageType.gems, (fileLayoutInfo, properties, createdDependencies) -> createNameVersionDependency(Forge.RUBYGEMS, fileLayoutInfo, properties, "gem.name", "gem.version", createdDependencies));
+        dependencyResolvers.put(SupportedPackageType.maven, (fileLayoutInfo, properties, createdDependencies) -> createMavenDependency(fileLayoutInfo, createdDependencies));
+        dependencyResolvers.put(SupportedPackageType.gradle, (fileLayoutInfo, properties, createdDependencies) -> createMavenDependency(fileLayoutInfo, createdDependencies));
     }
 
     public Optional<Dependency> createDependency(final Logger log, final String packageType, final FileLayoutInfo fileLayoutInfo, final org.artifactory.md.Properties properties) {
         Optional<Dependency> optionalDependency = Optional.empty();
         try {
-            if (SupportedPackageType.nuget.name().equals(packageType)) {
-                optionalDependency = createNugetDependency(fileLayoutInfo, properties);
-            } else if (SupportedPackageType.npm.name().equals(packageType)) {
-                optionalDependency = createNpmDependency(fileLayoutInfo, properties);
-            } else if (SupportedPackageType.pypi.name().equals(packageType)) {
-                optionalDependency = createPyPiDependency(fileLayoutInfo, properties);
-            } else if (SupportedPackageType.gems.name().equals(packageType)) {
-                optionalDependency = createRubygemsDependency(fileLayoutInfo, properties);
-            } else if (SupportedPackageType.maven.name().equals(packageType) || SupportedPackageType.gradle.name().equals(packageType)) {
-                optionalDependency = createMavenDependency(fileLayoutInfo);
+            final Optional<SupportedPackageType> supportedPackageType = SupportedPackageType.getSupportedPackageType(packageType);
+            if (supportedPackageType.isPresent()) {
+                optionalDependency = dependencyResolvers.get(supportedPackageType.get()).resolve(fileLayoutInfo, properties, null);
             }
         } catch (final Exception e) {
             log.error("Could not resolve dependency:", e);
@@ -66,69 +75,102 @@ public class DependencyFactory {
         return optionalDependency;
     }
 
-    private Optional<Dependency> createMavenDependency(final FileLayoutInfo fileLayoutInfo) {
-        final String group = fileLayoutInfo.getOrganization();
-        final String name = fileLayoutInfo.getModule();
-        final String version = fileLayoutInfo.getBaseRevision();
-        Dependency dependency = null;
-        if (StringUtils.isNotBlank(group) && StringUtils.isNotBlank(name) && StringUtils.isNotBlank(version)) {
-            final ExternalId externalId = externalIdFactory.createMavenExternalId(group, name, version);
-            dependency = new Dependency(name, version, externalId);
-        }
-        return Optional.ofNullable(dependency);
+    public DependencyResults createDependencies(final Logger log, final List<DependencyInput> dependencyInputs) {
+        return createDependencies(log, dependencyInputs.stream());
     }
 
-    private Optional<Dependency> createNugetDependency(final FileLayoutInfo fileLayoutInfo, final org.artifactory.md.Properties properties) {
-        Optional<Dependency> dependency = createNameVersionDependencyFromProperties(Forge.NUGET, properties, "nuget.id", "nuget.version");
-        if (!dependency.isPresent()) {
-            dependency = createNameVersionDependencyFromFileLayoutInfo(Forge.NUGET, fileLayoutInfo);
-        }
-        return dependency;
-    }
+    public DependencyResults createDependencies(final Logger log, final Stream<DependencyInput> dependencyInputs) {
+        final Map<String, Dependency> createdDependencies = new ConcurrentHashMap<>();
+        final AtomicInteger unsupportedCount = new AtomicInteger();
+        final AtomicInteger unresolvedCount = new AtomicInteger();
+        final AtomicInteger failureCount = new AtomicInteger();
+
+        final List<Optional<Dependency>> dependencies = dependencyInputs.parallel().map(dependencyInput -> {
+            final Optional<SupportedPackageType> supportedPackageType = SupportedPackageType.getSupportedPackageType(dependencyInput.getPackageType());
+            if (!supportedPackageType.isPresent()) {
+                unsupportedCount.incrementAndGet();
+                return Optional.<Dependency> empty();
+            }
 
-    private Optional<Dependency> createNpmDependency(final FileLayoutInfo fileLayoutInfo, final org.artifactory.md.Properties properties) {
-        Optional<Dependency> dependency = createNameVersionDependencyFromProperties(Forge.NPM, properties, "npm.name", "npm.version");
-        if (!dependency.isPresent()) {
-            dependency = createNameVersionDependencyFromFileLayoutInfo(Forge.NPM, fileLayoutInfo);
+            try {
+                final Optional<Dependency> dependency = dependencyResolvers.get(supportedPackageType.get()).resolve(dependencyInput.getFileLayoutInfo(), dependencyInput.getProperties(), createdDependencies);
+                if (!dependency.isPresent()) {
+                    unresolvedCount.incrementAndGet();
+                }
+                return dependency;
+            } catch (final Exception e) {
+                log.debug("Could not resolve dependency:", e);
+                failureCount.incrementAndGet();
+                return Optional.<Dependency> empty();
+            }
+        }).collect(Collectors.toList());
+
+        if (failureCount.get() > 0) {
+            log.error(String.format("Could not resolve %d of %d dependencies", failureCount.get(), dependencies.size()));
         }
-        return dependency;
+
+        return new DependencyResults(dependencies, unsupportedCount.get(), unresolvedCount.get(), failureCount.get(), createdDependencies.size());
     }
 
-    private Optional<Dependency> createPyPiDependency(final FileLayoutInfo fileLayoutInfo, final org.artifactory.md.Properties properties) {
-        Optional<Dependency> dependency = createNameVersionDependencyFromProperties(Forge.PYPI, properties, "pypi.name", "pypi.version");
-        if (!dependency.isPresent()) {
-            dependency = createNameVersionDependencyFromFileLayoutInfo(Forge.PYPI, fileLayoutInfo);
+    private Optional<Dependency> createMavenDependency(final FileLayoutInfo fileLayoutInfo, final Map<String, Dependency> createdDependencies) {
+        final String group = fileLayoutInfo.getOrganization();
+        final String name = fileLayoutInfo.getModule();
+        final String version = fileLayoutInfo.getBaseRevision();
+        Dependency dependency = null;
+        if (StringUtils.isNotBlank(group) && StringUtils.isNotBlank(name) && StringUtils.isNotBlank(version)) {
+            if (createdDependencies == null) {
+                dependency = new Dependency(name, version, externalIdFactory.createMavenExternalId(group, name, version));
+            } else {
+                final String key = String.join(":", Forge.MAVEN.getName(), group, name, version);
+                dependency = createdDependencies.computeIfAbsent(key, ignored -> new Dependency(name, version, externalIdFactory.createMavenExternalId(group, name, version)));
+            }
         }
-        return dependency;
+        return Optional.ofNullable(dependency);
     }
 
-    private Optional<Dependency> createRubygemsDependency(final FileLayoutInfo fileLayoutInfo, final org.artifactory.md.Properties properties) {
-        Optional<Dependency> dependency = createNameVersionDependencyFromProperties(Forge.RUBYGEMS, properties, "gem.name", "gem.version");
+    private Optional<Dependency> createNameVersionDependency(final Forge forge, final FileLayoutInfo fileLayoutInfo, final org.artifactory.md.Properties properties, final String namePropertyName, final String versionPropertyName,
+            final Map<String, Dependency> createdDependencies) {
+        Optional<Dependency> dependency = createNameVersionDependencyFromProperties(forge, properties, namePropertyName, versionPropertyName, createdDependencies);
         if (!dependency.isPresent()) {
-            dependency = createNameVersionDependencyFromFileLayoutInfo(Forge.RUBYGEMS, fileLayoutInfo);
+            dependency = createNameVersionDependencyFromFileLayoutInfo(forge, fileLayoutInfo, createdDependencies);
         }
         return dependency;
     }
 
-    private Optional<Dependency> createNameVersionDependencyFromProperties(final Forge forge, final org.artifactory.md.Properties properties, final String namePropertyName, final String versionPropertyName) {
+    private Optional<Dependency> createNameVersionDependencyFromProperties(final Forge forge, final org.artifactory.md.Properties properties, final String namePropertyName, final String versionPropertyName,
+            final Map<String, Dependency> createdDependencies) {
         final String name = properties.getFirst(namePropertyName);
         final String version = properties.getFirst(versionPropertyName);
-        return createNameVersionDependency(forge, name, version);
+        return createNameVersionDependency(forge, name, version, createdDependencies);
     }
 
-    private Optional<Dependency> createNameVersionDependencyFromFileLayoutInfo(final Forge forge, final FileLayoutInfo fileLayoutInfo) {
+    private Optional<Dependency> createNameVersionDependencyFromFileLayoutInfo(final Forge forge, final FileLayoutInfo fileLayoutInfo, final Map<String, Dependency> createdDependencies) {
         final String name = fileLayoutInfo.getModule();
         final String version = fileLayoutInfo.getBaseRevision();
-        return createNameVersionDependency(forge, name, version);
+        return createNameVersionDependency(forge, name, version, createdDependencies);
     }
 
-    private Optional<Dependency> createNameVersionDependency(final Forge forge, final String name, final String version) {
+    private Optional<Dependency> createNameVersionDependency(final Forge forge, final String name, final String version, final Map<String, Dependency> createdDependencies) {
         Dependency dependency = null;
         if (StringUtils.isNotBlank(name) && StringUtils.isNotBlank(version)) {
-            final ExternalId externalId = externalIdFactory.createNameVersionExternalId(forge, name, version);
-            dependency = new Dependency(name, version, externalId);
+            if (createdDependencies == null) {
+                dependency = createNameVersionDependency(forge, name, version);
+            } else {
+                final String key = String.join(":", forge.getName(), name, version);
+                dependency = createdDependencies.computeIfAbsent(key, ignored -> createNameVersionDependency(forge, name, version));
+            }
         }
         return Optional.ofNullable(dependency);
     }
 
+    private Dependency createNameVersionDependency(final Forge forge, final String name, final String version) {
+        final ExternalId externalId = externalIdFactory.createNameVersionExternalId(forge, name, version);
+        return new Dependency(name, version, externalId);
+    }
+
+    @FunctionalInterface
+    private interface DependencyResolver {
+        Optional<Dependency> resolve(FileLayoutInfo fileLayoutInfo, org.artifactory.md.Properties properties, Map<String, Dependency> createdDependencies);
+    }
+
 }
@@ -0,0 +1,74 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory.inspect;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.blackducksoftware.integration.hub.bdio.model.dependency.Dependency;
+
+public class DependencyResults {
+    private final List<Optional<Dependency>> dependencies;
+    private final int unsupportedCount;
+    private final int unresolvedCount;
+    private final int failureCount;
+    private final int uniqueExternalIdCount;
+
+    public DependencyResults(final List<Optional<Dependency>> dependencies, final int unsupportedCount, final int unresolvedCount, final int failureCount, final int uniqueExternalIdCount) {
+        this.dependencies = dependencies;
+        this.unsupportedCount = unsupportedCount;
+        this.unresolvedCount = unresolvedCount;
+        this.failureCount = failureCount;
+        this.uniqueExternalIdCount = uniqueExternalIdCount;
+    }
+
+    public List<Optional<Dependency>> getDependencies() {
+        return dependencies;
+    }
+
+    public Optional<Dependency> getDependency(final int inputIndex) {
+        return dependencies.get(inputIndex);
+    }
+
+    public int getResolvedCount() {
+        return dependencies.size() - unsupportedCount - unresolvedCount - failureCount;
+    }
+
+    public int getUnsupportedCount() {
+        return unsupportedCount;
+    }
+
+    public int getUnresolvedCount() {
+        return unresolvedCount;
+    }
+
+    public int getFailureCount() {
+        return failureCount;
+    }
+
+    public int getUniqueExternalIdCount() {
+        return uniqueExternalIdCount;
+    }
+
+}
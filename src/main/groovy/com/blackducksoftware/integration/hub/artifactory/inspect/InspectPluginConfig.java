@@ -0,0 +1,258 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory.inspect;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.blackducksoftware.integration.hub.artifactory.ArtifactMetaDataManager;
+import com.blackducksoftware.integration.hub.artifactory.BlackDuckArtifactoryConfigSnapshot;
+import com.blackducksoftware.integration.hub.artifactory.PropertyUpdatePipeline;
+import com.blackducksoftware.integration.hub.artifactory.SeverityCountSource;
+import com.blackducksoftware.integration.hub.artifactory.SummaryFileHubMetrics;
+import com.blackducksoftware.integration.hub.artifactory.model.AdaptiveConcurrencyLimiter;
+import com.blackducksoftware.integration.hub.artifactory.model.ComponentDataCache;
+import com.blackducksoftware.integration.hub.artifactory.model.CompositeComponentManager;
+import com.blackducksoftware.integration.hub.artifactory.model.HubCallExecutor;
+import com.blackducksoftware.integration.hub.artifactory.model.HubMetrics;
+
+public class InspectPluginConfig {
+    public static final String DEFAULT_DATE_TIME_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSS";
+    public static final long DEFAULT_CLUSTER_LEASE_TTL_SECONDS = 300;
+
+    private final List<String> repos;
+    private final Optional<String> reposCsvPath;
+    private final Map<SupportedPackageType, String> patterns;
+    private final PackageTypeClassifier packageTypeClassifier;
+    private final String dateTimePattern;
+    private final DateTimeFormatter dateTimeFormatter;
+    private final boolean cronLogVerbose;
+    private final String identifyArtifactsCron;
+    private final String populateMetadataCron;
+    private final String updateMetadataCron;
+    private final String addPendingArtifactsCron;
+    private final int metadataConcurrency;
+    private final int componentCacheSize;
+    private final long componentCacheTtlMillis;
+    private final SeverityCountSource severityCountSource;
+    private final int metadataPageSize;
+    private final int bomIndexThreshold;
+    private final long metricsSummaryIntervalMillis;
+    private final long adaptiveConcurrencyLatencyThresholdMillis;
+    private final long metadataReuseMillis;
+    private final long repoTickBudgetMillis;
+    private final Optional<String> clusterLeaseDirectory;
+    private final long clusterLeaseTtlMillis;
+    private final int propertyUpdateBatchSize;
+    private final int propertyUpdateQueueSize;
+
+    public static InspectPluginConfig defaults() {
+        return new BlackDuckArtifactoryConfigSnapshot(new Properties()).getInspectPluginConfig();
+    }
+
+    public InspectPluginConfig(final BlackDuckArtifactoryConfigSnapshot snapshot) {
+        repos = snapshot.getList(InspectPluginProperty.REPOS);
+        reposCsvPath = snapshot.getOptionalString(InspectPluginProperty.REPOS_CSV_PATH);
+
+        final Map<SupportedPackageType, String> patternMap = new EnumMap<>(SupportedPackageType.class);
+        putPattern(snapshot, patternMap, SupportedPackageType.gems, InspectPluginProperty.PATTERNS_RUBYGEMS);
+        putPattern(snapshot, patternMap, SupportedPackageType.maven, InspectPluginProperty.PATTERNS_MAVEN);
+        putPattern(snapshot, patternMap, SupportedPackageType.gradle, InspectPluginProperty.PATTERNS_GRADLE);
+        putPattern(snapshot, patternMap, SupportedPackageType.pypi, InspectPluginProperty.PATTERNS_PYPI);
+        putPattern(snapshot, patternMap, SupportedPackageType.nuget, InspectPluginProperty.PATTERNS_NUGET);
+        putPattern(snapshot, patternMap, SupportedPackageType.npm, InspectPluginProperty.PATTERNS_NPM);
+        patterns = Collections.unmodifiableMap(patternMap);
+        packageTypeClassifier = new PackageTypeClassifier(patternMap);
+
+        String validDateTimePattern = snapshot.getString(InspectPluginProperty.DATE_TIME_PATTERN, DEFAULT_DATE_TIME_PATTERN);
+        try {
+            DateTimeFormatter.ofPattern(validDateTimePattern);
+        } catch (final IllegalArgumentException e) {
+            validDateTimePattern = snapshot.rejectInvalidValue(String.format("%s is not a valid date time pattern: %s", InspectPluginProperty.DATE_TIME_PATTERN.getKey(), e.getMessage()), e, DEFAULT_DATE_TIME_PATTERN);
+        }
+        dateTimePattern = validDateTimePattern;
+        dateTimeFormatter = DateTimeFormatter.ofPattern(dateTimePattern);
+        cronLogVerbose = snapshot.getBoolean(InspectPluginProperty.CRON_LOG_VERBOSE, false);
+        identifyArtifactsCron = snapshot.getProperty(InspectPluginProperty.IDENTIFY_ARTIFACTS_CRON);
+        populateMetadataCron = snapshot.getProperty(InspectPluginProperty.POPULATE_METADATA_CRON);
+        updateMetadataCron = snapshot.getProperty(InspectPluginProperty.UPDATE_METADATA_CRON);
+        addPendingArtifactsCron = snapshot.getProperty(InspectPluginProperty.ADD_PENDING_ARTIFACTS_CRON);
+
+        metadataConcurrency = snapshot.getInt(InspectPluginProperty.METADATA_CONCURRENCY, 1);
+        componentCacheSize = snapshot.getInt(InspectPluginProperty.COMPONENT_CACHE_SIZE, ComponentDataCache.DEFAULT_MAXIMUM_SIZE);
+        componentCacheTtlMillis = TimeUnit.MINUTES.toMillis(snapshot.getLong(InspectPluginProperty.COMPONENT_CACHE_TTL_MINUTES, TimeUnit.MILLISECONDS.toMinutes(ComponentDataCache.DEFAULT_TIME_TO_LIVE_MILLIS)));
+        severityCountSource = snapshot.getEnum(InspectPluginProperty.SEVERITY_COUNT_SOURCE, SeverityCountSource.class, SeverityCountSource.VULNERABILITIES);
+        metadataPageSize = snapshot.getInt(InspectPluginProperty.METADATA_PAGE_SIZE, ArtifactMetaDataManager.DEFAULT_PAGE_SIZE);
+        bomIndexThreshold = snapshot.getInt(InspectPluginProperty.BOM_INDEX_THRESHOLD, CompositeComponentManager.DEFAULT_BOM_INDEX_THRESHOLD);
+        metricsSummaryIntervalMillis = TimeUnit.MINUTES.toMillis(snapshot.getLong(InspectPluginProperty.METRICS_SUMMARY_INTERVAL_MINUTES, SummaryFileHubMetrics.DEFAULT_SUMMARY_INTERVAL_MINUTES));
+        adaptiveConcurrencyLatencyThresholdMillis = snapshot.getLong(InspectPluginProperty.ADAPTIVE_CONCURRENCY_LATENCY_THRESHOLD_MILLIS, 0);
+        metadataReuseMillis = TimeUnit.SECONDS.toMillis(snapshot.getLong(InspectPluginProperty.METADATA_REUSE_SECONDS, 0));
+        repoTickBudgetMillis = TimeUnit.SECONDS.toMillis(snapshot.getLong(InspectPluginProperty.REPOS_TICK_BUDGET_SECONDS, 0));
+        clusterLeaseDirectory = snapshot.getOptionalString(InspectPluginProperty.CLUSTER_LEASE_DIRECTORY);
+        clusterLeaseTtlMillis = TimeUnit.SECONDS.toMillis(snapshot.getLong(InspectPluginProperty.CLUSTER_LEASE_TTL_SECONDS, DEFAULT_CLUSTER_LEASE_TTL_SECONDS));
+        propertyUpdateBatchSize = snapshot.getInt(InspectPluginProperty.PROPERTY_UPDATE_BATCH_SIZE, PropertyUpdatePipeline.DEFAULT_BATCH_SIZE);
+        propertyUpdateQueueSize = snapshot.getInt(InspectPluginProperty.PROPERTY_UPDATE_QUEUE_SIZE, PropertyUpdatePipeline.DEFAULT_MAXIMUM_PENDING_PATHS);
+    }
+
+    public List<String> getRepos() {
+        return repos;
+    }
+
+    public Optional<String> getReposCsvPath() {
+        return reposCsvPath;
+    }
+
+    public Stream<String> streamRepos() {
+        if (!reposCsvPath.isPresent()) {
+            return repos.stream();
+        }
+
+        try {
+            return Files.lines(Paths.get(reposCsvPath.get()))
+                    .flatMap(line -> Arrays.stream(StringUtils.split(line, ',')))
+                    .map(String::trim)
+                    .filter(StringUtils::isNotEmpty);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(String.format("Could not read the repos from %s", reposCsvPath.get()), e);
+        }
+    }
+
+    public Map<SupportedPackageType, String> getPatterns() {
+        return patterns;
+    }
+
+    public PackageTypeClassifier getPackageTypeClassifier() {
+        return packageTypeClassifier;
+    }
+
+    public String getDateTimePattern() {
+        return dateTimePattern;
+    }
+
+    public DateTimeFormatter getDateTimeFormatter() {
+        return dateTimeFormatter;
+    }
+
+    public boolean isCronLogVerbose() {
+        return cronLogVerbose;
+    }
+
+    public String getIdentifyArtifactsCron() {
+        return identifyArtifactsCron;
+    }
+
+    public String getPopulateMetadataCron() {
+        return populateMetadataCron;
+    }
+
+    public String getUpdateMetadataCron() {
+        return updateMetadataCron;
+    }
+
+    public String getAddPendingArtifactsCron() {
+        return addPendingArtifactsCron;
+    }
+
+    public int getMetadataConcurrency() {
+        return metadataConcurrency;
+    }
+
+    public int getComponentCacheSize() {
+        return componentCacheSize;
+    }
+
+    public long getComponentCacheTtlMillis() {
+        return componentCacheTtlMillis;
+    }
+
+    public SeverityCountSource getSeverityCountSource() {
+        return severityCountSource;
+    }
+
+    public int getMetadataPageSize() {
+        return metadataPageSize;
+    }
+
+    public int getBomIndexThreshold() {
+        return bomIndexThreshold;
+    }
+
+    public long getMetricsSummaryIntervalMillis() {
+        return metricsSummaryIntervalMillis;
+    }
+
+    public long getAdaptiveConcurrencyLatencyThresholdMillis() {
+        return adaptiveConcurrencyLatencyThresholdMillis;
+    }
+
+    public HubCallExecutor createHubCallExecutor(final HubMetrics hubMetrics) {
+        if (adaptiveConcurrencyLatencyThresholdMillis <= 0) {
+            return new HubCallExecutor(hubMetrics, metadataConcurrency, null);
+        }
+        return new HubCallExecutor(hubMetrics, metadataConcurrency, new AdaptiveConcurrencyLimiter(metadataConcurrency, metadataConcurrency, adaptiveConcurrencyLatencyThresholdMillis));
+    }
+
+    public long getMetadataReuseMillis() {
+        return metadataReuseMillis;
+    }
+
+    public long getRepoTickBudgetMillis() {
+        return repoTickBudgetMillis;
+    }
+
+    public Optional<String> getClusterLeaseDirectory() {
+        return clusterLeaseDirectory;
+    }
+
+    public long getClusterLeaseTtlMillis() {
+        return clusterLeaseTtlMillis;
+    }
+
+    public int getPropertyUpdateBatchSize() {
+        return propertyUpdateBatchSize;
+    }
+
+    public int getPropertyUpdateQueueSize() {
+        return propertyUpdateQueueSize;
+    }
+
+    private void putPattern(final BlackDuckArtifactoryConfigSnapshot snapshot, final Map<SupportedPackageType, String> patternMap, final SupportedPackageType packageType, final InspectPluginProperty property) {
+        snapshot.getOptionalString(property).ifPresent(pattern -> patternMap.put(packageType, pattern));
+    }
+
+}
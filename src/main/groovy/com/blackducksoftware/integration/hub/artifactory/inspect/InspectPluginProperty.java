@@ -39,7 +39,21 @@ public enum InspectPluginProperty implements ConfigurationProperty {
     IDENTIFY_ARTIFACTS_CRON("identify.artifacts.cron"),
     POPULATE_METADATA_CRON("populate.metadata.cron"),
     UPDATE_METADATA_CRON("update.metadata.cron"),
-    ADD_PENDING_ARTIFACTS_CRON("add.pending.artifacts.cron");
+    ADD_PENDING_ARTIFACTS_CRON("add.pending.artifacts.cron"),
+    METADATA_CONCURRENCY("metadata.concurrency"),
+    COMPONENT_CACHE_SIZE("component.cache.size"),
+    COMPONENT_CACHE_TTL_MINUTES("component.cache.ttl.minutes"),
+    SEVERITY_COUNT_SOURCE("severity.count.source"),
+    METADATA_PAGE_SIZE("metadata.page.size"),
+    BOM_INDEX_THRESHOLD("bom.index.threshold"),
+    METRICS_SUMMARY_INTERVAL_MINUTES("metrics.summary.interval.minutes"),
+    ADAPTIVE_CONCURRENCY_LATENCY_THRESHOLD_MILLIS("adaptive.concurrency.latency.threshold.millis"),
+    METADATA_REUSE_SECONDS("metadata.reuse.seconds"),
+    REPOS_TICK_BUDGET_SECONDS("repos.tick.budget.seconds"),
+    CLUSTER_LEASE_DIRECTORY("cluster.lease.directory"),
+    CLUSTER_LEASE_TTL_SECONDS("cluster.lease.ttl.seconds"),
+    PROPERTY_UPDATE_BATCH_SIZE("property.update.batch.size"),
+    PROPERTY_UPDATE_QUEUE_SIZE("property.update.queue.size");
 
     private final String key;
 
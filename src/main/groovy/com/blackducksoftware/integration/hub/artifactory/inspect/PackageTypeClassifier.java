@@ -0,0 +1,152 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory.inspect;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+
+public class PackageTypeClassifier {
+    private final SuffixNode suffixRoot = new SuffixNode();
+    private final Map<String, EnumSet<SupportedPackageType>> exactNameToPackageTypes = new HashMap<>();
+    private final List<Pattern> globPatterns = new ArrayList<>();
+    private final List<SupportedPackageType> globPackageTypes = new ArrayList<>();
+
+    public PackageTypeClassifier(final Map<SupportedPackageType, String> patternMap) {
+        for (final Map.Entry<SupportedPackageType, String> packageTypeAndPattern : patternMap.entrySet()) {
+            for (final String pattern : StringUtils.split(StringUtils.defaultString(packageTypeAndPattern.getValue()), ',')) {
+                addPattern(packageTypeAndPattern.getKey(), pattern.trim());
+            }
+        }
+    }
+
+    public Set<SupportedPackageType> classify(final String fileName) {
+        final EnumSet<SupportedPackageType> packageTypes = EnumSet.noneOf(SupportedPackageType.class);
+        if (fileName == null) {
+            return packageTypes;
+        }
+
+        if (suffixRoot.packageTypes != null) {
+            packageTypes.addAll(suffixRoot.packageTypes);
+        }
+        SuffixNode node = suffixRoot;
+        for (int i = fileName.length() - 1; i >= 0 && node != null; i--) {
+            node = node.getChild(fileName.charAt(i));
+            if (node != null && node.packageTypes != null) {
+                packageTypes.addAll(node.packageTypes);
+            }
+        }
+
+        final EnumSet<SupportedPackageType> exactPackageTypes = exactNameToPackageTypes.get(fileName);
+        if (exactPackageTypes != null) {
+            packageTypes.addAll(exactPackageTypes);
+        }
+
+        for (int i = 0; i < globPatterns.size(); i++) {
+            if (!packageTypes.contains(globPackageTypes.get(i)) && globPatterns.get(i).matcher(fileName).matches()) {
+                packageTypes.add(globPackageTypes.get(i));
+            }
+        }
+
+        return packageTypes;
+    }
+
+    private void addPattern(final SupportedPackageType packageType, final String pattern) {
+        if (StringUtils.isBlank(pattern)) {
+            return;
+        }
+
+        final int lastWildcardIndex = StringUtils.lastIndexOfAny(pattern, "*", "?");
+        if (lastWildcardIndex < 0) {
+            exactNameToPackageTypes.computeIfAbsent(pattern, ignored -> EnumSet.noneOf(SupportedPackageType.class)).add(packageType);
+        } else if (lastWildcardIndex == 0 && pattern.charAt(0) == '*') {
+            SuffixNode node = suffixRoot;
+            for (int i = pattern.length() - 1; i > 0; i--) {
+                node = node.getOrCreateChild(pattern.charAt(i));
+            }
+            if (node.packageTypes == null) {
+                node.packageTypes = EnumSet.noneOf(SupportedPackageType.class);
+            }
+            node.packageTypes.add(packageType);
+        } else {
+            globPatterns.add(Pattern.compile(toRegex(pattern)));
+            globPackageTypes.add(packageType);
+        }
+    }
+
+    private String toRegex(final String pattern) {
+        final StringBuilder regex = new StringBuilder();
+        final StringBuilder literal = new StringBuilder();
+        for (final char character : pattern.toCharArray()) {
+            if (character == '*' || character == '?') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(character == '*' ? ".*" : ".");
+            } else {
+                literal.append(character);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return regex.toString();
+    }
+
+    private static class SuffixNode {
+        private char[] characters = new char[0];
+        private SuffixNode[] children = new SuffixNode[0];
+        private EnumSet<SupportedPackageType> packageTypes;
+
+        private SuffixNode getChild(final char character) {
+            for (int i = 0; i < characters.length; i++) {
+                if (characters[i] == character) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private SuffixNode getOrCreateChild(final char character) {
+            SuffixNode child = getChild(character);
+            if (child == null) {
+                child = new SuffixNode();
+                characters = Arrays.copyOf(characters, characters.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                characters[characters.length - 1] = character;
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+    }
+
+}
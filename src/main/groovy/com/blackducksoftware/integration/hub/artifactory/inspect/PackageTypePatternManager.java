@@ -23,41 +23,54 @@
  */
 package com.blackducksoftware.integration.hub.artifactory.inspect;
 
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 public class PackageTypePatternManager {
     private final Map<SupportedPackageType, String> patternMap;
+    private volatile PackageTypeClassifier packageTypeClassifier;
 
     public PackageTypePatternManager() {
-        patternMap = new HashMap<>();
+        patternMap = new EnumMap<>(SupportedPackageType.class);
     }
 
     public void setPattern(final String packageType, final String pattern) {
-        if (SupportedPackageType.isSupported(packageType)) {
-            final SupportedPackageType packageTypeEnum = SupportedPackageType.valueOf(packageType);
-            setPattern(packageTypeEnum, pattern);
+        final Optional<SupportedPackageType> packageTypeEnum = SupportedPackageType.getSupportedPackageType(packageType);
+        if (packageTypeEnum.isPresent()) {
+            setPattern(packageTypeEnum.get(), pattern);
         }
     }
 
-    public void setPattern(final SupportedPackageType packageType, final String pattern) {
+    public synchronized void setPattern(final SupportedPackageType packageType, final String pattern) {
         this.patternMap.put(packageType, pattern);
+        packageTypeClassifier = null;
     }
 
     public Optional<String> getPattern(final String packageType) {
-        Optional<String> pattern = Optional.empty();
+        return SupportedPackageType.getSupportedPackageType(packageType).flatMap(this::getPattern);
+    }
 
-        if (SupportedPackageType.isSupported(packageType)) {
-            final SupportedPackageType packageTypeEnum = SupportedPackageType.valueOf(packageType);
-            pattern = getPattern(packageTypeEnum);
-        }
+    public synchronized Optional<String> getPattern(final SupportedPackageType packageType) {
+        return Optional.ofNullable(patternMap.get(packageType));
+    }
 
-        return pattern;
+    public Set<SupportedPackageType> classify(final String fileName) {
+        return getPackageTypeClassifier().classify(fileName);
     }
 
-    public Optional<String> getPattern(final SupportedPackageType packageType) {
-        return Optional.ofNullable(patternMap.get(packageType));
+    public PackageTypeClassifier getPackageTypeClassifier() {
+        PackageTypeClassifier currentPackageTypeClassifier = packageTypeClassifier;
+        if (currentPackageTypeClassifier == null) {
+            synchronized (this) {
+                if (packageTypeClassifier == null) {
+                    packageTypeClassifier = new PackageTypeClassifier(patternMap);
+                }
+                currentPackageTypeClassifier = packageTypeClassifier;
+            }
+        }
+        return currentPackageTypeClassifier;
     }
 
 }
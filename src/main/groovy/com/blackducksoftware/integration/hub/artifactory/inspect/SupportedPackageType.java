@@ -23,6 +23,11 @@
  */
 package com.blackducksoftware.integration.hub.artifactory.inspect;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
 public enum SupportedPackageType {
     gems,
     maven,
@@ -31,16 +36,24 @@ public enum SupportedPackageType {
     nuget,
     npm;
 
-    public static boolean isSupported(final String value) {
-        boolean isSupported;
+    private static final Map<String, SupportedPackageType> NAME_TO_PACKAGE_TYPE;
 
-        try {
-            valueOf(value);
-            isSupported = true;
-        } catch (final IllegalArgumentException | NullPointerException e) {
-            isSupported = false;
+    static {
+        final Map<String, SupportedPackageType> nameToPackageType = new HashMap<>();
+        for (final SupportedPackageType supportedPackageType : values()) {
+            nameToPackageType.put(supportedPackageType.name(), supportedPackageType);
         }
+        NAME_TO_PACKAGE_TYPE = Collections.unmodifiableMap(nameToPackageType);
+    }
 
-        return isSupported;
+    public static Optional<SupportedPackageType> getSupportedPackageType(final String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(NAME_TO_PACKAGE_TYPE.get(value));
+    }
+
+    public static boolean isSupported(final String value) {
+        return getSupportedPackageType(value).isPresent();
     }
 }
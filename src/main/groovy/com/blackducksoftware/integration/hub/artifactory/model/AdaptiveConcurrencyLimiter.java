@@ -0,0 +1,115 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory.model;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class AdaptiveConcurrencyLimiter {
+    public static final double DEFAULT_BACKOFF_RATIO = 0.9;
+
+    private final int minimumLimit;
+    private final int maximumLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int queueDepth;
+
+    public AdaptiveConcurrencyLimiter(final int initialLimit, final int maximumLimit, final long latencyThresholdMillis) {
+        this(1, initialLimit, maximumLimit, latencyThresholdMillis, DEFAULT_BACKOFF_RATIO);
+    }
+
+    public AdaptiveConcurrencyLimiter(final int minimumLimit, final int initialLimit, final int maximumLimit, final long latencyThresholdMillis, final double backoffRatio) {
+        this.minimumLimit = Math.max(1, minimumLimit);
+        this.maximumLimit = Math.max(this.minimumLimit, maximumLimit);
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.min(this.maximumLimit, Math.max(this.minimumLimit, initialLimit));
+    }
+
+    public void acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            queueDepth++;
+            try {
+                while (inFlight >= (int) limit) {
+                    permitReleased.await();
+                }
+            } finally {
+                queueDepth--;
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(final long latencyNanos, final boolean overloaded) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (overloaded || (latencyThresholdNanos > 0 && latencyNanos > latencyThresholdNanos)) {
+                limit = Math.max(minimumLimit, limit * backoffRatio);
+            } else if (inFlight + 1 >= (int) limit) {
+                // only grow while the current limit is actually being used, otherwise an idle limiter would drift to the maximum
+                limit = Math.min(maximumLimit, limit + 1.0 / limit);
+            }
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return queueDepth;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,93 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory.model;
+
+import java.util.Optional;
+
+public class ComponentDataCache {
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+    public static final long DEFAULT_TIME_TO_LIVE_MILLIS = 60 * 60 * 1000L;
+
+    private final ExpiringLruCache<String, ComponentVersionData> componentVersionData;
+    private final ExpiringLruCache<String, VulnerabilityCounts> vulnerabilityCounts;
+
+    public ComponentDataCache() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_TIME_TO_LIVE_MILLIS);
+    }
+
+    public ComponentDataCache(final int maximumSize, final long timeToLiveMillis) {
+        componentVersionData = new ExpiringLruCache<>(maximumSize, timeToLiveMillis);
+        vulnerabilityCounts = new ExpiringLruCache<>(maximumSize, timeToLiveMillis);
+    }
+
+    public static ComponentDataCache disabled() {
+        return new ComponentDataCache(0, 0);
+    }
+
+    public Optional<ComponentVersionData> getComponentVersionData(final String componentVersionHref) {
+        return componentVersionData.get(componentVersionHref);
+    }
+
+    public void putComponentVersionData(final String componentVersionHref, final ComponentVersionData componentVersionData) {
+        this.componentVersionData.put(componentVersionHref, componentVersionData);
+    }
+
+    public Optional<VulnerabilityCounts> getVulnerabilityCounts(final String componentVersionHref) {
+        return vulnerabilityCounts.get(componentVersionHref);
+    }
+
+    public void putVulnerabilityCounts(final String componentVersionHref, final VulnerabilityCounts vulnerabilityCounts) {
+        this.vulnerabilityCounts.put(componentVersionHref, vulnerabilityCounts);
+    }
+
+    public void putVulnerabilityCounts(final String componentVersionHref, final VulnerabilityCounts vulnerabilityCounts, final long createdAtMillis) {
+        this.vulnerabilityCounts.put(componentVersionHref, vulnerabilityCounts, createdAtMillis);
+    }
+
+    public void forEachVulnerabilityCounts(final ExpiringLruCache.EntryConsumer<String, VulnerabilityCounts> entryConsumer) {
+        vulnerabilityCounts.forEach(entryConsumer);
+    }
+
+    public void clear() {
+        componentVersionData.clear();
+        vulnerabilityCounts.clear();
+    }
+
+    public int size() {
+        return componentVersionData.size() + vulnerabilityCounts.size();
+    }
+
+    public long getHitCount() {
+        return componentVersionData.getHitCount() + vulnerabilityCounts.getHitCount();
+    }
+
+    public long getMissCount() {
+        return componentVersionData.getMissCount() + vulnerabilityCounts.getMissCount();
+    }
+
+    public long getEvictionCount() {
+        return componentVersionData.getEvictionCount() + vulnerabilityCounts.getEvictionCount();
+    }
+
+}
@@ -0,0 +1,54 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.blackducksoftware.integration.hub.api.generated.view.ComponentVersionView;
+import com.blackducksoftware.integration.hub.api.generated.view.OriginView;
+import com.blackducksoftware.integration.hub.service.HubService;
+import com.blackducksoftware.integration.util.Stringable;
+
+public class ComponentVersionData extends Stringable {
+    public final String componentVersionHref;
+    public final String vulnerabilitiesLink;
+    public final List<ComponentOrigin> componentOrigins;
+
+    public ComponentVersionData(final String componentVersionHref, final String vulnerabilitiesLink, final List<ComponentOrigin> componentOrigins) {
+        this.componentVersionHref = componentVersionHref;
+        this.vulnerabilitiesLink = vulnerabilitiesLink;
+        this.componentOrigins = Collections.unmodifiableList(componentOrigins);
+    }
+
+    public static ComponentVersionData fromViews(final HubService hubService, final ComponentVersionView componentVersionView, final List<OriginView> originViews) {
+        final List<ComponentOrigin> componentOrigins = originViews
+                .stream()
+                .map(originView -> new ComponentOrigin(originView.originName, originView.originId))
+                .collect(Collectors.toList());
+        return new ComponentVersionData(componentVersionView._meta.href, hubService.getFirstLinkSafely(componentVersionView, ComponentVersionView.VULNERABILITIES_LINK), componentOrigins);
+    }
+
+}
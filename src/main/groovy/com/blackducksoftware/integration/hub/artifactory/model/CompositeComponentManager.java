@@ -24,8 +24,11 @@
 package com.blackducksoftware.integration.hub.artifactory.model;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -36,30 +39,43 @@ import com.blackducksoftware.integration.hub.api.generated.view.ComponentVersion
 import com.blackducksoftware.integration.hub.api.generated.view.OriginView;
 import com.blackducksoftware.integration.hub.api.generated.view.ProjectVersionView;
 import com.blackducksoftware.integration.hub.api.generated.view.VersionBomComponentView;
+import com.blackducksoftware.integration.hub.artifactory.inspect.InspectPluginConfig;
 import com.blackducksoftware.integration.hub.notification.NotificationDetailResults;
 import com.blackducksoftware.integration.hub.notification.content.detail.NotificationContentDetail;
 import com.blackducksoftware.integration.hub.service.HubService;
 import com.blackducksoftware.integration.log.IntLogger;
 
 public class CompositeComponentManager {
+    public static final int DEFAULT_BOM_INDEX_THRESHOLD = 100;
+
     private final IntLogger intLogger;
     private final HubService hubService;
+    private final ComponentDataCache componentDataCache;
+    private final int bomIndexThreshold;
+    private final HubCallExecutor hubCallExecutor;
     private Set<String> projectVersionUrisToLookFor;
+    private Map<String, Map<String, VersionBomComponentView>> projectVersionUriToBomIndex;
+    private int collapsedNotificationCount;
 
     public CompositeComponentManager(final IntLogger intLogger, final HubService hubService) {
+        this(intLogger, hubService, InspectPluginConfig.defaults(), ComponentDataCache.disabled(), new HubCallExecutor());
+    }
+
+    public CompositeComponentManager(final IntLogger intLogger, final HubService hubService, final InspectPluginConfig inspectPluginConfig, final ComponentDataCache componentDataCache, final HubCallExecutor hubCallExecutor) {
         this.intLogger = intLogger;
         this.hubService = hubService;
+        this.componentDataCache = componentDataCache;
+        this.bomIndexThreshold = inspectPluginConfig.getBomIndexThreshold();
+        this.hubCallExecutor = hubCallExecutor;
         projectVersionUrisToLookFor = new HashSet<>();
+        projectVersionUriToBomIndex = new HashMap<>();
     }
 
     public List<CompositeComponentModel> parseBom(final ProjectVersionView projectVersionView, final List<VersionBomComponentView> versionBomComponentViews) {
         projectVersionUrisToLookFor = new HashSet<>();
         projectVersionUrisToLookFor.add(projectVersionView._meta.href);
 
-        final List<CompositeComponentModel> compositeComponentModels = versionBomComponentViews
-                .stream()
-                .map(versionBomComponentView -> generateCompositeComponentModel(versionBomComponentView))
-                .collect(Collectors.toList());
+        final List<CompositeComponentModel> compositeComponentModels = hubCallExecutor.mapInOrder(versionBomComponentViews, versionBomComponentView -> generateCompositeComponentModel(projectVersionView._meta.href, versionBomComponentView));
         return compositeComponentModels;
     }
 
@@ -69,19 +85,73 @@ public class CompositeComponentManager {
                 .map(it -> it._meta.href)
                 .collect(Collectors.toSet());
 
-        return notificationDetailResults.getResults()
+        final List<NotificationContentDetail> relevantNotificationContentDetails = notificationDetailResults.getResults()
                 .stream()
                 .map(notificationDetailResult -> notificationDetailResult.getNotificationContentDetails())
-                .map(notificationContentDetails -> generateCompositeComponentModels(notificationContentDetails))
-                .collect(ArrayList::new, ArrayList::addAll, ArrayList::addAll);
+                .flatMap(notificationContentDetails -> notificationContentDetails.stream())
+                .filter(notificationContentDetail -> containsRelevantProjectVersionInformation(notificationContentDetail))
+                .collect(Collectors.toList());
+
+        final List<NotificationContentDetail> uniqueNotificationContentDetails = coalesceNotificationContentDetails(relevantNotificationContentDetails);
+        collapsedNotificationCount = relevantNotificationContentDetails.size() - uniqueNotificationContentDetails.size();
+        if (collapsedNotificationCount > 0) {
+            intLogger.debug(String.format("Collapsed %d of %d relevant notification details that referenced an already seen project version and component version", collapsedNotificationCount, relevantNotificationContentDetails.size()));
+        }
+
+        projectVersionUriToBomIndex = createBomIndexes(uniqueNotificationContentDetails, projectVersionViewsToLookFor);
+
+        return generateCompositeComponentModels(uniqueNotificationContentDetails);
+    }
+
+    public int getCollapsedNotificationCount() {
+        return collapsedNotificationCount;
+    }
+
+    private List<NotificationContentDetail> coalesceNotificationContentDetails(final List<NotificationContentDetail> notificationContentDetails) {
+        final Map<String, NotificationContentDetail> uniqueNotificationContentDetails = new LinkedHashMap<>();
+        for (final NotificationContentDetail notificationContentDetail : notificationContentDetails) {
+            final Optional<UriSingleResponse<ProjectVersionView>> optionalProjectVersionUriResponse = notificationContentDetail.getProjectVersion();
+            final Optional<UriSingleResponse<ComponentVersionView>> optionalComponentVersionUriResponse = notificationContentDetail.getComponentVersion();
+            if (optionalProjectVersionUriResponse.isPresent() && optionalComponentVersionUriResponse.isPresent()) {
+                final String key = optionalProjectVersionUriResponse.get().uri + "|" + optionalComponentVersionUriResponse.get().uri;
+                uniqueNotificationContentDetails.putIfAbsent(key, notificationContentDetail);
+            }
+        }
+        return new ArrayList<>(uniqueNotificationContentDetails.values());
+    }
+
+    private Map<String, Map<String, VersionBomComponentView>> createBomIndexes(final List<NotificationContentDetail> notificationContentDetails, final List<ProjectVersionView> projectVersionViews) {
+        final Map<String, Map<String, VersionBomComponentView>> bomIndexes = new HashMap<>();
+        if (bomIndexThreshold <= 0) {
+            return bomIndexes;
+        }
+
+        final Map<String, Long> projectVersionUriToNotificationCount = notificationContentDetails
+                .stream()
+                .collect(Collectors.groupingBy(notificationContentDetail -> notificationContentDetail.getProjectVersion().get().uri, Collectors.counting()));
+
+        for (final ProjectVersionView projectVersionView : projectVersionViews) {
+            final String projectVersionUri = projectVersionView._meta.href;
+            final long notificationCount = projectVersionUriToNotificationCount.getOrDefault(projectVersionUri, 0L);
+            if (notificationCount >= bomIndexThreshold && !bomIndexes.containsKey(projectVersionUri)) {
+                try {
+                    final List<VersionBomComponentView> versionBomComponentViews = hubCallExecutor.execute(HubCallType.BOM_PAGE, () -> hubService.getAllResponses(projectVersionView, ProjectVersionView.COMPONENTS_LINK_RESPONSE));
+                    final Map<String, VersionBomComponentView> bomIndex = new HashMap<>();
+                    versionBomComponentViews.forEach(versionBomComponentView -> bomIndex.put(versionBomComponentView.componentVersion, versionBomComponentView));
+                    bomIndexes.put(projectVersionUri, bomIndex);
+                } catch (final IntegrationException e) {
+                    intLogger.error(String.format("Could not index the BOM for %s, falling back to looking up each BOM component: %s", projectVersionUri, e.getMessage()), e);
+                }
+            }
+        }
+
+        return bomIndexes;
     }
 
     private List<CompositeComponentModel> generateCompositeComponentModels(final List<NotificationContentDetail> notificationContentDetails) {
         final List<CompositeComponentModel> compositeComponentModels;
-        compositeComponentModels = notificationContentDetails
+        compositeComponentModels = hubCallExecutor.mapInOrder(notificationContentDetails, notificationContentDetail -> generateCompositeComponentModel(notificationContentDetail))
                 .stream()
-                .filter(notificationContentDetail -> containsRelevantProjectVersionInformation(notificationContentDetail))
-                .map(notificationContentDetail -> generateCompositeComponentModel(notificationContentDetail))
                 .filter(compositeComponentModel -> compositeComponentModel.isPresent())
                 .map(compositeComponentModel -> compositeComponentModel.get())
                 .collect(Collectors.toList());
@@ -107,10 +177,15 @@ public class CompositeComponentManager {
 
             if (optionalProjectVersionUriResponse.isPresent()) {
                 if (optionalComponentVersionUriResponse.isPresent()) {
+                    final UriSingleResponse<ProjectVersionView> projectVersionUriResponse = optionalProjectVersionUriResponse.get();
                     final UriSingleResponse<ComponentVersionView> componentVersionUriResponse = optionalComponentVersionUriResponse.get();
-                    final UriSingleResponse<VersionBomComponentView> versionBomComponentUriResponse = getVersionBomComponentUriResponse(optionalProjectVersionUriResponse.get(), componentVersionUriResponse);
-
-                    compositeComponentModel = createCompositeComponentModel(componentVersionUriResponse, versionBomComponentUriResponse);
+                    final Optional<VersionBomComponentView> indexedVersionBomComponentView = getIndexedVersionBomComponentView(projectVersionUriResponse.uri, componentVersionUriResponse.uri);
+                    if (indexedVersionBomComponentView.isPresent()) {
+                        compositeComponentModel = createCompositeComponentModel(projectVersionUriResponse.uri, componentVersionUriResponse, indexedVersionBomComponentView.get());
+                    } else {
+                        final UriSingleResponse<VersionBomComponentView> versionBomComponentUriResponse = getVersionBomComponentUriResponse(projectVersionUriResponse, componentVersionUriResponse);
+                        compositeComponentModel = createCompositeComponentModel(projectVersionUriResponse.uri, componentVersionUriResponse, versionBomComponentUriResponse);
+                    }
                 }
             } else {
                 throw new IntegrationException("ProjectVersion data was missing from notification");
@@ -122,12 +197,20 @@ public class CompositeComponentManager {
         return Optional.ofNullable(compositeComponentModel);
     }
 
-    private CompositeComponentModel generateCompositeComponentModel(final VersionBomComponentView versionBomComponentView) {
+    private Optional<VersionBomComponentView> getIndexedVersionBomComponentView(final String projectVersionUri, final String componentVersionUri) {
+        final Map<String, VersionBomComponentView> bomIndex = projectVersionUriToBomIndex.get(projectVersionUri);
+        if (bomIndex == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(bomIndex.get(componentVersionUri));
+    }
+
+    private CompositeComponentModel generateCompositeComponentModel(final String projectVersionUri, final VersionBomComponentView versionBomComponentView) {
         CompositeComponentModel compositeComponentModel = new CompositeComponentModel();
         final UriSingleResponse<ComponentVersionView> componentVersionViewUriResponse = new UriSingleResponse<>(versionBomComponentView.componentVersion, ComponentVersionView.class);
 
         try {
-            compositeComponentModel = createCompositeComponentModel(componentVersionViewUriResponse, versionBomComponentView);
+            compositeComponentModel = createCompositeComponentModel(projectVersionUri, componentVersionViewUriResponse, versionBomComponentView);
         } catch (final IntegrationException e) {
             intLogger.error(String.format("Could not create the CompositeComponentModel: %s", e.getMessage()), e);
         }
@@ -135,18 +218,33 @@ public class CompositeComponentManager {
         return compositeComponentModel;
     }
 
-    private CompositeComponentModel createCompositeComponentModel(final UriSingleResponse<ComponentVersionView> componentVersionUriResponse, final UriSingleResponse<VersionBomComponentView> versionBomComponentUriResponse)
-            throws IntegrationException {
-        final VersionBomComponentView versionBomComponentView = hubService.getResponse(versionBomComponentUriResponse);
+    private CompositeComponentModel createCompositeComponentModel(final String projectVersionUri, final UriSingleResponse<ComponentVersionView> componentVersionUriResponse,
+            final UriSingleResponse<VersionBomComponentView> versionBomComponentUriResponse) throws IntegrationException {
+        final VersionBomComponentView versionBomComponentView = hubCallExecutor.execute(HubCallType.BOM_COMPONENT, () -> hubService.getResponse(versionBomComponentUriResponse));
 
-        return createCompositeComponentModel(componentVersionUriResponse, versionBomComponentView);
+        return createCompositeComponentModel(projectVersionUri, componentVersionUriResponse, versionBomComponentView);
     }
 
-    private CompositeComponentModel createCompositeComponentModel(final UriSingleResponse<ComponentVersionView> componentVersionUriResponse, final VersionBomComponentView versionBomComponentView) throws IntegrationException {
-        final ComponentVersionView componentVersionView = hubService.getResponse(componentVersionUriResponse);
-        final List<OriginView> originViews = hubService.getAllResponses(componentVersionView, ComponentVersionView.ORIGINS_LINK_RESPONSE);
+    private CompositeComponentModel createCompositeComponentModel(final String projectVersionUri, final UriSingleResponse<ComponentVersionView> componentVersionUriResponse, final VersionBomComponentView versionBomComponentView)
+            throws IntegrationException {
+        final CompositeComponentModel compositeComponentModel;
+        final Optional<ComponentVersionData> cachedComponentVersionData = componentDataCache.getComponentVersionData(componentVersionUriResponse.uri);
+        if (cachedComponentVersionData.isPresent()) {
+            hubCallExecutor.getHubMetrics().recordCacheHit(HubCallType.COMPONENT_VERSION);
+            hubCallExecutor.getHubMetrics().recordCacheHit(HubCallType.ORIGINS);
+            compositeComponentModel = new CompositeComponentModel(projectVersionUri, versionBomComponentView, null, null, cachedComponentVersionData.get());
+        } else {
+            hubCallExecutor.getHubMetrics().recordCacheMiss(HubCallType.COMPONENT_VERSION);
+            hubCallExecutor.getHubMetrics().recordCacheMiss(HubCallType.ORIGINS);
+            final ComponentVersionView componentVersionView = hubCallExecutor.execute(HubCallType.COMPONENT_VERSION, () -> hubService.getResponse(componentVersionUriResponse));
+            final List<OriginView> originViews = hubCallExecutor.execute(HubCallType.ORIGINS, () -> hubService.getAllResponses(componentVersionView, ComponentVersionView.ORIGINS_LINK_RESPONSE));
+            final ComponentVersionData componentVersionData = ComponentVersionData.fromViews(hubService, componentVersionView, originViews);
+            componentDataCache.putComponentVersionData(componentVersionUriResponse.uri, componentVersionData);
+            compositeComponentModel = new CompositeComponentModel(projectVersionUri, versionBomComponentView, componentVersionView, originViews, componentVersionData);
+        }
 
-        return new CompositeComponentModel(versionBomComponentView, componentVersionView, originViews);
+        compositeComponentModel.project();
+        return compositeComponentModel;
     }
 
     // not a good practice, but right now, I do not know a better way, short of searching the entire BOM, to match up a BOM component with a component/version
@@ -24,15 +24,24 @@
 package com.blackducksoftware.integration.hub.artifactory.model;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
+import com.blackducksoftware.integration.hub.api.generated.enumeration.PolicyStatusApprovalStatusType;
 import com.blackducksoftware.integration.hub.api.generated.view.ComponentVersionView;
 import com.blackducksoftware.integration.hub.api.generated.view.OriginView;
 import com.blackducksoftware.integration.hub.api.generated.view.VersionBomComponentView;
 
 public class CompositeComponentModel {
-    public VersionBomComponentView versionBomComponentView;
-    public ComponentVersionView componentVersionView;
-    public List<OriginView> originViews;
+    private String projectVersionUri;
+    private VersionBomComponentView versionBomComponentView;
+    private ComponentVersionView componentVersionView;
+    private List<OriginView> originViews;
+    private String componentVersionHref;
+    private String vulnerabilitiesLink;
+    private PolicyStatusApprovalStatusType policyStatus;
+    private VulnerabilityCounts riskProfileVulnerabilityCounts;
+    private List<ComponentOrigin> componentOrigins;
 
     public CompositeComponentModel() {
     }
@@ -43,4 +52,58 @@ public class CompositeComponentModel {
         this.originViews = originViews;
     }
 
+    public CompositeComponentModel(final String projectVersionUri, final VersionBomComponentView versionBomComponentView, final ComponentVersionView componentVersionView, final List<OriginView> originViews) {
+        this(versionBomComponentView, componentVersionView, originViews);
+        this.projectVersionUri = projectVersionUri;
+    }
+
+    public CompositeComponentModel(final String projectVersionUri, final VersionBomComponentView versionBomComponentView, final ComponentVersionView componentVersionView, final List<OriginView> originViews,
+            final ComponentVersionData componentVersionData) {
+        this(projectVersionUri, versionBomComponentView, componentVersionView, originViews);
+        this.componentVersionHref = componentVersionData.componentVersionHref;
+        this.vulnerabilitiesLink = componentVersionData.vulnerabilitiesLink;
+        this.componentOrigins = componentVersionData.componentOrigins;
+    }
+
+    public void project() {
+        componentVersionHref = getComponentVersionHref();
+        policyStatus = getPolicyStatus();
+        riskProfileVulnerabilityCounts = getRiskProfileVulnerabilityCounts().orElse(null);
+        componentOrigins = getComponentOrigins();
+
+        versionBomComponentView = null;
+        componentVersionView = null;
+        originViews = null;
+    }
+
+    public String getProjectVersionUri() {
+        return projectVersionUri;
+    }
+
+    public String getComponentVersionHref() {
+        return componentVersionView != null ? componentVersionView._meta.href : componentVersionHref;
+    }
+
+    public String getVulnerabilitiesLink() {
+        return vulnerabilitiesLink;
+    }
+
+    public PolicyStatusApprovalStatusType getPolicyStatus() {
+        return versionBomComponentView != null ? versionBomComponentView.policyStatus : policyStatus;
+    }
+
+    public Optional<VulnerabilityCounts> getRiskProfileVulnerabilityCounts() {
+        return versionBomComponentView != null ? VulnerabilityCounts.fromRiskProfile(versionBomComponentView.securityRiskProfile) : Optional.ofNullable(riskProfileVulnerabilityCounts);
+    }
+
+    public List<ComponentOrigin> getComponentOrigins() {
+        if (componentOrigins != null || originViews == null) {
+            return componentOrigins;
+        }
+        return originViews
+                .stream()
+                .map(originView -> new ComponentOrigin(originView.originName, originView.originId))
+                .collect(Collectors.toList());
+    }
+
 }
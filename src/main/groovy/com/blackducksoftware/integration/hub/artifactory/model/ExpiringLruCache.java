@@ -0,0 +1,133 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+public class ExpiringLruCache<K, V> {
+    private final int maximumSize;
+    private final long timeToLiveMillis;
+    private final LinkedHashMap<K, CacheEntry<V>> entries;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    public ExpiringLruCache(final int maximumSize, final long timeToLiveMillis) {
+        this.maximumSize = Math.max(0, maximumSize);
+        this.timeToLiveMillis = timeToLiveMillis;
+        entries = new LinkedHashMap<K, CacheEntry<V>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, CacheEntry<V>> eldest) {
+                final boolean remove = size() > ExpiringLruCache.this.maximumSize;
+                if (remove) {
+                    evictionCount++;
+                }
+                return remove;
+            }
+        };
+    }
+
+    public synchronized Optional<V> get(final K key) {
+        final CacheEntry<V> cacheEntry = entries.get(key);
+        if (cacheEntry != null && isExpired(cacheEntry)) {
+            entries.remove(key);
+            evictionCount++;
+        } else if (cacheEntry != null) {
+            hitCount++;
+            return Optional.of(cacheEntry.value);
+        }
+
+        missCount++;
+        return Optional.empty();
+    }
+
+    public synchronized void put(final K key, final V value) {
+        put(key, value, System.currentTimeMillis());
+    }
+
+    public synchronized void put(final K key, final V value, final long createdAtMillis) {
+        if (maximumSize > 0 && value != null) {
+            final CacheEntry<V> cacheEntry = new CacheEntry<>(value, createdAtMillis);
+            if (!isExpired(cacheEntry)) {
+                entries.put(key, cacheEntry);
+            }
+        }
+    }
+
+    public synchronized void forEach(final EntryConsumer<K, V> entryConsumer) {
+        entries.forEach((key, cacheEntry) -> {
+            if (!isExpired(cacheEntry)) {
+                entryConsumer.accept(key, cacheEntry.value, cacheEntry.createdAtMillis);
+            }
+        });
+    }
+
+    public synchronized void remove(final K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    private boolean isExpired(final CacheEntry<V> cacheEntry) {
+        return timeToLiveMillis > 0 && System.currentTimeMillis() - cacheEntry.createdAtMillis > timeToLiveMillis;
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer<K, V> {
+        void accept(K key, V value, long createdAtMillis);
+    }
+
+    private static class CacheEntry<V> {
+        private final V value;
+        private final long createdAtMillis;
+
+        private CacheEntry(final V value, final long createdAtMillis) {
+            this.value = value;
+            this.createdAtMillis = createdAtMillis;
+        }
+    }
+
+}
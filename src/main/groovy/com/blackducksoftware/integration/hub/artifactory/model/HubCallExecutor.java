@@ -0,0 +1,184 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.blackducksoftware.integration.exception.IntegrationException;
+import com.blackducksoftware.integration.hub.api.core.HubResponse;
+import com.blackducksoftware.integration.rest.exception.IntegrationRestException;
+
+public class HubCallExecutor implements Closeable {
+    private final HubMetrics hubMetrics;
+    private final int concurrencyLevel;
+    private final AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter;
+    private final ExecutorService executorService;
+
+    public HubCallExecutor() {
+        this(HubMetrics.NONE);
+    }
+
+    public HubCallExecutor(final HubMetrics hubMetrics) {
+        this(hubMetrics, 1, null);
+    }
+
+    public HubCallExecutor(final HubMetrics hubMetrics, final int concurrencyLevel, final AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter) {
+        this.hubMetrics = hubMetrics;
+        this.concurrencyLevel = Math.max(1, concurrencyLevel);
+        this.adaptiveConcurrencyLimiter = adaptiveConcurrencyLimiter;
+        if (this.concurrencyLevel > 1) {
+            executorService = Executors.newFixedThreadPool(this.concurrencyLevel, runnable -> {
+                final Thread thread = new Thread(runnable, "blackduck-hub-call");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            executorService = null;
+        }
+    }
+
+    public <T> T execute(final HubCallType hubCallType, final HubCall<T> hubCall) throws IntegrationException {
+        if (adaptiveConcurrencyLimiter != null) {
+            try {
+                adaptiveConcurrencyLimiter.acquire();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IntegrationException("Interrupted while waiting to make a Hub request", e);
+            }
+        }
+
+        final long start = System.nanoTime();
+        boolean failed = true;
+        boolean overloaded = false;
+        long responseBytes = 0;
+        try {
+            final T result = hubCall.call();
+            responseBytes = getResponseBytes(result);
+            failed = false;
+            return result;
+        } catch (final IntegrationException e) {
+            overloaded = isOverloaded(e);
+            throw e;
+        } finally {
+            final long latencyNanos = System.nanoTime() - start;
+            if (adaptiveConcurrencyLimiter != null) {
+                adaptiveConcurrencyLimiter.release(latencyNanos, overloaded);
+                hubMetrics.recordConcurrency(adaptiveConcurrencyLimiter.getLimit(), adaptiveConcurrencyLimiter.getQueueDepth());
+            }
+            hubMetrics.recordCall(hubCallType, latencyNanos, responseBytes, failed);
+        }
+    }
+
+    public <T, R> List<R> mapInOrder(final List<T> items, final Function<T, R> mapper) {
+        if (executorService == null || items.size() < 2) {
+            return items
+                    .stream()
+                    .map(mapper)
+                    .collect(Collectors.toList());
+        }
+
+        final List<Future<R>> futures = new ArrayList<>(items.size());
+        try {
+            for (final T item : items) {
+                futures.add(executorService.submit(() -> mapper.apply(item)));
+            }
+
+            final List<R> results = new ArrayList<>(items.size());
+            for (final Future<R> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the Hub component requests to complete", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    public int getConcurrencyLevel() {
+        return concurrencyLevel;
+    }
+
+    public HubMetrics getHubMetrics() {
+        return hubMetrics;
+    }
+
+    public AdaptiveConcurrencyLimiter getAdaptiveConcurrencyLimiter() {
+        return adaptiveConcurrencyLimiter;
+    }
+
+    @Override
+    public void close() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private boolean isOverloaded(final IntegrationException e) {
+        if (e instanceof IntegrationRestException) {
+            final int httpStatusCode = ((IntegrationRestException) e).getHttpStatusCode();
+            return httpStatusCode == 429 || httpStatusCode >= 500;
+        }
+        return e.getCause() instanceof IOException;
+    }
+
+    // the json kept on each transformed view approximates the size of the response
+    private long getResponseBytes(final Object result) {
+        long responseBytes = 0;
+        if (result instanceof HubResponse) {
+            final String json = ((HubResponse) result).json;
+            responseBytes = json == null ? 0 : json.length();
+        } else if (result instanceof Collection) {
+            for (final Object item : (Collection<?>) result) {
+                responseBytes += getResponseBytes(item);
+            }
+        }
+        return responseBytes;
+    }
+
+    @FunctionalInterface
+    public interface HubCall<T> {
+        T call() throws IntegrationException;
+    }
+
+}
@@ -0,0 +1,170 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory.model;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class HubCallStatistics implements HubMetrics {
+    public static final long[] LATENCY_BUCKET_UPPER_BOUNDS_MILLIS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, Long.MAX_VALUE };
+
+    private final Map<HubCallType, CallStatistics> hubCallTypeToStatistics = new EnumMap<>(HubCallType.class);
+    private final AtomicInteger concurrencyLimit = new AtomicInteger();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger maximumQueueDepth = new AtomicInteger();
+
+    public HubCallStatistics() {
+        for (final HubCallType hubCallType : HubCallType.values()) {
+            hubCallTypeToStatistics.put(hubCallType, new CallStatistics());
+        }
+    }
+
+    @Override
+    public void recordCall(final HubCallType hubCallType, final long latencyNanos, final long responseBytes, final boolean failed) {
+        final CallStatistics callStatistics = hubCallTypeToStatistics.get(hubCallType);
+        final long latencyMillis = TimeUnit.NANOSECONDS.toMillis(latencyNanos);
+        callStatistics.callCount.increment();
+        callStatistics.totalLatencyNanos.add(latencyNanos);
+        callStatistics.maximumLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+        callStatistics.responseBytes.add(responseBytes);
+        if (failed) {
+            callStatistics.errorCount.increment();
+        }
+        for (int i = 0; i < LATENCY_BUCKET_UPPER_BOUNDS_MILLIS.length; i++) {
+            if (latencyMillis <= LATENCY_BUCKET_UPPER_BOUNDS_MILLIS[i]) {
+                callStatistics.latencyBuckets.incrementAndGet(i);
+                break;
+            }
+        }
+    }
+
+    @Override
+    public void recordCacheHit(final HubCallType hubCallType) {
+        hubCallTypeToStatistics.get(hubCallType).cacheHitCount.increment();
+    }
+
+    @Override
+    public void recordCacheMiss(final HubCallType hubCallType) {
+        hubCallTypeToStatistics.get(hubCallType).cacheMissCount.increment();
+    }
+
+    @Override
+    public void recordConcurrency(final int concurrencyLimit, final int queueDepth) {
+        this.concurrencyLimit.set(concurrencyLimit);
+        this.queueDepth.set(queueDepth);
+        maximumQueueDepth.accumulateAndGet(queueDepth, Math::max);
+    }
+
+    public int getConcurrencyLimit() {
+        return concurrencyLimit.get();
+    }
+
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    public int getMaximumQueueDepth() {
+        return maximumQueueDepth.get();
+    }
+
+    public long getCallCount(final HubCallType hubCallType) {
+        return hubCallTypeToStatistics.get(hubCallType).callCount.sum();
+    }
+
+    public long getErrorCount(final HubCallType hubCallType) {
+        return hubCallTypeToStatistics.get(hubCallType).errorCount.sum();
+    }
+
+    public long getResponseBytes(final HubCallType hubCallType) {
+        return hubCallTypeToStatistics.get(hubCallType).responseBytes.sum();
+    }
+
+    public long getCacheHitCount(final HubCallType hubCallType) {
+        return hubCallTypeToStatistics.get(hubCallType).cacheHitCount.sum();
+    }
+
+    public long getCacheMissCount(final HubCallType hubCallType) {
+        return hubCallTypeToStatistics.get(hubCallType).cacheMissCount.sum();
+    }
+
+    public long getTotalLatencyNanos(final HubCallType hubCallType) {
+        return hubCallTypeToStatistics.get(hubCallType).totalLatencyNanos.sum();
+    }
+
+    public long getMaximumLatencyNanos(final HubCallType hubCallType) {
+        return hubCallTypeToStatistics.get(hubCallType).maximumLatencyNanos.get();
+    }
+
+    public long[] getLatencyHistogram(final HubCallType hubCallType) {
+        final AtomicLongArray latencyBuckets = hubCallTypeToStatistics.get(hubCallType).latencyBuckets;
+        final long[] latencyHistogram = new long[latencyBuckets.length()];
+        for (int i = 0; i < latencyHistogram.length; i++) {
+            latencyHistogram[i] = latencyBuckets.get(i);
+        }
+        return latencyHistogram;
+    }
+
+    public String getSummary() {
+        final StringBuilder summary = new StringBuilder();
+        summary.append(String.format("%-18s %10s %8s %10s %10s %14s %10s %10s", "endpoint", "calls", "errors", "cacheHits", "cacheMiss", "bytes", "avgMillis", "maxMillis"));
+        for (final long upperBound : LATENCY_BUCKET_UPPER_BOUNDS_MILLIS) {
+            summary.append(String.format(" %8s", upperBound == Long.MAX_VALUE ? ">5000ms" : "<=" + upperBound + "ms"));
+        }
+        summary.append(System.lineSeparator());
+
+        for (final HubCallType hubCallType : HubCallType.values()) {
+            final long callCount = getCallCount(hubCallType);
+            final long averageLatencyMillis = callCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(getTotalLatencyNanos(hubCallType) / callCount);
+            summary.append(String.format("%-18s %10d %8d %10d %10d %14d %10d %10d", hubCallType, callCount, getErrorCount(hubCallType), getCacheHitCount(hubCallType), getCacheMissCount(hubCallType), getResponseBytes(hubCallType),
+                    averageLatencyMillis, TimeUnit.NANOSECONDS.toMillis(getMaximumLatencyNanos(hubCallType))));
+            for (final long bucketCount : getLatencyHistogram(hubCallType)) {
+                summary.append(String.format(" %8d", bucketCount));
+            }
+            summary.append(System.lineSeparator());
+        }
+
+        if (getConcurrencyLimit() > 0) {
+            summary.append(String.format("concurrency limit %d, queue depth %d, maximum queue depth %d%n", getConcurrencyLimit(), getQueueDepth(), getMaximumQueueDepth()));
+        }
+
+        return summary.toString();
+    }
+
+    private static class CallStatistics {
+        private final LongAdder callCount = new LongAdder();
+        private final LongAdder errorCount = new LongAdder();
+        private final LongAdder responseBytes = new LongAdder();
+        private final LongAdder cacheHitCount = new LongAdder();
+        private final LongAdder cacheMissCount = new LongAdder();
+        private final LongAdder totalLatencyNanos = new LongAdder();
+        private final AtomicLong maximumLatencyNanos = new AtomicLong();
+        private final AtomicLongArray latencyBuckets = new AtomicLongArray(LATENCY_BUCKET_UPPER_BOUNDS_MILLIS.length);
+    }
+
+}
@@ -0,0 +1,42 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory.model;
+
+public interface HubMetrics {
+    HubMetrics NONE = new HubMetrics() {
+    };
+
+    default void recordCall(final HubCallType hubCallType, final long latencyNanos, final long responseBytes, final boolean failed) {
+    }
+
+    default void recordCacheHit(final HubCallType hubCallType) {
+    }
+
+    default void recordCacheMiss(final HubCallType hubCallType) {
+    }
+
+    default void recordConcurrency(final int concurrencyLimit, final int queueDepth) {
+    }
+
+}
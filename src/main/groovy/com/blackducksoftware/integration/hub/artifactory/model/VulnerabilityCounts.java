@@ -0,0 +1,66 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory.model;
+
+import java.util.Optional;
+
+import com.blackducksoftware.integration.hub.api.generated.component.RiskCountView;
+import com.blackducksoftware.integration.hub.api.generated.enumeration.RiskCountType;
+import com.blackducksoftware.integration.hub.api.generated.view.RiskProfileView;
+import com.blackducksoftware.integration.util.Stringable;
+
+public class VulnerabilityCounts extends Stringable {
+    public final int highSeverityCount;
+    public final int mediumSeverityCount;
+    public final int lowSeverityCount;
+
+    public VulnerabilityCounts(final int highSeverityCount, final int mediumSeverityCount, final int lowSeverityCount) {
+        this.highSeverityCount = highSeverityCount;
+        this.mediumSeverityCount = mediumSeverityCount;
+        this.lowSeverityCount = lowSeverityCount;
+    }
+
+    public static Optional<VulnerabilityCounts> fromRiskProfile(final RiskProfileView securityRiskProfile) {
+        if (securityRiskProfile == null || securityRiskProfile.counts == null || securityRiskProfile.counts.isEmpty()) {
+            return Optional.empty();
+        }
+
+        int highSeverityCount = 0;
+        int mediumSeverityCount = 0;
+        int lowSeverityCount = 0;
+        for (final RiskCountView riskCountView : securityRiskProfile.counts) {
+            final int count = riskCountView.count == null ? 0 : riskCountView.count;
+            if (RiskCountType.HIGH == riskCountView.countType) {
+                highSeverityCount += count;
+            } else if (RiskCountType.MEDIUM == riskCountView.countType) {
+                mediumSeverityCount += count;
+            } else if (RiskCountType.LOW == riskCountView.countType) {
+                lowSeverityCount += count;
+            }
+        }
+
+        return Optional.of(new VulnerabilityCounts(highSeverityCount, mediumSeverityCount, lowSeverityCount));
+    }
+
+}
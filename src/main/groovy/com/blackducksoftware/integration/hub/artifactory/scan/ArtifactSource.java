@@ -0,0 +1,77 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory.scan;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+public class ArtifactSource {
+    private final String name;
+    private final long size;
+    private final File file;
+    private final InputStreamSupplier inputStreamSupplier;
+
+    public ArtifactSource(final String name, final long size, final File file, final InputStreamSupplier inputStreamSupplier) {
+        this.name = name;
+        this.size = size;
+        this.file = file;
+        this.inputStreamSupplier = inputStreamSupplier;
+    }
+
+    public static ArtifactSource fromFile(final File file) {
+        return new ArtifactSource(file.getName(), file.length(), file, null);
+    }
+
+    public static ArtifactSource fromInputStream(final String name, final long size, final InputStreamSupplier inputStreamSupplier) {
+        return new ArtifactSource(name, size, null, inputStreamSupplier);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public Optional<File> getFile() {
+        return Optional.ofNullable(file);
+    }
+
+    public InputStream openInputStream() throws IOException {
+        if (inputStreamSupplier == null) {
+            throw new IOException(String.format("No content is available for %s", name));
+        }
+        return inputStreamSupplier.open();
+    }
+
+    @FunctionalInterface
+    public interface InputStreamSupplier {
+        InputStream open() throws IOException;
+
+    }
+
+}
@@ -0,0 +1,406 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory.scan;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.blackducksoftware.integration.exception.IntegrationException;
+import com.blackducksoftware.integration.hub.artifactory.BlackDuckArtifactoryConfig;
+import com.blackducksoftware.integration.log.IntLogger;
+
+public class ArtifactStager {
+    public static final String STAGING_DIRECTORY_PREFIX = "staging-";
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final IntLogger intLogger;
+    private final File binariesDirectory;
+    private final long diskBudgetBytes;
+    private final int concurrency;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition diskUsageReleased = lock.newCondition();
+    private final Map<StagingMethod, Long> stagingMethodCounts = new EnumMap<>(StagingMethod.class);
+
+    private long diskUsageBytes;
+    private long peakDiskUsageBytes;
+    private long stagedBytes;
+    private long stagingNanos;
+    private long budgetWaitNanos;
+    private long failedCount;
+    private long budgetWaitCount;
+
+    public ArtifactStager(final IntLogger intLogger, final File binariesDirectory, final BlackDuckArtifactoryConfig blackDuckArtifactoryConfig) {
+        this(intLogger, binariesDirectory, blackDuckArtifactoryConfig.getSnapshot().getScanPluginConfig().getStagingDiskBudgetBytes(), blackDuckArtifactoryConfig.getSnapshot().getScanPluginConfig().getStagingConcurrency());
+    }
+
+    public ArtifactStager(final IntLogger intLogger, final File binariesDirectory, final long diskBudgetBytes, final int concurrency) {
+        this.intLogger = intLogger;
+        this.binariesDirectory = binariesDirectory;
+        this.diskBudgetBytes = Math.max(0, diskBudgetBytes);
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    public StagedArtifact stage(final ArtifactSource artifactSource) throws IntegrationException {
+        final long startedAtNanos = System.nanoTime();
+        long waitedNanos = 0;
+        Path stagingDirectory = null;
+        long reservedBytes = 0;
+        try {
+            final Optional<File> sourceFile = artifactSource.getFile();
+            if (!sourceFile.isPresent()) {
+                if (artifactSource.getSize() < 0) {
+                    throw new IOException(String.format("The size of %s is unknown, so it cannot be staged within the disk budget", artifactSource.getName()));
+                }
+                waitedNanos += reserveDiskUsage(artifactSource.getSize());
+                reservedBytes = artifactSource.getSize();
+            }
+
+            Files.createDirectories(binariesDirectory.toPath());
+            stagingDirectory = Files.createTempDirectory(binariesDirectory.toPath(), STAGING_DIRECTORY_PREFIX);
+            final Path stagedPath = stagingDirectory.resolve(Paths.get(artifactSource.getName()).getFileName().toString());
+
+            StagingMethod stagingMethod = null;
+            if (sourceFile.isPresent() && createLink(sourceFile.get().toPath(), stagedPath)) {
+                stagingMethod = StagingMethod.HARD_LINK;
+            } else if (sourceFile.isPresent()) {
+                final long sourceSize = Files.size(sourceFile.get().toPath());
+                waitedNanos += reserveDiskUsage(sourceSize);
+                reservedBytes = sourceSize;
+                transfer(sourceFile.get().toPath(), stagedPath);
+                stagingMethod = StagingMethod.TRANSFER;
+            } else {
+                copy(artifactSource, stagedPath);
+                stagingMethod = StagingMethod.STREAM;
+            }
+
+            recordStaged(stagingMethod, Files.size(stagedPath), System.nanoTime() - startedAtNanos - waitedNanos, waitedNanos);
+            return new StagedArtifact(this, artifactSource, stagedPath.toFile(), stagingMethod, reservedBytes);
+        } catch (final IOException | RuntimeException e) {
+            releaseDiskUsage(reservedBytes);
+            deleteStagingDirectory(stagingDirectory);
+            throw new IntegrationException(String.format("Could not stage %s in %s: %s", artifactSource.getName(), binariesDirectory.getAbsolutePath(), e.getMessage()), e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            deleteStagingDirectory(stagingDirectory);
+            throw new IntegrationException(String.format("Interrupted while waiting for disk space to stage %s", artifactSource.getName()), e);
+        }
+    }
+
+    public boolean stageAndProcess(final ArtifactSource artifactSource, final StagedArtifactProcessor stagedArtifactProcessor) {
+        try (StagedArtifact stagedArtifact = stage(artifactSource)) {
+            stagedArtifactProcessor.process(stagedArtifact);
+            return true;
+        } catch (final IntegrationException | RuntimeException e) {
+            recordFailure();
+            intLogger.error(String.format("Could not process %s: %s", artifactSource.getName(), e.getMessage()));
+            intLogger.debug(e.getMessage(), e);
+            return false;
+        }
+    }
+
+    public int stageAndProcess(final List<ArtifactSource> artifactSources, final StagedArtifactProcessor stagedArtifactProcessor) {
+        if (concurrency == 1 || artifactSources.size() < 2) {
+            int processedCount = 0;
+            for (final ArtifactSource artifactSource : artifactSources) {
+                if (stageAndProcess(artifactSource, stagedArtifactProcessor)) {
+                    processedCount++;
+                }
+            }
+            return processedCount;
+        }
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(Math.min(concurrency, artifactSources.size()), runnable -> {
+            final Thread thread = new Thread(runnable, "blackduck-artifact-stager");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final List<Future<Boolean>> futures = new ArrayList<>(artifactSources.size());
+        try {
+            for (final ArtifactSource artifactSource : artifactSources) {
+                futures.add(executorService.submit(() -> stageAndProcess(artifactSource, stagedArtifactProcessor)));
+            }
+
+            int processedCount = 0;
+            for (final Future<Boolean> future : futures) {
+                if (future.get()) {
+                    processedCount++;
+                }
+            }
+            return processedCount;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the staged artifacts to be processed", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    public int deleteStaleStagingDirectories() {
+        int deletedCount = 0;
+        if (!binariesDirectory.isDirectory()) {
+            return deletedCount;
+        }
+
+        try (DirectoryStream<Path> stagingDirectories = Files.newDirectoryStream(binariesDirectory.toPath(), STAGING_DIRECTORY_PREFIX + "*")) {
+            for (final Path stagingDirectory : stagingDirectories) {
+                if (deleteStagingDirectory(stagingDirectory)) {
+                    deletedCount++;
+                }
+            }
+        } catch (final IOException e) {
+            intLogger.error(String.format("Could not list the staging directories in %s: %s", binariesDirectory.getAbsolutePath(), e.getMessage()));
+            intLogger.debug(e.getMessage(), e);
+        }
+        return deletedCount;
+    }
+
+    public long getDiskBudgetBytes() {
+        return diskBudgetBytes;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public long getDiskUsageBytes() {
+        lock.lock();
+        try {
+            return diskUsageBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getPeakDiskUsageBytes() {
+        lock.lock();
+        try {
+            return peakDiskUsageBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getStagedCount(final StagingMethod stagingMethod) {
+        lock.lock();
+        try {
+            return stagingMethodCounts.getOrDefault(stagingMethod, 0L);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getStagedBytes() {
+        lock.lock();
+        try {
+            return stagedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getBudgetWaitMillis() {
+        lock.lock();
+        try {
+            return TimeUnit.NANOSECONDS.toMillis(budgetWaitNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getFailedCount() {
+        lock.lock();
+        try {
+            return failedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getSummary() {
+        lock.lock();
+        try {
+            final long stagedCount = stagingMethodCounts.values().stream().mapToLong(Long::longValue).sum();
+            final double averageMillis = stagedCount > 0 ? TimeUnit.NANOSECONDS.toMicros(stagingNanos) / 1000.0 / stagedCount : 0;
+            return String.format("Artifact staging: %d staged (%d hard linked, %d transferred, %d streamed), %d bytes in %.1f ms on average, %d failed, peak disk usage %d bytes (budget %s), %d stages waited %d ms in total for disk space",
+                    stagedCount, stagingMethodCounts.getOrDefault(StagingMethod.HARD_LINK, 0L), stagingMethodCounts.getOrDefault(StagingMethod.TRANSFER, 0L), stagingMethodCounts.getOrDefault(StagingMethod.STREAM, 0L), stagedBytes,
+                    averageMillis, failedCount, peakDiskUsageBytes, diskBudgetBytes > 0 ? diskBudgetBytes + " bytes" : "unlimited", budgetWaitCount, TimeUnit.NANOSECONDS.toMillis(budgetWaitNanos));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void unstage(final StagedArtifact stagedArtifact) {
+        try {
+            deleteStagingDirectory(stagedArtifact.getStagedFile().toPath().getParent());
+        } finally {
+            releaseDiskUsage(stagedArtifact.getReservedBytes());
+        }
+    }
+
+    private boolean createLink(final Path sourcePath, final Path stagedPath) {
+        try {
+            Files.createLink(stagedPath, sourcePath);
+            return true;
+        } catch (final IOException | UnsupportedOperationException e) {
+            intLogger.debug(String.format("Could not hard link %s, falling back to a channel transfer: %s", sourcePath, e.getMessage()));
+            return false;
+        }
+    }
+
+    private void transfer(final Path sourcePath, final Path stagedPath) throws IOException {
+        try (FileChannel sourceChannel = FileChannel.open(sourcePath, StandardOpenOption.READ);
+                FileChannel stagedChannel = FileChannel.open(stagedPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            final long size = sourceChannel.size();
+            long position = 0;
+            while (position < size) {
+                final long transferred = sourceChannel.transferTo(position, size - position, stagedChannel);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+            }
+            if (position < size) {
+                throw new IOException(String.format("Only %d of %d bytes of %s could be transferred", position, size, sourcePath));
+            }
+        }
+    }
+
+    private void copy(final ArtifactSource artifactSource, final Path stagedPath) throws IOException {
+        try (InputStream inputStream = artifactSource.openInputStream();
+                OutputStream outputStream = Files.newOutputStream(stagedPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            final byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            long copiedBytes = 0;
+            int readBytes;
+            while ((readBytes = inputStream.read(buffer)) != -1) {
+                copiedBytes += readBytes;
+                if (copiedBytes > artifactSource.getSize()) {
+                    throw new IOException(String.format("%s is larger than its declared size of %d bytes", artifactSource.getName(), artifactSource.getSize()));
+                }
+                outputStream.write(buffer, 0, readBytes);
+            }
+        }
+    }
+
+    private long reserveDiskUsage(final long bytes) throws InterruptedException {
+        final long startedAtNanos = System.nanoTime();
+        lock.lock();
+        try {
+            if (diskBudgetBytes > 0 && diskUsageBytes > 0 && diskUsageBytes + bytes > diskBudgetBytes) {
+                budgetWaitCount++;
+                while (diskUsageBytes > 0 && diskUsageBytes + bytes > diskBudgetBytes) {
+                    diskUsageReleased.await();
+                }
+            }
+            diskUsageBytes += bytes;
+            peakDiskUsageBytes = Math.max(peakDiskUsageBytes, diskUsageBytes);
+            return System.nanoTime() - startedAtNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseDiskUsage(final long bytes) {
+        if (bytes <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            diskUsageBytes -= bytes;
+            diskUsageReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recordStaged(final StagingMethod stagingMethod, final long bytes, final long nanos, final long waitedNanos) {
+        lock.lock();
+        try {
+            stagingMethodCounts.merge(stagingMethod, 1L, Long::sum);
+            stagedBytes += bytes;
+            stagingNanos += nanos;
+            budgetWaitNanos += waitedNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recordFailure() {
+        lock.lock();
+        try {
+            failedCount++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean deleteStagingDirectory(final Path stagingDirectory) {
+        if (stagingDirectory == null) {
+            return false;
+        }
+        try {
+            if (Files.isDirectory(stagingDirectory)) {
+                try (DirectoryStream<Path> stagedPaths = Files.newDirectoryStream(stagingDirectory)) {
+                    for (final Path stagedPath : stagedPaths) {
+                        Files.deleteIfExists(stagedPath);
+                    }
+                }
+            }
+            return Files.deleteIfExists(stagingDirectory);
+        } catch (final IOException e) {
+            intLogger.error(String.format("Could not delete the staging directory %s: %s", stagingDirectory, e.getMessage()));
+            intLogger.debug(e.getMessage(), e);
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,150 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory.scan;
+
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import com.blackducksoftware.integration.hub.artifactory.BlackDuckArtifactoryConfigSnapshot;
+
+public class ScanPluginConfig {
+    public static final String DEFAULT_DATE_TIME_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSS";
+    public static final long DEFAULT_CLUSTER_LEASE_TTL_SECONDS = 300;
+    public static final int DEFAULT_STAGING_CONCURRENCY = 1;
+
+    private final List<String> repos;
+    private final Optional<String> reposCsvPath;
+    private final List<String> namePatterns;
+    private final Optional<String> binariesDirectoryPath;
+    private final Optional<String> cutoffDate;
+    private final String dateTimePattern;
+    private final DateTimeFormatter dateTimeFormatter;
+    private final boolean cronLogVerbose;
+    private final boolean dryRun;
+    private final boolean repoPathCodelocation;
+    private final Optional<String> memory;
+    private final String scanCron;
+    private final String addPolicyStatusCron;
+    private final Optional<String> clusterLeaseDirectory;
+    private final long clusterLeaseTtlMillis;
+    private final int stagingConcurrency;
+    private final long stagingDiskBudgetBytes;
+
+    public ScanPluginConfig(final BlackDuckArtifactoryConfigSnapshot snapshot) {
+        repos = snapshot.getList(ScanPluginProperty.REPOS);
+        reposCsvPath = snapshot.getOptionalString(ScanPluginProperty.REPOS_CSV_PATH);
+        namePatterns = snapshot.getList(ScanPluginProperty.NAME_PATTERNS);
+        binariesDirectoryPath = snapshot.getOptionalString(ScanPluginProperty.BINARIES_DIRECTORY_PATH);
+        cutoffDate = snapshot.getOptionalString(ScanPluginProperty.CUTOFF_DATE);
+        String validDateTimePattern = snapshot.getString(ScanPluginProperty.DATE_TIME_PATTERN, DEFAULT_DATE_TIME_PATTERN);
+        try {
+            DateTimeFormatter.ofPattern(validDateTimePattern);
+        } catch (final IllegalArgumentException e) {
+            validDateTimePattern = snapshot.rejectInvalidValue(String.format("%s is not a valid date time pattern: %s", ScanPluginProperty.DATE_TIME_PATTERN.getKey(), e.getMessage()), e, DEFAULT_DATE_TIME_PATTERN);
+        }
+        dateTimePattern = validDateTimePattern;
+        dateTimeFormatter = DateTimeFormatter.ofPattern(dateTimePattern);
+        cronLogVerbose = snapshot.getBoolean(ScanPluginProperty.CRON_LOG_VERBOSE, false);
+        dryRun = snapshot.getBoolean(ScanPluginProperty.DRY_RUN, false);
+        repoPathCodelocation = snapshot.getBoolean(ScanPluginProperty.REPO_PATH_CODELOCATION, true);
+        memory = snapshot.getOptionalString(ScanPluginProperty.MEMORY);
+        scanCron = snapshot.getProperty(ScanPluginProperty.SCAN_CRON);
+        addPolicyStatusCron = snapshot.getProperty(ScanPluginProperty.ADD_POLICY_STATUS_CRON);
+        clusterLeaseDirectory = snapshot.getOptionalString(ScanPluginProperty.CLUSTER_LEASE_DIRECTORY);
+        clusterLeaseTtlMillis = TimeUnit.SECONDS.toMillis(snapshot.getLong(ScanPluginProperty.CLUSTER_LEASE_TTL_SECONDS, DEFAULT_CLUSTER_LEASE_TTL_SECONDS));
+        stagingConcurrency = Math.max(1, snapshot.getInt(ScanPluginProperty.STAGING_CONCURRENCY, DEFAULT_STAGING_CONCURRENCY));
+        stagingDiskBudgetBytes = Math.max(0, snapshot.getLong(ScanPluginProperty.STAGING_DISK_BUDGET_MB, 0)) * 1024 * 1024;
+    }
+
+    public List<String> getRepos() {
+        return repos;
+    }
+
+    public Optional<String> getReposCsvPath() {
+        return reposCsvPath;
+    }
+
+    public List<String> getNamePatterns() {
+        return namePatterns;
+    }
+
+    public Optional<String> getBinariesDirectoryPath() {
+        return binariesDirectoryPath;
+    }
+
+    public Optional<String> getCutoffDate() {
+        return cutoffDate;
+    }
+
+    public String getDateTimePattern() {
+        return dateTimePattern;
+    }
+
+    public DateTimeFormatter getDateTimeFormatter() {
+        return dateTimeFormatter;
+    }
+
+    public boolean isCronLogVerbose() {
+        return cronLogVerbose;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public boolean isRepoPathCodelocation() {
+        return repoPathCodelocation;
+    }
+
+    public Optional<String> getMemory() {
+        return memory;
+    }
+
+    public String getScanCron() {
+        return scanCron;
+    }
+
+    public String getAddPolicyStatusCron() {
+        return addPolicyStatusCron;
+    }
+
+    public Optional<String> getClusterLeaseDirectory() {
+        return clusterLeaseDirectory;
+    }
+
+    public long getClusterLeaseTtlMillis() {
+        return clusterLeaseTtlMillis;
+    }
+
+    public int getStagingConcurrency() {
+        return stagingConcurrency;
+    }
+
+    public long getStagingDiskBudgetBytes() {
+        return stagingDiskBudgetBytes;
+    }
+
+}
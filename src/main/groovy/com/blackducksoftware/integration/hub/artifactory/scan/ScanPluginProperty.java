@@ -28,6 +28,8 @@ import com.blackducksoftware.integration.hub.artifactory.ConfigurationProperty;
 public enum ScanPluginProperty implements ConfigurationProperty {
     ADD_POLICY_STATUS_CRON("add.policy.status.cron"),
     BINARIES_DIRECTORY_PATH("binaries.directory.path"),
+    CLUSTER_LEASE_DIRECTORY("cluster.lease.directory"),
+    CLUSTER_LEASE_TTL_SECONDS("cluster.lease.ttl.seconds"),
     CUTOFF_DATE("cutoff.date"),
     CRON_LOG_VERBOSE("cron.log.verbose"),
     DATE_TIME_PATTERN("date.time.pattern"),
@@ -37,6 +39,8 @@ public enum ScanPluginProperty implements ConfigurationProperty {
     REPO_PATH_CODELOCATION("repo.path.codelocation"),
     REPOS("repos"),
     REPOS_CSV_PATH("repos.csv.path"),
+    STAGING_CONCURRENCY("staging.concurrency"),
+    STAGING_DISK_BUDGET_MB("staging.disk.budget.mb"),
     SCAN_CRON("cron");
 
     private final String key;
@@ -0,0 +1,69 @@
+/**
+ * hub-artifactory-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.hub.artifactory.scan;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class StagedArtifact implements Closeable {
+    private final ArtifactStager artifactStager;
+    private final ArtifactSource artifactSource;
+    private final File stagedFile;
+    private final StagingMethod stagingMethod;
+    private final long reservedBytes;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    StagedArtifact(final ArtifactStager artifactStager, final ArtifactSource artifactSource, final File stagedFile, final StagingMethod stagingMethod, final long reservedBytes) {
+        this.artifactStager = artifactStager;
+        this.artifactSource = artifactSource;
+        this.stagedFile = stagedFile;
+        this.stagingMethod = stagingMethod;
+        this.reservedBytes = reservedBytes;
+    }
+
+    public ArtifactSource getArtifactSource() {
+        return artifactSource;
+    }
+
+    public File getStagedFile() {
+        return stagedFile;
+    }
+
+    public StagingMethod getStagingMethod() {
+        return stagingMethod;
+    }
+
+    long getReservedBytes() {
+        return reservedBytes;
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            artifactStager.unstage(this);
+        }
+    }
+
+}
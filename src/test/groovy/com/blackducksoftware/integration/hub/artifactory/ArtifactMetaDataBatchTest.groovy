@@ -0,0 +1,76 @@
+package com.blackducksoftware.integration.hub.artifactory
+
+import org.junit.Assert
+import org.junit.Test
+
+import com.blackducksoftware.integration.hub.api.generated.enumeration.PolicyStatusApprovalStatusType
+import com.blackducksoftware.integration.hub.api.generated.view.ProjectVersionView
+import com.blackducksoftware.integration.log.LogLevel
+import com.blackducksoftware.integration.log.PrintStreamIntLogger
+
+class ArtifactMetaDataBatchTest {
+    private static final String PROJECT_VERSION_URI = FakeHubService.HUB_URL + '/api/projects/project/versions/version'
+
+    @Test
+    void testBatchRoundTripsArtifactMetaData() {
+        List<ArtifactMetaData> artifactMetaData = (0..<100).collect { int i ->
+            ArtifactMetaData metaData = new ArtifactMetaData()
+            metaData.repoKey = "repo-${i % 2}".toString()
+            metaData.forge = i % 3 == 0 ? 'maven' : 'npm'
+            metaData.originId = "origin-${i}".toString()
+            metaData.componentVersionLink = i == 5 ? null : "${FakeHubService.HUB_URL}/api/components/${i % 10}/versions/1".toString()
+            metaData.highSeverityCount = i
+            metaData.mediumSeverityCount = i * 2
+            metaData.lowSeverityCount = i * 3
+            metaData.policyStatus = i % 4 == 0 ? null : PolicyStatusApprovalStatusType.values()[i % PolicyStatusApprovalStatusType.values().length]
+            metaData
+        }
+
+        ArtifactMetaDataBatch artifactMetaDataBatch = ArtifactMetaDataBatch.of(artifactMetaData)
+
+        Assert.assertEquals(100, artifactMetaDataBatch.size())
+        Assert.assertEquals(2, artifactMetaDataBatch.getRepoKeyCount())
+        Assert.assertEquals(2, artifactMetaDataBatch.getForgeCount())
+        Assert.assertEquals(10, artifactMetaDataBatch.getComponentVersionLinkCount())
+        Assert.assertEquals(artifactMetaData, artifactMetaDataBatch.toList())
+        Assert.assertEquals(artifactMetaData.get(7).getPropertyValues(), artifactMetaDataBatch.view(7).getPropertyValues())
+        Assert.assertEquals(artifactMetaData.get(5), artifactMetaDataBatch.get(5))
+        Assert.assertEquals('maven:origin-3', artifactMetaDataBatch.view(3).getKey())
+    }
+
+    @Test
+    void testForEachReusesOneView() {
+        ArtifactMetaDataBatch artifactMetaDataBatch = new ArtifactMetaDataBatch(1)
+        (0..<3).each { artifactMetaDataBatch.add('repo', 'maven', "origin-${it}".toString(), null, it, 0, 0, PolicyStatusApprovalStatusType.NOT_IN_VIOLATION) }
+
+        Set<ArtifactMetaDataBatch.View> views = Collections.newSetFromMap(new IdentityHashMap<>())
+        List<String> originIds = []
+        artifactMetaDataBatch.forEach { ArtifactMetaDataBatch.View view ->
+            views.add(view)
+            originIds.add(view.getOriginId())
+        }
+
+        Assert.assertEquals(1, views.size())
+        Assert.assertEquals(['origin-0', 'origin-1', 'origin-2'], originIds)
+        try {
+            artifactMetaDataBatch.view(3)
+            Assert.fail('A view past the end of the batch should not be created')
+        } catch (IndexOutOfBoundsException e) {
+        }
+    }
+
+    @Test
+    void testMetaDataBatchFromBom() {
+        FakeHubService hubService = new FakeHubService()
+        ProjectVersionView projectVersionView = FakeHubService.projectVersion(PROJECT_VERSION_URI)
+        (0..<3).each { hubService.addComponent(PROJECT_VERSION_URI, it, 2, ['HIGH', 'LOW']) }
+        ArtifactMetaDataManager artifactMetaDataManager = new ArtifactMetaDataManager(new PrintStreamIntLogger(System.out, LogLevel.OFF))
+
+        ArtifactMetaDataBatch artifactMetaDataBatch = artifactMetaDataManager.getMetaDataBatch('repo', hubService, projectVersionView)
+        List<ArtifactMetaData> artifactMetaData = artifactMetaDataManager.getMetaData('repo', hubService, projectVersionView)
+
+        Assert.assertEquals(artifactMetaData.sort { it.getKey() }, artifactMetaDataBatch.toList().sort { it.getKey() })
+        Assert.assertEquals(1, artifactMetaDataBatch.getRepoKeyCount())
+    }
+
+}
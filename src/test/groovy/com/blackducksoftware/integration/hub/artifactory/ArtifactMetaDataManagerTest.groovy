@@ -0,0 +1,261 @@
+package com.blackducksoftware.integration.hub.artifactory
+
+import java.util.concurrent.ConcurrentHashMap
+
+import org.junit.Assert
+import org.junit.Test
+
+import com.blackducksoftware.integration.hub.api.generated.component.RiskCountView
+import com.blackducksoftware.integration.hub.api.generated.enumeration.RiskCountType
+import com.blackducksoftware.integration.hub.api.generated.response.VersionRiskProfileView
+import com.blackducksoftware.integration.hub.api.generated.view.ProjectVersionView
+import com.blackducksoftware.integration.hub.api.generated.view.RiskProfileView
+import com.blackducksoftware.integration.hub.api.generated.view.VersionBomComponentView
+import com.blackducksoftware.integration.hub.api.generated.view.VersionBomPolicyStatusView
+import com.blackducksoftware.integration.hub.artifactory.inspect.InspectPluginConfig
+import com.blackducksoftware.integration.hub.artifactory.inspect.InspectPluginProperty
+import com.blackducksoftware.integration.hub.artifactory.model.ComponentDataCache
+import com.blackducksoftware.integration.hub.artifactory.model.HubCallExecutor
+import com.blackducksoftware.integration.hub.artifactory.model.HubCallType
+import com.blackducksoftware.integration.log.LogLevel
+import com.blackducksoftware.integration.log.PrintStreamIntLogger
+
+class ArtifactMetaDataManagerTest {
+    private static final String PROJECT_VERSION_URI = FakeHubService.HUB_URL + '/api/projects/project/versions/version'
+
+    @Test
+    void testHubCallsAreRecordedByEndpoint() {
+        FakeHubService hubService = new FakeHubService()
+        ProjectVersionView projectVersionView = FakeHubService.projectVersion(PROJECT_VERSION_URI)
+        List<VersionBomComponentView> versionBomComponentViews = (0..<3).collect { hubService.addComponent(PROJECT_VERSION_URI, it, 1, ['HIGH']) }
+        hubService.failingUris.add(versionBomComponentViews.get(2).componentVersion + '/origins')
+        File blackDuckDirectory = File.createTempDir()
+        SummaryFileHubMetrics summaryFileHubMetrics = new SummaryFileHubMetrics(new PrintStreamIntLogger(System.out, LogLevel.OFF), blackDuckDirectory, 0)
+        ArtifactMetaDataManager artifactMetaDataManager = new ArtifactMetaDataManager(new PrintStreamIntLogger(System.out, LogLevel.OFF), InspectPluginConfig.defaults(), new ComponentDataCache(),
+                new HubCallExecutor(summaryFileHubMetrics))
+
+        artifactMetaDataManager.getMetaData('repo', hubService, projectVersionView)
+        artifactMetaDataManager.getMetaData('repo', hubService, projectVersionView)
+        summaryFileHubMetrics.close()
+
+        Assert.assertEquals(2, summaryFileHubMetrics.getCallCount(HubCallType.BOM_PAGE))
+        Assert.assertEquals(4, summaryFileHubMetrics.getCallCount(HubCallType.COMPONENT_VERSION))
+        Assert.assertEquals(2, summaryFileHubMetrics.getCacheHitCount(HubCallType.COMPONENT_VERSION))
+        Assert.assertEquals(4, summaryFileHubMetrics.getCallCount(HubCallType.ORIGINS))
+        Assert.assertEquals(2, summaryFileHubMetrics.getErrorCount(HubCallType.ORIGINS))
+        Assert.assertEquals(2, summaryFileHubMetrics.getCallCount(HubCallType.VULNERABILITIES))
+        Assert.assertEquals(2, summaryFileHubMetrics.getCacheHitCount(HubCallType.VULNERABILITIES))
+        Assert.assertEquals(2L, summaryFileHubMetrics.getLatencyHistogram(HubCallType.BOM_PAGE).sum())
+        Assert.assertTrue(summaryFileHubMetrics.getSummaryFile().text.contains('COMPONENT_VERSION'))
+        blackDuckDirectory.deleteDir()
+    }
+
+    @Test
+    void testConcurrentCallersShareOneComputation() {
+        FakeHubService hubService = new FakeHubService()
+        hubService.latencyMillis = 100
+        ProjectVersionView projectVersionView = FakeHubService.projectVersion(PROJECT_VERSION_URI)
+        (0..<2).each { hubService.addComponent(PROJECT_VERSION_URI, it, 1, ['HIGH']) }
+        ArtifactMetaDataManager artifactMetaDataManager = new ArtifactMetaDataManager(new PrintStreamIntLogger(System.out, LogLevel.OFF))
+
+        Map<String, List<ArtifactMetaData>> repoKeyToArtifactMetaData = new ConcurrentHashMap<>()
+        Thread first = Thread.start { repoKeyToArtifactMetaData.put('repo1', artifactMetaDataManager.getMetaData('repo1', hubService, projectVersionView)) }
+        while (hubService.requestCount(PROJECT_VERSION_URI + '/components') == 0) {
+            Thread.sleep(5)
+        }
+        Thread second = Thread.start { repoKeyToArtifactMetaData.put('repo2', artifactMetaDataManager.getMetaData('repo2', hubService, projectVersionView)) }
+        first.join()
+        second.join()
+
+        Assert.assertEquals(1, hubService.requestCount(PROJECT_VERSION_URI + '/components'))
+        Assert.assertEquals(2, repoKeyToArtifactMetaData.get('repo1').size())
+        Assert.assertEquals(2, repoKeyToArtifactMetaData.get('repo2').size())
+        Assert.assertTrue(repoKeyToArtifactMetaData.get('repo1').every { it.repoKey == 'repo1' })
+        Assert.assertTrue(repoKeyToArtifactMetaData.get('repo2').every { it.repoKey == 'repo2' })
+        Assert.assertNotSame(repoKeyToArtifactMetaData.get('repo1').get(0), repoKeyToArtifactMetaData.get('repo2').get(0))
+    }
+
+    @Test
+    void testFinishedMetaDataIsReusedOnlyWithinReuseWindow() {
+        FakeHubService hubService = new FakeHubService()
+        ProjectVersionView projectVersionView = FakeHubService.projectVersion(PROJECT_VERSION_URI)
+        hubService.addComponent(PROJECT_VERSION_URI, 0, 1, ['HIGH'])
+
+        ArtifactMetaDataManager reusingManager = new ArtifactMetaDataManager(new PrintStreamIntLogger(System.out, LogLevel.OFF), inspectPluginConfig([(InspectPluginProperty.METADATA_REUSE_SECONDS): '60']),
+                new ComponentDataCache(), new HubCallExecutor())
+        reusingManager.getMetaData('repo1', hubService, projectVersionView)
+        List<ArtifactMetaData> reused = reusingManager.getMetaData('repo2', hubService, projectVersionView)
+        Assert.assertEquals(1, hubService.requestCount(PROJECT_VERSION_URI + '/components'))
+        Assert.assertEquals('repo2', reused.get(0).repoKey)
+
+        ArtifactMetaDataManager artifactMetaDataManager = new ArtifactMetaDataManager(new PrintStreamIntLogger(System.out, LogLevel.OFF))
+        artifactMetaDataManager.getMetaData('repo1', hubService, projectVersionView)
+        artifactMetaDataManager.getMetaData('repo2', hubService, projectVersionView)
+        Assert.assertEquals(3, hubService.requestCount(PROJECT_VERSION_URI + '/components'))
+    }
+
+    @Test
+    void testVulnerabilitiesAreCountedOncePerComponentVersion() {
+        FakeHubService hubService = new FakeHubService()
+        ProjectVersionView projectVersionView = FakeHubService.projectVersion(PROJECT_VERSION_URI)
+        VersionBomComponentView versionBomComponentView = hubService.addComponent(PROJECT_VERSION_URI, 0, 5, ['HIGH', 'HIGH', 'MEDIUM', 'LOW', 'OK'])
+        String vulnerabilitiesUri = versionBomComponentView.componentVersion + '/vulnerabilities'
+
+        ArtifactMetaDataManager artifactMetaDataManager = new ArtifactMetaDataManager(new PrintStreamIntLogger(System.out, LogLevel.OFF))
+        List<ArtifactMetaData> artifactMetaData = artifactMetaDataManager.getMetaData('repo', hubService, projectVersionView)
+
+        Assert.assertEquals(5, artifactMetaData.size())
+        Assert.assertEquals(1, hubService.requestCount(vulnerabilitiesUri))
+        artifactMetaData.each {
+            Assert.assertEquals(2, it.highSeverityCount)
+            Assert.assertEquals(1, it.mediumSeverityCount)
+            Assert.assertEquals(1, it.lowSeverityCount)
+        }
+    }
+
+    @Test
+    void testVulnerabilityCountsAreReusedAcrossCalls() {
+        FakeHubService hubService = new FakeHubService()
+        ProjectVersionView projectVersionView = FakeHubService.projectVersion(PROJECT_VERSION_URI)
+        VersionBomComponentView versionBomComponentView = hubService.addComponent(PROJECT_VERSION_URI, 0, 2, ['HIGH'])
+        String vulnerabilitiesUri = versionBomComponentView.componentVersion + '/vulnerabilities'
+
+        ArtifactMetaDataManager artifactMetaDataManager = new ArtifactMetaDataManager(new PrintStreamIntLogger(System.out, LogLevel.OFF), InspectPluginConfig.defaults(), new ComponentDataCache(), new HubCallExecutor())
+        artifactMetaDataManager.getMetaData('repo1', hubService, projectVersionView)
+        List<ArtifactMetaData> artifactMetaData = artifactMetaDataManager.getMetaData('repo2', hubService, projectVersionView)
+
+        Assert.assertEquals(1, hubService.requestCount(vulnerabilitiesUri))
+        Assert.assertEquals(1, artifactMetaData.get(0).highSeverityCount)
+        Assert.assertEquals('repo2', artifactMetaData.get(0).repoKey)
+    }
+
+    @Test
+    void testSeverityCountsFromSecurityRiskProfile() {
+        FakeHubService hubService = new FakeHubService()
+        ProjectVersionView projectVersionView = FakeHubService.projectVersion(PROJECT_VERSION_URI)
+        VersionBomComponentView profiledComponent = hubService.addComponent(PROJECT_VERSION_URI, 0, 1, ['HIGH'])
+        profiledComponent.securityRiskProfile = new RiskProfileView()
+        profiledComponent.securityRiskProfile.counts = [
+            riskCount(RiskCountType.HIGH, 3),
+            riskCount(RiskCountType.MEDIUM, 2),
+            riskCount(RiskCountType.LOW, 1),
+            riskCount(RiskCountType.OK, 7)
+        ]
+        VersionBomComponentView unprofiledComponent = hubService.addComponent(PROJECT_VERSION_URI, 1, 1, ['LOW', 'LOW'])
+
+        ArtifactMetaDataManager artifactMetaDataManager = new ArtifactMetaDataManager(new PrintStreamIntLogger(System.out, LogLevel.OFF), inspectPluginConfig([(InspectPluginProperty.SEVERITY_COUNT_SOURCE): 'SECURITY_RISK_PROFILE']),
+                ComponentDataCache.disabled(), new HubCallExecutor())
+        Map<String, ArtifactMetaData> artifactMetaData = artifactMetaDataManager.getMetaData('repo', hubService, projectVersionView).collectEntries { [it.componentVersionLink, it] }
+
+        Assert.assertEquals(0, hubService.requestCount(profiledComponent.componentVersion + '/vulnerabilities'))
+        Assert.assertEquals(3, artifactMetaData.get(profiledComponent.componentVersion).highSeverityCount)
+        Assert.assertEquals(2, artifactMetaData.get(profiledComponent.componentVersion).mediumSeverityCount)
+        Assert.assertEquals(1, artifactMetaData.get(profiledComponent.componentVersion).lowSeverityCount)
+
+        Assert.assertEquals(1, hubService.requestCount(unprofiledComponent.componentVersion + '/vulnerabilities'))
+        Assert.assertEquals(2, artifactMetaData.get(unprofiledComponent.componentVersion).lowSeverityCount)
+    }
+
+    @Test
+    void testProcessMetaDataPagesThroughBom() {
+        FakeHubService hubService = new FakeHubService()
+        ProjectVersionView projectVersionView = FakeHubService.projectVersion(PROJECT_VERSION_URI)
+        (0..<25).each { hubService.addComponent(PROJECT_VERSION_URI, it, 2, ['LOW']) }
+        hubService.failingUris.add(hubService.multipleResponses.get(PROJECT_VERSION_URI + '/components').get(3).componentVersion)
+
+        ArtifactMetaDataManager artifactMetaDataManager = new ArtifactMetaDataManager(new PrintStreamIntLogger(System.out, LogLevel.OFF))
+        List<ArtifactMetaData> streamedArtifactMetaData = []
+        artifactMetaDataManager.processMetaData('repo', hubService, projectVersionView, 10, { streamedArtifactMetaData.add(it) })
+        Assert.assertEquals(3, hubService.requestCount(PROJECT_VERSION_URI + '/components'))
+        List<ArtifactMetaData> artifactMetaData = artifactMetaDataManager.getMetaData('repo', hubService, projectVersionView)
+
+        Assert.assertEquals(48, streamedArtifactMetaData.size())
+        Assert.assertEquals(artifactMetaData.collect { it.toString() }, streamedArtifactMetaData.collect { it.toString() })
+    }
+
+    @Test
+    void testProcessMetaDataStopsAfterAShortPage() {
+        FakeHubService hubService = new FakeHubService()
+        ProjectVersionView projectVersionView = FakeHubService.projectVersion(PROJECT_VERSION_URI)
+        (0..<20).each { hubService.addComponent(PROJECT_VERSION_URI, it, 1, []) }
+
+        ArtifactMetaDataManager artifactMetaDataManager = new ArtifactMetaDataManager(new PrintStreamIntLogger(System.out, LogLevel.OFF))
+        List<ArtifactMetaData> streamedArtifactMetaData = []
+        artifactMetaDataManager.processMetaData('repo', hubService, projectVersionView, 15, { streamedArtifactMetaData.add(it) })
+
+        Assert.assertEquals(20, streamedArtifactMetaData.size())
+        Assert.assertEquals(2, hubService.requestCount(PROJECT_VERSION_URI + '/components'))
+    }
+
+    @Test
+    void testNotificationsAreFetchedOnceForAllRepos() {
+        FakeHubService hubService = new FakeHubService()
+        FakeNotificationService notificationService = new FakeNotificationService(hubService)
+        String otherProjectVersionUri = FakeHubService.HUB_URL + '/api/projects/project/versions/other'
+        String unmappedProjectVersionUri = FakeHubService.HUB_URL + '/api/projects/project/versions/unmapped'
+        VersionBomComponentView firstComponent = hubService.addComponent(PROJECT_VERSION_URI, 0, 1, [])
+        VersionBomComponentView secondComponent = hubService.addComponent(otherProjectVersionUri, 1, 2, ['HIGH'])
+        VersionBomComponentView unmappedComponent = hubService.addComponent(unmappedProjectVersionUri, 2, 1, [])
+        notificationService.addNotification([
+            FakeNotificationService.vulnerabilityDetail(PROJECT_VERSION_URI, firstComponent.componentVersion),
+            FakeNotificationService.vulnerabilityDetail(otherProjectVersionUri, secondComponent.componentVersion),
+            FakeNotificationService.vulnerabilityDetail(unmappedProjectVersionUri, unmappedComponent.componentVersion)
+        ])
+
+        Map<String, ProjectVersionView> repoKeyToProjectVersionView = [
+            'repo1': FakeHubService.projectVersion(PROJECT_VERSION_URI),
+            'repo2': FakeHubService.projectVersion(otherProjectVersionUri),
+            'repo3': FakeHubService.projectVersion(otherProjectVersionUri)
+        ]
+        ArtifactMetaDataManager artifactMetaDataManager = new ArtifactMetaDataManager(new PrintStreamIntLogger(System.out, LogLevel.OFF))
+        RepoArtifactMetaDataFromNotifications repoArtifactMetaDataFromNotifications = artifactMetaDataManager.getMetaDataFromNotifications(hubService, notificationService, repoKeyToProjectVersionView, new Date(0), new Date())
+
+        Assert.assertEquals(1, notificationService.requestCount.get())
+        Assert.assertEquals(notificationService.latestNotificationDate, repoArtifactMetaDataFromNotifications.getLastNotificationDate().get())
+        Assert.assertEquals(1, repoArtifactMetaDataFromNotifications.getArtifactMetaData('repo1').size())
+        Assert.assertEquals(2, repoArtifactMetaDataFromNotifications.getArtifactMetaData('repo2').size())
+        Assert.assertEquals(['repo3', 'repo3'], repoArtifactMetaDataFromNotifications.getArtifactMetaData('repo3').collect { it.repoKey })
+        Assert.assertEquals(0, hubService.requestCount(unmappedComponent.componentVersion))
+    }
+
+    @Test
+    void testUnchangedProjectVersionIsSkipped() {
+        FakeHubService hubService = new FakeHubService()
+        ProjectVersionView projectVersionView = FakeHubService.projectVersion(PROJECT_VERSION_URI)
+        hubService.addComponent(PROJECT_VERSION_URI, 0, 1, [])
+        VersionRiskProfileView versionRiskProfileView = new VersionRiskProfileView()
+        versionRiskProfileView.bomLastUpdatedAt = new Date(1000)
+        versionRiskProfileView.categories = ['VULNERABILITY': ['HIGH': 1]]
+        hubService.responses.put(PROJECT_VERSION_URI + '/riskProfile', versionRiskProfileView)
+        hubService.responses.put(PROJECT_VERSION_URI + '/policy-status', new VersionBomPolicyStatusView())
+        ProjectVersionFingerprints projectVersionFingerprints = new ProjectVersionFingerprints()
+
+        ArtifactMetaDataManager artifactMetaDataManager = new ArtifactMetaDataManager(new PrintStreamIntLogger(System.out, LogLevel.OFF))
+        Assert.assertTrue(artifactMetaDataManager.getMetaDataIfChanged('repo1', hubService, projectVersionView, projectVersionFingerprints).isPresent())
+        Assert.assertTrue(projectVersionFingerprints.commitFingerprint('repo1', PROJECT_VERSION_URI).isPresent())
+        Assert.assertFalse(artifactMetaDataManager.getMetaDataIfChanged('repo1', hubService, projectVersionView, projectVersionFingerprints).isPresent())
+        Assert.assertTrue(artifactMetaDataManager.getMetaDataIfChanged('repo2', hubService, projectVersionView, projectVersionFingerprints).isPresent())
+        Assert.assertEquals(2, hubService.requestCount(PROJECT_VERSION_URI + '/components'))
+
+        // the properties for repo2 were never written, so its fingerprint was not committed
+        Assert.assertTrue(artifactMetaDataManager.getMetaDataIfChanged('repo2', hubService, projectVersionView, projectVersionFingerprints).isPresent())
+        projectVersionFingerprints.discardPendingFingerprint('repo2', PROJECT_VERSION_URI)
+        Assert.assertFalse(projectVersionFingerprints.commitFingerprint('repo2', PROJECT_VERSION_URI).isPresent())
+
+        versionRiskProfileView.categories = ['VULNERABILITY': ['HIGH': 2]]
+        Assert.assertTrue(artifactMetaDataManager.getMetaDataIfChanged('repo1', hubService, projectVersionView, projectVersionFingerprints).isPresent())
+    }
+
+    private RiskCountView riskCount(RiskCountType countType, int count) {
+        RiskCountView riskCountView = new RiskCountView()
+        riskCountView.countType = countType
+        riskCountView.count = count
+        return riskCountView
+    }
+
+    private InspectPluginConfig inspectPluginConfig(Map<InspectPluginProperty, String> values) {
+        Properties properties = new Properties()
+        values.each { property, value -> properties.setProperty(property.getKey(), value) }
+        return new BlackDuckArtifactoryConfigSnapshot(properties).getInspectPluginConfig()
+    }
+}
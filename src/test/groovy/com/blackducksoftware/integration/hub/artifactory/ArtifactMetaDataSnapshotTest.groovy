@@ -0,0 +1,55 @@
+package com.blackducksoftware.integration.hub.artifactory
+
+import org.junit.Assert
+import org.junit.Test
+
+import com.blackducksoftware.integration.hub.api.generated.enumeration.PolicyStatusApprovalStatusType
+
+class ArtifactMetaDataSnapshotTest {
+    @Test
+    void testDiffReportsAddedChangedAndRemoved() {
+        ArtifactMetaDataSnapshot artifactMetaDataSnapshot = new ArtifactMetaDataSnapshot([
+            artifactMetaData('unchanged', 1, PolicyStatusApprovalStatusType.NOT_IN_VIOLATION),
+            artifactMetaData('changed', 1, PolicyStatusApprovalStatusType.NOT_IN_VIOLATION),
+            artifactMetaData('removed', 1, PolicyStatusApprovalStatusType.NOT_IN_VIOLATION)
+        ])
+
+        List<ArtifactMetaData> currentArtifactMetaData = [
+            artifactMetaData('unchanged', 1, PolicyStatusApprovalStatusType.NOT_IN_VIOLATION),
+            artifactMetaData('changed', 2, PolicyStatusApprovalStatusType.IN_VIOLATION),
+            artifactMetaData('added', 0, null)
+        ]
+        ArtifactMetaDataDelta artifactMetaDataDelta = artifactMetaDataSnapshot.diff(currentArtifactMetaData)
+
+        Assert.assertEquals(['added'], artifactMetaDataDelta.getAdded().collect { it.originId })
+        Assert.assertEquals(['removed'], artifactMetaDataDelta.getRemoved().collect { it.originId })
+        Assert.assertEquals(1, artifactMetaDataDelta.getChanged().size())
+        Assert.assertEquals(EnumSet.of(BlackDuckArtifactoryProperty.HIGH_VULNERABILITIES, BlackDuckArtifactoryProperty.POLICY_STATUS), artifactMetaDataDelta.getChanged().get(0).getChangedProperties())
+        Assert.assertTrue(artifactMetaDataSnapshot.diffUpdates(currentArtifactMetaData).getRemoved().isEmpty())
+
+        artifactMetaDataSnapshot.apply(artifactMetaDataDelta)
+
+        Assert.assertTrue(artifactMetaDataSnapshot.diff(currentArtifactMetaData).isEmpty())
+        Assert.assertEquals(3, artifactMetaDataSnapshot.size())
+    }
+
+    @Test
+    void testClearedPolicyStatusIsReportedAsChanged() {
+        ArtifactMetaDataSnapshot artifactMetaDataSnapshot = new ArtifactMetaDataSnapshot([artifactMetaData('cleared', 1, PolicyStatusApprovalStatusType.IN_VIOLATION)])
+
+        ArtifactMetaDataDelta artifactMetaDataDelta = artifactMetaDataSnapshot.diff([artifactMetaData('cleared', 1, null)])
+
+        Assert.assertEquals(EnumSet.of(BlackDuckArtifactoryProperty.POLICY_STATUS), artifactMetaDataDelta.getChanged().get(0).getChangedProperties())
+    }
+
+    private ArtifactMetaData artifactMetaData(String originId, int highSeverityCount, PolicyStatusApprovalStatusType policyStatus) {
+        ArtifactMetaData artifactMetaData = new ArtifactMetaData()
+        artifactMetaData.repoKey = 'repo'
+        artifactMetaData.forge = 'maven'
+        artifactMetaData.originId = originId
+        artifactMetaData.componentVersionLink = 'https://hub.example.com/api/components/component/versions/' + originId
+        artifactMetaData.highSeverityCount = highSeverityCount
+        artifactMetaData.policyStatus = policyStatus
+        return artifactMetaData
+    }
+}
@@ -0,0 +1,153 @@
+package com.blackducksoftware.integration.hub.artifactory
+
+import java.nio.file.Files
+
+import org.apache.commons.io.FileUtils
+import org.junit.After
+import org.junit.Assert
+import org.junit.Before
+import org.junit.Test
+
+import com.blackducksoftware.integration.hub.api.generated.enumeration.PolicyStatusApprovalStatusType
+import com.blackducksoftware.integration.hub.artifactory.model.ComponentDataCache
+import com.blackducksoftware.integration.hub.artifactory.model.VulnerabilityCounts
+import com.blackducksoftware.integration.log.LogLevel
+import com.blackducksoftware.integration.log.PrintStreamIntLogger
+
+class ArtifactMetaDataStoreTest {
+    private File blackDuckDirectory
+
+    @Before
+    void createBlackDuckDirectory() {
+        blackDuckDirectory = Files.createTempDirectory('blackducksoftware').toFile()
+    }
+
+    @After
+    void deleteBlackDuckDirectory() {
+        FileUtils.deleteDirectory(blackDuckDirectory)
+    }
+
+    @Test
+    void testStoredDataSurvivesReopeningAndTornWrites() {
+        ArtifactMetaDataStore artifactMetaDataStore = new ArtifactMetaDataStore(blackDuckDirectory)
+        ArtifactMetaDataSnapshot artifactMetaDataSnapshot = artifactMetaDataStore.getSnapshot('repo')
+        artifactMetaDataStore.store('repo', artifactMetaDataSnapshot.diff([artifactMetaData('kept', 1), artifactMetaData('removed', 2)]))
+        artifactMetaDataStore.store('repo', artifactMetaDataStore.getSnapshot('repo').diff([artifactMetaData('kept', 3)]))
+        artifactMetaDataStore.storeFingerprint('repo', 'https://hub.example.com/api/projects/1/versions/1', 'fingerprint')
+        ComponentDataCache componentDataCache = new ComponentDataCache()
+        componentDataCache.putVulnerabilityCounts('https://hub.example.com/api/components/1/versions/1', new VulnerabilityCounts(4, 5, 6))
+        artifactMetaDataStore.storeVulnerabilityCounts(componentDataCache)
+        artifactMetaDataStore.close()
+
+        File storeFile = new File(blackDuckDirectory, ArtifactMetaDataStore.STORE_FILE_NAME)
+        long completeLength = storeFile.length()
+        storeFile.append([1, 0, 4] as byte[])
+
+        artifactMetaDataStore = new ArtifactMetaDataStore(blackDuckDirectory)
+        ArtifactMetaDataSnapshot reloadedSnapshot = artifactMetaDataStore.getSnapshot('repo')
+        Assert.assertEquals(completeLength, storeFile.length())
+        Assert.assertEquals(1, reloadedSnapshot.size())
+        Assert.assertEquals(3, reloadedSnapshot.get('maven', 'kept').get().highSeverityCount)
+        Assert.assertEquals(PolicyStatusApprovalStatusType.IN_VIOLATION, reloadedSnapshot.get('maven', 'kept').get().policyStatus)
+        Assert.assertEquals(0, artifactMetaDataStore.getSnapshot('other').size())
+
+        ProjectVersionFingerprints projectVersionFingerprints = new ProjectVersionFingerprints()
+        artifactMetaDataStore.loadFingerprints(projectVersionFingerprints)
+        Assert.assertTrue(projectVersionFingerprints.matches('repo', 'https://hub.example.com/api/projects/1/versions/1', 'fingerprint'))
+
+        ComponentDataCache warmedComponentDataCache = new ComponentDataCache()
+        artifactMetaDataStore.loadVulnerabilityCounts(warmedComponentDataCache)
+        Assert.assertEquals(5, warmedComponentDataCache.getVulnerabilityCounts('https://hub.example.com/api/components/1/versions/1').get().mediumSeverityCount)
+
+        artifactMetaDataStore.compact()
+        Assert.assertEquals(3, artifactMetaDataStore.getRecordCount())
+        artifactMetaDataStore.close()
+        Assert.assertEquals(1, new ArtifactMetaDataStore(blackDuckDirectory).getSnapshot('repo').size())
+    }
+
+    @Test
+    void testCorruptRecordsKeepEarlierRecordsAndTheStoreWritable() {
+        ArtifactMetaDataStore artifactMetaDataStore = new ArtifactMetaDataStore(blackDuckDirectory)
+        artifactMetaDataStore.store('repo', artifactMetaDataStore.getSnapshot('repo').diff([artifactMetaData('kept', 1)]))
+        artifactMetaDataStore.close()
+
+        File storeFile = new File(blackDuckDirectory, ArtifactMetaDataStore.STORE_FILE_NAME)
+        byte[] storedBytes = storeFile.bytes
+        storeFile.withDataOutputStream { outputStream ->
+            outputStream.write(storedBytes)
+            outputStream.writeByte(1)
+            outputStream.writeUTF('repo')
+            outputStream.writeBoolean(true)
+            outputStream.writeUTF('maven')
+            outputStream.writeBoolean(true)
+            outputStream.writeUTF('retired')
+            outputStream.writeBoolean(false)
+            outputStream.writeInt(0)
+            outputStream.writeInt(0)
+            outputStream.writeInt(0)
+            outputStream.writeBoolean(true)
+            outputStream.writeUTF('NO_LONGER_A_POLICY_STATUS')
+            outputStream.write([1, 0, 2, 0xC0, 0x00, 3, 0, 0] as byte[])
+        }
+
+        artifactMetaDataStore = new ArtifactMetaDataStore(blackDuckDirectory)
+        ArtifactMetaDataSnapshot reloadedSnapshot = artifactMetaDataStore.getSnapshot('repo')
+        Assert.assertEquals(2, reloadedSnapshot.size())
+        Assert.assertEquals(1, reloadedSnapshot.get('maven', 'kept').get().highSeverityCount)
+        Assert.assertNull(reloadedSnapshot.get('maven', 'retired').get().policyStatus)
+
+        artifactMetaDataStore.store('repo', reloadedSnapshot.diff([artifactMetaData('kept', 1), artifactMetaData('retired', 0), artifactMetaData('added', 2)]))
+        artifactMetaDataStore.close()
+        Assert.assertEquals(3, new ArtifactMetaDataStore(blackDuckDirectory).getSnapshot('repo').size())
+    }
+
+    @Test
+    void testCompactionDropsExpiredVulnerabilityCounts() {
+        ArtifactMetaDataStore artifactMetaDataStore = new ArtifactMetaDataStore(new PrintStreamIntLogger(System.out, LogLevel.OFF), blackDuckDirectory, 60000)
+        ComponentDataCache componentDataCache = new ComponentDataCache(100, 0)
+        componentDataCache.putVulnerabilityCounts('https://hub.example.com/api/components/1/versions/expired', new VulnerabilityCounts(1, 0, 0), System.currentTimeMillis() - 120000)
+        componentDataCache.putVulnerabilityCounts('https://hub.example.com/api/components/1/versions/fresh', new VulnerabilityCounts(2, 0, 0), System.currentTimeMillis())
+        artifactMetaDataStore.storeVulnerabilityCounts(componentDataCache)
+        Assert.assertEquals(2, artifactMetaDataStore.getRecordCount())
+
+        artifactMetaDataStore.compact()
+        Assert.assertEquals(1, artifactMetaDataStore.getRecordCount())
+        artifactMetaDataStore.close()
+
+        ComponentDataCache reloadedComponentDataCache = new ComponentDataCache(100, 0)
+        new ArtifactMetaDataStore(new PrintStreamIntLogger(System.out, LogLevel.OFF), blackDuckDirectory, 0).loadVulnerabilityCounts(reloadedComponentDataCache)
+        Assert.assertFalse(reloadedComponentDataCache.getVulnerabilityCounts('https://hub.example.com/api/components/1/versions/expired').isPresent())
+        Assert.assertEquals(2, reloadedComponentDataCache.getVulnerabilityCounts('https://hub.example.com/api/components/1/versions/fresh').get().highSeverityCount)
+    }
+
+    @Test
+    void testFailedCompactionKeepsAppending() {
+        ArtifactMetaDataStore artifactMetaDataStore = new ArtifactMetaDataStore(blackDuckDirectory)
+        artifactMetaDataStore.store('repo', artifactMetaDataStore.getSnapshot('repo').diff([artifactMetaData('first', 1)]))
+        File compactingFile = new File(blackDuckDirectory, ArtifactMetaDataStore.STORE_FILE_NAME + '.compacting')
+        compactingFile.mkdir()
+
+        try {
+            artifactMetaDataStore.compact()
+            Assert.fail('Compaction should not be able to write over a directory')
+        } catch (IOException e) {
+            // expected
+        }
+        Assert.assertEquals(1, artifactMetaDataStore.getRecordCount())
+
+        artifactMetaDataStore.store('repo', artifactMetaDataStore.getSnapshot('repo').diff([artifactMetaData('first', 1), artifactMetaData('second', 2)]))
+        artifactMetaDataStore.close()
+        Assert.assertEquals(2, new ArtifactMetaDataStore(blackDuckDirectory).getSnapshot('repo').size())
+    }
+
+    private ArtifactMetaData artifactMetaData(String originId, int highSeverityCount) {
+        ArtifactMetaData artifactMetaData = new ArtifactMetaData()
+        artifactMetaData.repoKey = 'repo'
+        artifactMetaData.forge = 'maven'
+        artifactMetaData.originId = originId
+        artifactMetaData.componentVersionLink = 'https://hub.example.com/api/components/component/versions/' + originId
+        artifactMetaData.highSeverityCount = highSeverityCount
+        artifactMetaData.policyStatus = PolicyStatusApprovalStatusType.IN_VIOLATION
+        return artifactMetaData
+    }
+}
@@ -0,0 +1,249 @@
+package com.blackducksoftware.integration.hub.artifactory
+
+import java.time.LocalDateTime
+
+import org.junit.After
+import org.junit.Assert
+import org.junit.Before
+import org.junit.Test
+
+import com.blackducksoftware.integration.hub.artifactory.inspect.InspectPluginConfig
+import com.blackducksoftware.integration.hub.artifactory.inspect.InspectPluginProperty
+import com.blackducksoftware.integration.hub.artifactory.inspect.SupportedPackageType
+import com.blackducksoftware.integration.hub.artifactory.model.HubCallExecutor
+import com.blackducksoftware.integration.hub.artifactory.model.HubMetrics
+import com.blackducksoftware.integration.hub.artifactory.scan.ScanPluginConfig
+import com.blackducksoftware.integration.hub.configuration.HubServerConfig
+import com.blackducksoftware.integration.log.LogLevel
+import com.blackducksoftware.integration.log.PrintStreamIntLogger
+
+class BlackDuckArtifactoryConfigTest {
+    private static final File TEST_PROPERTIES_FILE = new File('src/test/resources/blackDuckCacheInspector.properties')
+
+    private LocalHubServer localHubServer
+    private File directory
+    private File propertiesFile
+
+    @Before
+    void writePropertiesFile() {
+        localHubServer = new LocalHubServer()
+        localHubServer.addResponse('/', [:])
+        localHubServer.addResponse('/download/scan.cli.zip', [:])
+        directory = File.createTempDir()
+        propertiesFile = new File(directory, TEST_PROPERTIES_FILE.getName())
+        writeProperties([:])
+    }
+
+    @After
+    void deletePropertiesFile() {
+        localHubServer.close()
+        directory.deleteDir()
+    }
+
+    @Test
+    void testSnapshotHasTypedInspectValues() {
+        BlackDuckArtifactoryConfig blackDuckArtifactoryConfig = new BlackDuckArtifactoryConfig()
+        blackDuckArtifactoryConfig.loadProperties(propertiesFile)
+
+        InspectPluginConfig inspectPluginConfig = blackDuckArtifactoryConfig.getSnapshot().getInspectPluginConfig()
+        Assert.assertEquals(['example-repo-local'], inspectPluginConfig.getRepos())
+        Assert.assertFalse(inspectPluginConfig.getReposCsvPath().isPresent())
+        Assert.assertEquals('*.whl,*.tar.gz,*.zip,*.egg', inspectPluginConfig.getPatterns().get(SupportedPackageType.pypi))
+        Assert.assertEquals([SupportedPackageType.maven, SupportedPackageType.gradle] as Set, inspectPluginConfig.getPackageTypeClassifier().classify('library.jar'))
+        Assert.assertEquals(1, inspectPluginConfig.getMetadataConcurrency())
+        Assert.assertEquals(60 * 60 * 1000L, inspectPluginConfig.getComponentCacheTtlMillis())
+        Assert.assertEquals(SeverityCountSource.VULNERABILITIES, inspectPluginConfig.getSeverityCountSource())
+        Assert.assertEquals(5 * 60 * 1000L, inspectPluginConfig.getMetricsSummaryIntervalMillis())
+        Assert.assertEquals('2018-01-02T03:04:05.000', inspectPluginConfig.getDateTimeFormatter().format(LocalDateTime.of(2018, 1, 2, 3, 4, 5)))
+    }
+
+    @Test
+    void testScanSamplePropertiesUseTheDefaults() {
+        Properties properties = new Properties()
+        new File('src/test/resources/blackDuckScanForHub.properties').withInputStream { properties.load(it) }
+
+        ScanPluginConfig scanPluginConfig = new BlackDuckArtifactoryConfigSnapshot(properties).getScanPluginConfig()
+        Assert.assertEquals(ScanPluginConfig.DEFAULT_STAGING_CONCURRENCY, scanPluginConfig.getStagingConcurrency())
+        Assert.assertEquals(0L, scanPluginConfig.getStagingDiskBudgetBytes())
+        Assert.assertFalse(scanPluginConfig.getClusterLeaseDirectory().isPresent())
+        Assert.assertEquals(ScanPluginConfig.DEFAULT_CLUSTER_LEASE_TTL_SECONDS * 1000, scanPluginConfig.getClusterLeaseTtlMillis())
+    }
+
+    @Test
+    void testMetricsSummaryIntervalIsReadFromConfig() {
+        writeProperties(['metrics.summary.interval.minutes': '0'])
+        BlackDuckArtifactoryConfig blackDuckArtifactoryConfig = new BlackDuckArtifactoryConfig()
+        blackDuckArtifactoryConfig.loadProperties(propertiesFile)
+        blackDuckArtifactoryConfig.setBlackDuckDirectory(directory.getAbsolutePath())
+        new SummaryFileHubMetrics(new PrintStreamIntLogger(System.out, LogLevel.OFF), blackDuckArtifactoryConfig).withCloseable {
+            Assert.assertEquals(0L, it.getSummaryIntervalMillis())
+        }
+
+        blackDuckArtifactoryConfig.setProperty(InspectPluginProperty.METRICS_SUMMARY_INTERVAL_MINUTES, '2')
+        new SummaryFileHubMetrics(new PrintStreamIntLogger(System.out, LogLevel.OFF), blackDuckArtifactoryConfig).withCloseable {
+            Assert.assertEquals(2 * 60 * 1000L, it.getSummaryIntervalMillis())
+        }
+    }
+
+    @Test
+    void testAdaptiveConcurrencyIsBuiltFromConfig() {
+        BlackDuckArtifactoryConfig blackDuckArtifactoryConfig = new BlackDuckArtifactoryConfig()
+        blackDuckArtifactoryConfig.loadProperties(propertiesFile)
+        Assert.assertNull(blackDuckArtifactoryConfig.getSnapshot().getInspectPluginConfig().createHubCallExecutor(HubMetrics.NONE).getAdaptiveConcurrencyLimiter())
+
+        writeProperties(['metadata.concurrency': '6', 'adaptive.concurrency.latency.threshold.millis': '2000'])
+        blackDuckArtifactoryConfig.loadProperties(propertiesFile)
+        HubCallExecutor hubCallExecutor = blackDuckArtifactoryConfig.getSnapshot().getInspectPluginConfig().createHubCallExecutor(HubMetrics.NONE)
+        Assert.assertEquals(6, hubCallExecutor.getAdaptiveConcurrencyLimiter().getLimit())
+    }
+
+    @Test
+    void testSnapshotIsSwappedOnlyWhenPropertiesChange() {
+        BlackDuckArtifactoryConfig blackDuckArtifactoryConfig = new BlackDuckArtifactoryConfig()
+        blackDuckArtifactoryConfig.loadProperties(propertiesFile)
+        BlackDuckArtifactoryConfigSnapshot snapshot = blackDuckArtifactoryConfig.getSnapshot()
+        HubServerConfig hubServerConfig = blackDuckArtifactoryConfig.getHubServerConfig()
+        int hubRequestCount = localHubServer.totalRequestCount()
+
+        propertiesFile.append('\n# only a comment\n')
+        Assert.assertFalse(blackDuckArtifactoryConfig.reloadPropertiesIfChanged())
+        Assert.assertSame(snapshot, blackDuckArtifactoryConfig.getSnapshot())
+
+        writeProperties(['metadata.concurrency': '4'])
+        Assert.assertTrue(blackDuckArtifactoryConfig.reloadPropertiesIfChanged())
+        Assert.assertEquals(4, blackDuckArtifactoryConfig.getSnapshot().getInspectPluginConfig().getMetadataConcurrency())
+        Assert.assertEquals(1, snapshot.getInspectPluginConfig().getMetadataConcurrency())
+        Assert.assertSame(hubServerConfig, blackDuckArtifactoryConfig.getHubServerConfig())
+        Assert.assertEquals(hubRequestCount, localHubServer.totalRequestCount())
+
+        writeProperties(['blackduck.hub.timeout': '300'])
+        Assert.assertTrue(blackDuckArtifactoryConfig.reloadPropertiesIfChanged())
+        Assert.assertNotSame(hubServerConfig, blackDuckArtifactoryConfig.getHubServerConfig())
+        Assert.assertEquals(300, blackDuckArtifactoryConfig.getHubServerConfig().getTimeout())
+    }
+
+    @Test
+    void testInvalidPropertiesKeepPreviousSnapshot() {
+        BlackDuckArtifactoryConfig blackDuckArtifactoryConfig = new BlackDuckArtifactoryConfig()
+        blackDuckArtifactoryConfig.loadProperties(propertiesFile)
+        BlackDuckArtifactoryConfigSnapshot snapshot = blackDuckArtifactoryConfig.getSnapshot()
+
+        writeProperties(['severity.count.source': 'SOMETIMES'])
+        try {
+            blackDuckArtifactoryConfig.reloadPropertiesIfChanged()
+            Assert.fail('An unknown severity count source should not be accepted')
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains(InspectPluginProperty.SEVERITY_COUNT_SOURCE.getKey()))
+        }
+        Assert.assertSame(snapshot, blackDuckArtifactoryConfig.getSnapshot())
+    }
+
+    @Test
+    void testInvalidValuesFallBackToDefaultsWhenLoading() {
+        writeProperties(['severity.count.source': 'SOMETIMES', 'metadata.concurrency': 'four', 'date.time.pattern': 'yyyy-MM-dd\'T'])
+        BlackDuckArtifactoryConfig blackDuckArtifactoryConfig = new BlackDuckArtifactoryConfig()
+        blackDuckArtifactoryConfig.setIntLogger(new PrintStreamIntLogger(System.out, LogLevel.OFF))
+        blackDuckArtifactoryConfig.loadProperties(propertiesFile)
+
+        BlackDuckArtifactoryConfigSnapshot snapshot = blackDuckArtifactoryConfig.getSnapshot()
+        InspectPluginConfig inspectPluginConfig = snapshot.getInspectPluginConfig()
+        Assert.assertEquals(SeverityCountSource.VULNERABILITIES, inspectPluginConfig.getSeverityCountSource())
+        Assert.assertEquals(1, inspectPluginConfig.getMetadataConcurrency())
+        Assert.assertEquals(InspectPluginConfig.DEFAULT_DATE_TIME_PATTERN, inspectPluginConfig.getDateTimePattern())
+        Assert.assertEquals(['example-repo-local'], inspectPluginConfig.getRepos())
+        Assert.assertEquals('four', blackDuckArtifactoryConfig.getProperty(InspectPluginProperty.METADATA_CONCURRENCY))
+        Assert.assertEquals(3, snapshot.getInvalidValueMessages().size())
+    }
+
+    @Test
+    void testSetPropertyKeepsInvalidValuesFromTheFile() {
+        writeProperties(['metadata.concurrency': 'four'])
+        BlackDuckArtifactoryConfig blackDuckArtifactoryConfig = new BlackDuckArtifactoryConfig()
+        blackDuckArtifactoryConfig.setIntLogger(new PrintStreamIntLogger(System.out, LogLevel.OFF))
+        blackDuckArtifactoryConfig.loadProperties(propertiesFile)
+
+        blackDuckArtifactoryConfig.setProperty(InspectPluginProperty.REPOS, 'other-repo')
+        try {
+            blackDuckArtifactoryConfig.setProperty(InspectPluginProperty.METADATA_PAGE_SIZE, 'many')
+            Assert.fail('An invalid value for the key being set should not be accepted')
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains(InspectPluginProperty.METADATA_PAGE_SIZE.getKey()))
+        }
+
+        InspectPluginConfig inspectPluginConfig = blackDuckArtifactoryConfig.getSnapshot().getInspectPluginConfig()
+        Assert.assertEquals(['other-repo'], inspectPluginConfig.getRepos())
+        Assert.assertEquals(1, inspectPluginConfig.getMetadataConcurrency())
+        Assert.assertEquals('four', blackDuckArtifactoryConfig.getProperty(InspectPluginProperty.METADATA_CONCURRENCY))
+    }
+
+    @Test
+    void testSetPropertyReplacesPropertiesAndSnapshotTogether() {
+        BlackDuckArtifactoryConfig blackDuckArtifactoryConfig = new BlackDuckArtifactoryConfig()
+        blackDuckArtifactoryConfig.loadProperties(propertiesFile)
+        Properties properties = blackDuckArtifactoryConfig.getProperties()
+        BlackDuckArtifactoryConfigSnapshot snapshot = blackDuckArtifactoryConfig.getSnapshot()
+
+        blackDuckArtifactoryConfig.setProperty(InspectPluginProperty.METADATA_CONCURRENCY, '3')
+        Assert.assertEquals('3', blackDuckArtifactoryConfig.getProperty(InspectPluginProperty.METADATA_CONCURRENCY))
+        Assert.assertEquals(3, blackDuckArtifactoryConfig.getSnapshot().getInspectPluginConfig().getMetadataConcurrency())
+        Assert.assertEquals('1', properties.getProperty(InspectPluginProperty.METADATA_CONCURRENCY.getKey()))
+
+        try {
+            blackDuckArtifactoryConfig.setProperty(InspectPluginProperty.METADATA_CONCURRENCY, 'many')
+            Assert.fail('An invalid value should not be accepted')
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains(InspectPluginProperty.METADATA_CONCURRENCY.getKey()))
+        }
+        Assert.assertEquals('3', blackDuckArtifactoryConfig.getProperty(InspectPluginProperty.METADATA_CONCURRENCY))
+        Assert.assertEquals(1, snapshot.getInspectPluginConfig().getMetadataConcurrency())
+    }
+
+    @Test
+    void testWatcherWaitsForWritesToSettle() {
+        BlackDuckArtifactoryConfig blackDuckArtifactoryConfig = new BlackDuckArtifactoryConfig()
+        blackDuckArtifactoryConfig.loadProperties(propertiesFile)
+        BlackDuckArtifactoryConfigSnapshot snapshot = blackDuckArtifactoryConfig.getSnapshot()
+
+        BlackDuckArtifactoryConfigWatcher watcher = new BlackDuckArtifactoryConfigWatcher(new PrintStreamIntLogger(System.out, LogLevel.OFF), blackDuckArtifactoryConfig, 500)
+        writeProperties(['metadata.page.size': '100'])
+        Thread.sleep(50)
+        writeProperties(['metadata.page.size': '250'])
+        List<Integer> observedPageSizes = []
+        long deadline = System.currentTimeMillis() + 30000
+        while (blackDuckArtifactoryConfig.getSnapshot().getInspectPluginConfig().getMetadataPageSize() != 250 && System.currentTimeMillis() < deadline) {
+            if (!blackDuckArtifactoryConfig.getSnapshot().is(snapshot)) {
+                observedPageSizes.add(blackDuckArtifactoryConfig.getSnapshot().getInspectPluginConfig().getMetadataPageSize())
+            }
+            Thread.sleep(5)
+        }
+        watcher.close()
+
+        Assert.assertEquals(250, blackDuckArtifactoryConfig.getSnapshot().getInspectPluginConfig().getMetadataPageSize())
+        Assert.assertFalse(observedPageSizes.contains(100))
+    }
+
+    @Test
+    void testWatcherReloadsChangedFile() {
+        BlackDuckArtifactoryConfig blackDuckArtifactoryConfig = new BlackDuckArtifactoryConfig()
+        blackDuckArtifactoryConfig.loadProperties(propertiesFile)
+
+        BlackDuckArtifactoryConfigWatcher watcher = new BlackDuckArtifactoryConfigWatcher(new PrintStreamIntLogger(System.out, LogLevel.OFF), blackDuckArtifactoryConfig)
+        writeProperties(['metadata.page.size': '250'])
+        long deadline = System.currentTimeMillis() + 30000
+        while (blackDuckArtifactoryConfig.getSnapshot().getInspectPluginConfig().getMetadataPageSize() != 250 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20)
+        }
+        watcher.close()
+
+        Assert.assertEquals(250, blackDuckArtifactoryConfig.getSnapshot().getInspectPluginConfig().getMetadataPageSize())
+    }
+
+    private void writeProperties(Map<String, String> replacements) {
+        Properties properties = new Properties()
+        TEST_PROPERTIES_FILE.withInputStream { properties.load(it) }
+        properties.setProperty(BlackDuckHubProperty.URL.getKey(), localHubServer.getBaseUrl())
+        replacements.each { key, value -> properties.setProperty(key.startsWith('blackduck.') ? key : 'hub.artifactory.inspect.' + key, value) }
+        propertiesFile.withOutputStream { properties.store(it, null) }
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.blackducksoftware.integration.hub.artifactory
+
+import java.util.concurrent.atomic.AtomicLong
+import java.util.stream.Collectors
+
+import org.junit.After
+import org.junit.Assert
+import org.junit.Before
+import org.junit.Test
+
+import com.blackducksoftware.integration.log.LogLevel
+import com.blackducksoftware.integration.log.PrintStreamIntLogger
+
+class ClusterWorkPartitionerTest {
+    private static final long LEASE_TTL_MILLIS = 60000
+
+    private final PrintStreamIntLogger intLogger = new PrintStreamIntLogger(System.out, LogLevel.OFF)
+    private final AtomicLong clock = new AtomicLong(1000000)
+    private final List<String> repoKeys = (0..<3000).collect { "repo-${it}".toString() }
+    private File leaseDirectory
+
+    @Before
+    void createLeaseDirectory() {
+        leaseDirectory = File.createTempDir()
+    }
+
+    @After
+    void deleteLeaseDirectory() {
+        leaseDirectory.deleteDir()
+    }
+
+    @Test
+    void testEachRepoHasExactlyOneOwner() {
+        List<ClusterWorkPartitioner> nodes = ['node-a', 'node-b', 'node-c'].collect { newNode(it) }
+        nodes.each { it.renewLease() }
+
+        Assert.assertEquals(['node-a', 'node-b', 'node-c'] as Set, nodes.get(0).getLiveNodeIds())
+        repoKeys.each { String repoKey ->
+            Assert.assertEquals(1, nodes.count { it.isOwner(repoKey) })
+        }
+        nodes.each { ClusterWorkPartitioner node ->
+            long ownedCount = node.filterOwned(repoKeys.stream()).count()
+            Assert.assertTrue("${ownedCount} of ${repoKeys.size()} repos is too uneven", ownedCount > 600 && ownedCount < 1400)
+        }
+    }
+
+    @Test
+    void testExpiredNodeWorkMovesToRemainingNodes() {
+        ClusterWorkPartitioner nodeA = newNode('node-a')
+        ClusterWorkPartitioner nodeB = newNode('node-b')
+        ClusterWorkPartitioner nodeC = newNode('node-c')
+        [nodeA, nodeB, nodeC].each { it.renewLease() }
+        Map<String, String> ownersBefore = repoKeys.collectEntries { [(it): nodeA.getOwner(it)] }
+
+        clock.addAndGet(LEASE_TTL_MILLIS / 2 as long)
+        nodeA.renewLease()
+        nodeB.renewLease()
+        Assert.assertEquals(3, nodeA.getLiveNodeIds().size())
+
+        clock.addAndGet(LEASE_TTL_MILLIS / 2 as long)
+        nodeA.renewLease()
+        nodeB.renewLease()
+        Assert.assertEquals(3, nodeA.getLiveNodeIds().size())
+
+        clock.addAndGet(LEASE_TTL_MILLIS / 2 as long)
+        nodeA.renewLease()
+        nodeB.renewLease()
+        Assert.assertEquals(['node-a', 'node-b'] as Set, nodeA.getLiveNodeIds())
+
+        repoKeys.each { String repoKey ->
+            Assert.assertTrue(nodeA.isOwner(repoKey) ^ nodeB.isOwner(repoKey))
+            if (ownersBefore.get(repoKey) != 'node-c') {
+                Assert.assertEquals(ownersBefore.get(repoKey), nodeA.getOwner(repoKey))
+            }
+        }
+    }
+
+    @Test
+    void testClosedNodeIsRemovedOnNextRenewal() {
+        ClusterWorkPartitioner nodeA = newNode('node-a')
+        ClusterWorkPartitioner nodeB = newNode('node-b')
+        nodeA.renewLease()
+        Assert.assertTrue(nodeA.filterOwned(repoKeys.stream()).count() < repoKeys.size())
+
+        nodeB.close()
+        nodeA.renewLease()
+
+        Assert.assertEquals(['node-a'] as Set, nodeA.getLiveNodeIds())
+        Assert.assertEquals(repoKeys, nodeA.filterOwned(repoKeys.stream()).collect(Collectors.toList()))
+        Assert.assertTrue(nodeA.isArtifactOwner('repo-1', 'org/example/library/1.0/library-1.0.jar'))
+    }
+
+    @Test
+    void testLivenessDoesNotDependOnClockSkew() {
+        ClusterWorkPartitioner nodeA = newNode('node-a')
+        ClusterWorkPartitioner nodeB = new ClusterWorkPartitioner(intLogger, leaseDirectory, 'node-b', LEASE_TTL_MILLIS, { clock.get() - 10 * LEASE_TTL_MILLIS })
+        nodeA.renewLease()
+
+        (0..<4).each {
+            clock.addAndGet(LEASE_TTL_MILLIS / 2 as long)
+            nodeA.renewLease()
+            nodeB.renewLease()
+            Assert.assertEquals(['node-a', 'node-b'] as Set, nodeA.getLiveNodeIds())
+            Assert.assertEquals(['node-a', 'node-b'] as Set, nodeB.getLiveNodeIds())
+        }
+
+        (0..<3).each {
+            clock.addAndGet(LEASE_TTL_MILLIS / 2 as long)
+            nodeA.renewLease()
+        }
+        Assert.assertEquals(['node-a'] as Set, nodeA.getLiveNodeIds())
+    }
+
+    private ClusterWorkPartitioner newNode(String nodeId) {
+        return new ClusterWorkPartitioner(intLogger, leaseDirectory, nodeId, LEASE_TTL_MILLIS, clock.&get)
+    }
+
+}
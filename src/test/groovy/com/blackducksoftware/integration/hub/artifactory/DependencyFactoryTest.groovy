@@ -8,6 +8,8 @@ import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 
 import com.blackducksoftware.integration.hub.artifactory.inspect.DependencyFactory
+import com.blackducksoftware.integration.hub.artifactory.inspect.DependencyInput
+import com.blackducksoftware.integration.hub.artifactory.inspect.DependencyResults
 import com.blackducksoftware.integration.hub.artifactory.inspect.SupportedPackageType
 
 public class DependencyFactoryTest {
@@ -63,6 +65,36 @@ public class DependencyFactoryTest {
         testMavenDependencyCreation(SupportedPackageType.gradle.name());
     }
 
+    @Test
+    public void createDependencies() {
+        final DependencyFactory dependencyFactory = new DependencyFactory();
+        final def fileLayoutInfo = ['getModule':{'component'}, 'getBaseRevision':{'version'}, 'getOrganization':{'group'}] as FileLayoutInfo;
+        final def missingFileLayoutInfo = ['getModule':{null}, 'getBaseRevision':{null}, 'getOrganization':{null}] as FileLayoutInfo;
+        final def properties = ['getFirst':{String key -> [:].get(key)}] as org.artifactory.md.Properties;
+        final def failingProperties = ['getFirst':{String key -> throw new IllegalStateException(key)}] as org.artifactory.md.Properties;
+
+        final List<DependencyInput> dependencyInputs = [];
+        (0..<50).each {
+            dependencyInputs.add(new DependencyInput(SupportedPackageType.maven.name(), fileLayoutInfo, null));
+            dependencyInputs.add(new DependencyInput(SupportedPackageType.npm.name(), fileLayoutInfo, properties));
+        }
+        dependencyInputs.add(new DependencyInput(SupportedPackageType.gradle.name(), missingFileLayoutInfo, null));
+        dependencyInputs.add(new DependencyInput('docker', fileLayoutInfo, properties));
+        dependencyInputs.add(new DependencyInput(SupportedPackageType.pypi.name(), fileLayoutInfo, failingProperties));
+
+        final DependencyResults dependencyResults = dependencyFactory.createDependencies(testLogger, dependencyInputs);
+
+        assertEquals(dependencyInputs.size(), dependencyResults.getDependencies().size());
+        assertEquals(100, dependencyResults.getResolvedCount());
+        assertEquals(1, dependencyResults.getUnresolvedCount());
+        assertEquals(1, dependencyResults.getUnsupportedCount());
+        assertEquals(1, dependencyResults.getFailureCount());
+        assertEquals(2, dependencyResults.getUniqueExternalIdCount());
+        assertEquals('maven', dependencyResults.getDependency(0).get().externalId.forge.getName());
+        assertEquals('npm', dependencyResults.getDependency(1).get().externalId.forge.getName());
+        assertSame(dependencyResults.getDependency(0).get(), dependencyResults.getDependency(98).get());
+    }
+
     private void testNameVersionDependencyCreation(String packageType, Map propertiesMap) {
         final DependencyFactory dependencyFactory = new DependencyFactory();
         final String module = 'component';
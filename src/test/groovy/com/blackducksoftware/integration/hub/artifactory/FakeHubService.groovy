@@ -0,0 +1,146 @@
+package com.blackducksoftware.integration.hub.artifactory
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+
+import com.blackducksoftware.integration.exception.IntegrationException
+import com.blackducksoftware.integration.hub.api.UriSingleResponse
+import com.blackducksoftware.integration.hub.api.core.HubResponse
+import com.blackducksoftware.integration.hub.api.core.HubView
+import com.blackducksoftware.integration.hub.api.core.LinkMultipleResponses
+import com.blackducksoftware.integration.hub.api.core.LinkSingleResponse
+import com.blackducksoftware.integration.hub.api.core.ResourceMetadata
+import com.blackducksoftware.integration.hub.api.generated.view.ComponentVersionView
+import com.blackducksoftware.integration.hub.api.generated.view.OriginView
+import com.blackducksoftware.integration.hub.api.generated.view.ProjectVersionView
+import com.blackducksoftware.integration.hub.api.generated.view.VersionBomComponentView
+import com.blackducksoftware.integration.hub.api.generated.view.VulnerabilityV2View
+import com.blackducksoftware.integration.hub.service.HubService
+import com.blackducksoftware.integration.hub.service.model.RequestFactory
+import com.blackducksoftware.integration.log.LogLevel
+import com.blackducksoftware.integration.log.PrintStreamIntLogger
+import com.blackducksoftware.integration.rest.connection.UnauthenticatedRestConnection
+import com.blackducksoftware.integration.rest.proxy.ProxyInfo
+import com.blackducksoftware.integration.rest.request.Request
+
+class FakeHubService extends HubService {
+    public static final String HUB_URL = 'https://hub.example.com'
+
+    final Map<String, HubResponse> responses = new ConcurrentHashMap<>()
+    final Map<String, List<? extends HubResponse>> multipleResponses = new ConcurrentHashMap<>()
+    final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>()
+    final Set<String> failingUris = ConcurrentHashMap.newKeySet()
+    long latencyMillis = 0
+
+    FakeHubService() {
+        super(new UnauthenticatedRestConnection(new PrintStreamIntLogger(System.out, LogLevel.OFF), new URL(HUB_URL), 120, ProxyInfo.NO_PROXY_INFO))
+    }
+
+    static ProjectVersionView projectVersion(String projectVersionUri) {
+        return view(new ProjectVersionView(), projectVersionUri)
+    }
+
+    static <T extends HubView> T view(T hubView, String href) {
+        hubView._meta = new ResourceMetadata()
+        hubView._meta.href = href
+        hubView._meta.links = []
+        return hubView
+    }
+
+    VersionBomComponentView addComponent(String projectVersionUri, int index, int originCount, List<String> severities) {
+        String componentVersionUri = "${HUB_URL}/api/components/component-${index}/versions/version-${index}"
+        ComponentVersionView componentVersionView = view(new ComponentVersionView(), componentVersionUri)
+        responses.put(componentVersionUri, componentVersionView)
+
+        List<OriginView> originViews = (0..<originCount).collect { originIndex ->
+            OriginView originView = new OriginView()
+            originView.originName = 'maven'
+            originView.originId = "group:component-${index}:${originIndex}"
+            originView
+        }
+        multipleResponses.put(componentVersionUri + '/origins', originViews)
+        multipleResponses.put(componentVersionUri + '/vulnerabilities', severities.collect { severity ->
+            VulnerabilityV2View vulnerabilityV2View = new VulnerabilityV2View()
+            vulnerabilityV2View.severity = severity
+            vulnerabilityV2View
+        })
+
+        VersionBomComponentView versionBomComponentView = view(new VersionBomComponentView(), "${projectVersionUri}/components/component-${index}/versions/version-${index}")
+        versionBomComponentView.componentVersion = componentVersionUri
+        responses.put(versionBomComponentView._meta.href, versionBomComponentView)
+        List<VersionBomComponentView> bom = (List<VersionBomComponentView>) multipleResponses.computeIfAbsent(projectVersionUri + '/components', { new ArrayList<>() })
+        bom.add(versionBomComponentView)
+        return versionBomComponentView
+    }
+
+    int requestCount(String uri) {
+        AtomicInteger count = requestCounts.get(uri)
+        return count == null ? 0 : count.get()
+    }
+
+    int totalRequestCount() {
+        return requestCounts.values().sum { it.get() } ?: 0
+    }
+
+    @Override
+    String getFirstLinkSafely(HubView hubView, String linkKey) {
+        return hubView._meta.href + '/' + linkKey
+    }
+
+    @Override
+    <T extends HubResponse> T getResponse(UriSingleResponse<T> uriSingleResponse) throws IntegrationException {
+        return getResponse(uriSingleResponse.uri, uriSingleResponse.responseClass)
+    }
+
+    @Override
+    <T extends HubResponse> T getResponse(String uri, Class<T> responseClass) throws IntegrationException {
+        request(uri)
+        HubResponse hubResponse = responses.get(uri)
+        if (hubResponse == null) {
+            throw new IntegrationException("No response for ${uri}")
+        }
+        return (T) hubResponse
+    }
+
+    @Override
+    <T extends HubResponse> T getResponse(HubView hubView, LinkSingleResponse<T> linkSingleResponse) throws IntegrationException {
+        return getResponse(hubView._meta.href + '/' + linkSingleResponse.link, linkSingleResponse.responseClass)
+    }
+
+    @Override
+    <T extends HubResponse> List<T> getAllResponses(HubView hubView, LinkMultipleResponses<T> linkMultipleResponses) throws IntegrationException {
+        return getAllResponses(hubView._meta.href + '/' + linkMultipleResponses.link, linkMultipleResponses.responseClass)
+    }
+
+    @Override
+    <T extends HubResponse> List<T> getAllResponses(String uri, Class<T> responseClass) throws IntegrationException {
+        request(uri)
+        List<? extends HubResponse> hubResponses = multipleResponses.get(uri)
+        if (hubResponses == null) {
+            throw new IntegrationException("No responses for ${uri}")
+        }
+        return new ArrayList<T>((List<T>) hubResponses)
+    }
+
+    @Override
+    <T extends HubResponse> List<T> getResponses(HubView hubView, LinkMultipleResponses<T> linkMultipleResponses, Request.Builder requestBuilder, boolean getAll) throws IntegrationException {
+        List<T> allResponses = getAllResponses(hubView, linkMultipleResponses)
+        if (getAll) {
+            return allResponses
+        }
+        int offset = Math.min(allResponses.size(), requestBuilder.getQueryParameters().get(RequestFactory.OFFSET_PARAMETER).toInteger())
+        int limit = requestBuilder.getQueryParameters().get(RequestFactory.LIMIT_PARAMETER).toInteger()
+        return new ArrayList<T>(allResponses.subList(offset, Math.min(allResponses.size(), offset + limit)))
+    }
+
+    private void request(String uri) throws IntegrationException {
+        requestCounts.computeIfAbsent(uri, { new AtomicInteger() }).incrementAndGet()
+        if (latencyMillis > 0) {
+            Thread.sleep(latencyMillis)
+        }
+        if (failingUris.contains(uri)) {
+            throw new IntegrationException("Failed request for ${uri}")
+        }
+    }
+
+}
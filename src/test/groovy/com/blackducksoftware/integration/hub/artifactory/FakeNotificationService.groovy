@@ -0,0 +1,38 @@
+package com.blackducksoftware.integration.hub.artifactory
+
+import java.util.concurrent.atomic.AtomicInteger
+
+import com.blackducksoftware.integration.exception.IntegrationException
+import com.blackducksoftware.integration.hub.api.generated.enumeration.NotificationType
+import com.blackducksoftware.integration.hub.notification.NotificationDetailResult
+import com.blackducksoftware.integration.hub.notification.NotificationDetailResults
+import com.blackducksoftware.integration.hub.notification.content.detail.NotificationContentDetail
+import com.blackducksoftware.integration.hub.service.NotificationService
+import com.blackducksoftware.integration.hub.service.bucket.HubBucket
+import com.blackducksoftware.integration.hub.service.bucket.HubBucketService
+
+class FakeNotificationService extends NotificationService {
+    final List<NotificationDetailResult> notificationDetailResults = []
+    final AtomicInteger requestCount = new AtomicInteger()
+    Date latestNotificationDate = new Date()
+
+    FakeNotificationService(FakeHubService hubService) {
+        super(hubService, new HubBucketService(hubService))
+    }
+
+    static NotificationContentDetail vulnerabilityDetail(String projectVersionUri, String componentVersionUri) {
+        return NotificationContentDetail.createDetail(NotificationContentDetail.CONTENT_KEY_GROUP_VULNERABILITY, Optional.of('project'), Optional.of('version'), Optional.of(projectVersionUri), Optional.of('component'), Optional.empty(),
+                Optional.of('componentVersion'), Optional.of(componentVersionUri), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty())
+    }
+
+    void addNotification(List<NotificationContentDetail> notificationContentDetails) {
+        notificationDetailResults.add(new NotificationDetailResult(null, 'application/json', latestNotificationDate, NotificationType.VULNERABILITY, NotificationContentDetail.CONTENT_KEY_GROUP_VULNERABILITY, Optional.empty(), notificationContentDetails))
+    }
+
+    @Override
+    NotificationDetailResults getAllNotificationDetailResults(HubBucket hubBucket, Date startDate, Date endDate) throws IntegrationException {
+        requestCount.incrementAndGet()
+        return new NotificationDetailResults(new ArrayList<>(notificationDetailResults), Optional.of(latestNotificationDate), Optional.empty(), hubBucket)
+    }
+
+}
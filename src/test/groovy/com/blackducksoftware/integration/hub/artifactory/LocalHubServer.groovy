@@ -0,0 +1,189 @@
+package com.blackducksoftware.integration.hub.artifactory
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.ThreadLocalRandom
+import java.util.concurrent.atomic.AtomicInteger
+
+import groovy.json.JsonOutput
+
+import com.blackducksoftware.integration.hub.api.generated.view.ProjectVersionView
+import com.blackducksoftware.integration.hub.service.HubService
+import com.blackducksoftware.integration.log.LogLevel
+import com.blackducksoftware.integration.log.PrintStreamIntLogger
+import com.blackducksoftware.integration.rest.connection.RestConnection
+import com.blackducksoftware.integration.rest.connection.UnauthenticatedRestConnection
+import com.blackducksoftware.integration.rest.proxy.ProxyInfo
+import com.sun.net.httpserver.HttpExchange
+import com.sun.net.httpserver.HttpServer
+
+class LocalHubServer implements Closeable {
+    static final String NOTIFICATIONS_PATH = '/api/notifications'
+
+    final Map<String, String> responses = new ConcurrentHashMap<>()
+    final Map<String, List<String>> multipleResponses = new ConcurrentHashMap<>()
+    final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>()
+    final AtomicInteger errorCount = new AtomicInteger()
+    volatile long latencyMillis = 0
+    volatile long jitterMillis = 0
+    volatile double errorRate = 0
+    volatile String errorPathPattern = '.*'
+
+    private final HttpServer httpServer
+    private final ExecutorService executorService
+
+    LocalHubServer() {
+        this(32)
+    }
+
+    LocalHubServer(int threadCount) {
+        System.setProperty('sun.net.httpserver.nodelay', 'true')
+        httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0)
+        executorService = Executors.newFixedThreadPool(threadCount)
+        httpServer.setExecutor(executorService)
+        httpServer.createContext('/', { HttpExchange httpExchange -> handle(httpExchange) })
+        httpServer.start()
+        multipleResponses.put(NOTIFICATIONS_PATH, new CopyOnWriteArrayList<>())
+    }
+
+    String getBaseUrl() {
+        return "http://${httpServer.address.hostString}:${httpServer.address.port}"
+    }
+
+    HubService createHubService() {
+        RestConnection restConnection = new UnauthenticatedRestConnection(new PrintStreamIntLogger(System.out, LogLevel.OFF), new URL(getBaseUrl()), 120, ProxyInfo.NO_PROXY_INFO)
+        restConnection.connect()
+        return new HubService(restConnection)
+    }
+
+    ProjectVersionView addProjectVersion(HubService hubService, String projectVersionPath) {
+        String projectVersionUri = getBaseUrl() + projectVersionPath
+        addResponse(projectVersionPath, [
+            versionName: 'version',
+            _meta: meta(projectVersionUri, [components: projectVersionUri + '/components'])
+        ])
+        multipleResponses.computeIfAbsent(projectVersionPath + '/components', { new CopyOnWriteArrayList<>() })
+        return hubService.getResponse(projectVersionUri, ProjectVersionView.class)
+    }
+
+    String addComponent(String projectVersionUri, int index, int originCount, List<String> severities) {
+        String componentVersionPath = "/api/components/component-${index}/versions/version-${index}"
+        String componentVersionUri = getBaseUrl() + componentVersionPath
+        addResponse(componentVersionPath, [
+            versionName: "version-${index}",
+            _meta: meta(componentVersionUri, [origins: componentVersionUri + '/origins', vulnerabilities: componentVersionUri + '/vulnerabilities'])
+        ])
+        addResponses(componentVersionPath + '/origins', (0..<originCount).collect { originIndex ->
+            [originName: 'maven', originId: "group:component-${index}:${originIndex}", _meta: meta("${componentVersionUri}/origins/${originIndex}", [:])]
+        })
+        addResponses(componentVersionPath + '/vulnerabilities', severities.collect { severity ->
+            [severity: severity, _meta: meta("${componentVersionUri}/vulnerabilities/${severity}", [:])]
+        })
+
+        String projectVersionPath = projectVersionUri - getBaseUrl()
+        String bomComponentUri = "${projectVersionUri}/components/component-${index}/versions/version-${index}"
+        multipleResponses.computeIfAbsent(projectVersionPath + '/components', { new CopyOnWriteArrayList<>() }).add(JsonOutput.toJson([
+            componentName: "component-${index}",
+            componentVersion: componentVersionUri,
+            policyStatus: 'NOT_IN_VIOLATION',
+            securityRiskProfile: [counts: ['HIGH', 'MEDIUM', 'LOW'].collect { countType -> [countType: countType, count: severities.count { it == countType }] }],
+            _meta: meta(bomComponentUri, [:])
+        ]))
+        return componentVersionUri
+    }
+
+    void addVulnerabilityNotification(String projectVersionUri, String componentVersionUri, Date createdAt) {
+        multipleResponses.get(NOTIFICATIONS_PATH).add(JsonOutput.toJson([
+            type: 'VULNERABILITY',
+            contentType: 'application/json',
+            createdAt: RestConnection.formatDate(createdAt),
+            content: [
+                componentName: 'component',
+                versionName: 'version',
+                componentVersion: componentVersionUri,
+                componentVersionOriginName: 'maven',
+                newVulnerabilityCount: 1,
+                affectedProjectVersions: [[projectName: 'project', projectVersionName: 'version', projectVersion: projectVersionUri]]
+            ],
+            _meta: meta("${getBaseUrl()}${NOTIFICATIONS_PATH}/${UUID.randomUUID()}", [:])
+        ]))
+    }
+
+    void addResponse(String path, Object json) {
+        responses.put(path, json instanceof String ? (String) json : JsonOutput.toJson(json))
+    }
+
+    void addResponses(String path, List<?> jsonItems) {
+        multipleResponses.put(path, new CopyOnWriteArrayList<>(jsonItems.collect { it instanceof String ? (String) it : JsonOutput.toJson(it) }))
+    }
+
+    int totalRequestCount() {
+        return requestCounts.values().sum { it.get() } ?: 0
+    }
+
+    void resetCounts() {
+        requestCounts.clear()
+        errorCount.set(0)
+    }
+
+    @Override
+    void close() {
+        httpServer.stop(0)
+        executorService.shutdownNow()
+    }
+
+    private Map meta(String href, Map<String, String> links) {
+        return [href: href, links: links.collect { rel, linkHref -> [rel: rel, href: linkHref] }]
+    }
+
+    private void handle(HttpExchange httpExchange) {
+        try {
+            String path = httpExchange.requestURI.path
+            requestCounts.computeIfAbsent(path, { new AtomicInteger() }).incrementAndGet()
+            long delayMillis = latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0)
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis)
+            }
+
+            if (errorRate > 0 && path.matches(errorPathPattern) && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                errorCount.incrementAndGet()
+                respond(httpExchange, 503, '{"errorMessage":"Injected failure"}')
+            } else if (responses.containsKey(path)) {
+                respond(httpExchange, 200, responses.get(path))
+            } else if (multipleResponses.containsKey(path)) {
+                Map<String, String> queryParameters = parseQuery(httpExchange.requestURI.rawQuery)
+                List<String> items = multipleResponses.get(path)
+                int offset = Math.min(items.size(), (queryParameters.get('offset') ?: '0').toInteger())
+                int limit = (queryParameters.get('limit') ?: '10').toInteger()
+                List<String> page = items.subList(offset, Math.min(items.size(), offset + limit))
+                respond(httpExchange, 200, "{\"totalCount\":${items.size()},\"items\":[${page.join(',')}],\"_meta\":{\"href\":\"${getBaseUrl()}${path}\",\"links\":[]}}")
+            } else {
+                respond(httpExchange, 404, '{"errorMessage":"Not found"}')
+            }
+        } catch (Exception e) {
+            respond(httpExchange, 500, JsonOutput.toJson([errorMessage: e.message]))
+        } finally {
+            httpExchange.close()
+        }
+    }
+
+    private Map<String, String> parseQuery(String rawQuery) {
+        if (!rawQuery) {
+            return [:]
+        }
+        return rawQuery.split('&').collectEntries { String parameter ->
+            String[] nameAndValue = parameter.split('=', 2)
+            [(URLDecoder.decode(nameAndValue[0], 'UTF-8')): nameAndValue.length > 1 ? URLDecoder.decode(nameAndValue[1], 'UTF-8') : '']
+        }
+    }
+
+    private void respond(HttpExchange httpExchange, int statusCode, String body) {
+        byte[] bytes = body.getBytes('UTF-8')
+        httpExchange.responseHeaders.add('Content-Type', 'application/json')
+        httpExchange.sendResponseHeaders(statusCode, bytes.length)
+        httpExchange.responseBody.write(bytes)
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.blackducksoftware.integration.hub.artifactory
+
+import java.lang.management.ManagementFactory
+import java.lang.management.MemoryPoolMXBean
+import java.lang.management.MemoryType
+
+import org.junit.After
+import org.junit.Assert
+import org.junit.Before
+import org.junit.Test
+
+import com.blackducksoftware.integration.hub.api.generated.view.ProjectVersionView
+import com.blackducksoftware.integration.hub.artifactory.inspect.InspectPluginConfig
+import com.blackducksoftware.integration.hub.artifactory.model.ComponentDataCache
+import com.blackducksoftware.integration.hub.artifactory.model.HubCallExecutor
+import com.blackducksoftware.integration.hub.artifactory.model.HubMetrics
+import com.blackducksoftware.integration.hub.service.HubService
+import com.blackducksoftware.integration.hub.service.NotificationService
+import com.blackducksoftware.integration.hub.service.bucket.HubBucketService
+import com.blackducksoftware.integration.log.LogLevel
+import com.blackducksoftware.integration.log.PrintStreamIntLogger
+
+class LocalHubThroughputTest {
+    private static final int COMPONENT_COUNT = 200
+
+    private LocalHubServer localHubServer
+    private HubService hubService
+    private ProjectVersionView projectVersionView
+    private HubCallExecutor hubCallExecutor
+
+    @Before
+    void startLocalHubServer() {
+        localHubServer = new LocalHubServer()
+        localHubServer.latencyMillis = 2
+        localHubServer.jitterMillis = 3
+        hubService = localHubServer.createHubService()
+        projectVersionView = localHubServer.addProjectVersion(hubService, '/api/projects/project/versions/version')
+        (0..<COMPONENT_COUNT).each {
+            String componentVersionUri = localHubServer.addComponent(projectVersionView._meta.href, it, 2, it % 2 == 0 ? ['HIGH', 'LOW'] : [])
+            localHubServer.addVulnerabilityNotification(projectVersionView._meta.href, componentVersionUri, new Date())
+        }
+        localHubServer.resetCounts()
+        hubCallExecutor = new HubCallExecutor(HubMetrics.NONE, 8, null)
+    }
+
+    @After
+    void stopLocalHubServer() {
+        hubCallExecutor.close()
+        localHubServer.close()
+    }
+
+    @Test
+    void testBomPath() {
+        ArtifactMetaDataManager artifactMetaDataManager = new ArtifactMetaDataManager(new PrintStreamIntLogger(System.out, LogLevel.OFF), InspectPluginConfig.defaults(), ComponentDataCache.disabled(), hubCallExecutor)
+
+        List<ArtifactMetaData> artifactMetaData = measure('BOM') {
+            artifactMetaDataManager.getMetaData('repo', hubService, projectVersionView)
+        }
+
+        Assert.assertEquals(COMPONENT_COUNT * 2, artifactMetaData.size())
+        Assert.assertEquals(COMPONENT_COUNT, artifactMetaData.count { it.highSeverityCount == 1 && it.lowSeverityCount == 1 })
+        Assert.assertEquals(COMPONENT_COUNT * 3 + 2, localHubServer.totalRequestCount())
+    }
+
+    @Test
+    void testNotificationPath() {
+        ArtifactMetaDataManager artifactMetaDataManager = new ArtifactMetaDataManager(new PrintStreamIntLogger(System.out, LogLevel.OFF), InspectPluginConfig.defaults(), ComponentDataCache.disabled(), hubCallExecutor)
+        NotificationService notificationService = new NotificationService(hubService, new HubBucketService(hubService))
+
+        ArtifactMetaDataFromNotifications artifactMetaDataFromNotifications = measure('notification') {
+            artifactMetaDataManager.getMetaDataFromNotifications('repo', hubService, notificationService, projectVersionView, new Date(0), new Date())
+        }
+
+        Assert.assertEquals(COMPONENT_COUNT * 2, artifactMetaDataFromNotifications.getArtifactMetaData().size())
+        Assert.assertTrue(artifactMetaDataFromNotifications.getLastNotificationDate().isPresent())
+    }
+
+    @Test
+    void testInjectedErrorsOnlyDropTheAffectedComponents() {
+        localHubServer.errorRate = 0.2
+        localHubServer.errorPathPattern = '.*/origins'
+        ArtifactMetaDataManager artifactMetaDataManager = new ArtifactMetaDataManager(new PrintStreamIntLogger(System.out, LogLevel.OFF), InspectPluginConfig.defaults(), ComponentDataCache.disabled(), hubCallExecutor)
+
+        List<ArtifactMetaData> artifactMetaData = measure('BOM with errors') {
+            artifactMetaDataManager.getMetaData('repo', hubService, projectVersionView)
+        }
+
+        Assert.assertTrue(localHubServer.errorCount.get() > 0)
+        Assert.assertEquals((COMPONENT_COUNT - localHubServer.errorCount.get()) * 2, artifactMetaData.size())
+    }
+
+    private <T> T measure(String pathName, Closure<T> run) {
+        List<MemoryPoolMXBean> heapMemoryPoolMXBeans = ManagementFactory.getMemoryPoolMXBeans().findAll { it.type == MemoryType.HEAP }
+        heapMemoryPoolMXBeans.each { it.resetPeakUsage() }
+        long start = System.nanoTime()
+
+        T result = run.call()
+
+        long wallMillis = (System.nanoTime() - start) / 1000000L
+        long peakHeapBytes = heapMemoryPoolMXBeans.sum { it.peakUsage.used } as long
+        println "${pathName} path: ${localHubServer.totalRequestCount()} requests, ${localHubServer.errorCount.get()} injected errors, ${wallMillis} ms wall time, ${peakHeapBytes} bytes peak heap"
+        return result
+    }
+}
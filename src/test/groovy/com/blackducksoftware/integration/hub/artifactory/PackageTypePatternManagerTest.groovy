@@ -0,0 +1,34 @@
+package com.blackducksoftware.integration.hub.artifactory
+
+import org.junit.Assert
+import org.junit.Test
+
+import com.blackducksoftware.integration.hub.artifactory.inspect.PackageTypePatternManager
+import com.blackducksoftware.integration.hub.artifactory.inspect.SupportedPackageType
+
+class PackageTypePatternManagerTest {
+    @Test
+    void testClassifyMatchesAllConfiguredPatterns() {
+        PackageTypePatternManager packageTypePatternManager = new PackageTypePatternManager()
+        packageTypePatternManager.setPattern('maven', '*.jar')
+        packageTypePatternManager.setPattern('gradle', '*.jar')
+        packageTypePatternManager.setPattern('pypi', '*.whl, *.tar.gz,*.zip,*.egg')
+        packageTypePatternManager.setPattern('npm', '*.tgz,package-lock.json')
+        packageTypePatternManager.setPattern('nuget', 'lib-?.*.nupkg')
+        packageTypePatternManager.setPattern('docker', '*.tar.gz')
+
+        Assert.assertEquals(EnumSet.of(SupportedPackageType.maven, SupportedPackageType.gradle), packageTypePatternManager.classify('commons-io-2.6.jar'))
+        Assert.assertEquals(EnumSet.of(SupportedPackageType.pypi), packageTypePatternManager.classify('requests-2.18.4.tar.gz'))
+        Assert.assertEquals(EnumSet.of(SupportedPackageType.npm), packageTypePatternManager.classify('package-lock.json'))
+        Assert.assertEquals(EnumSet.of(SupportedPackageType.nuget), packageTypePatternManager.classify('lib-a.1.0.nupkg'))
+        Assert.assertTrue(packageTypePatternManager.classify('lib-ab.1.0.nupkg').isEmpty())
+        Assert.assertTrue(packageTypePatternManager.classify('README.md').isEmpty())
+        Assert.assertTrue(packageTypePatternManager.classify('jar').isEmpty())
+
+        packageTypePatternManager.setPattern(SupportedPackageType.gradle, '*.pom')
+        Assert.assertEquals(EnumSet.of(SupportedPackageType.maven), packageTypePatternManager.classify('commons-io-2.6.jar'))
+        Assert.assertEquals('*.pom', packageTypePatternManager.getPattern('gradle').get())
+        Assert.assertFalse(packageTypePatternManager.getPattern('docker').isPresent())
+        Assert.assertFalse(SupportedPackageType.isSupported(null))
+    }
+}
@@ -0,0 +1,168 @@
+package com.blackducksoftware.integration.hub.artifactory
+
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+import org.junit.Assert
+import org.junit.Test
+
+import com.blackducksoftware.integration.exception.IntegrationException
+import com.blackducksoftware.integration.hub.api.generated.enumeration.PolicyStatusApprovalStatusType
+import com.blackducksoftware.integration.log.LogLevel
+import com.blackducksoftware.integration.log.PrintStreamIntLogger
+
+class PropertyUpdatePipelineTest {
+    private final PrintStreamIntLogger intLogger = new PrintStreamIntLogger(System.out, LogLevel.OFF)
+
+    @Test
+    void testUpdatesToTheSamePathAreMerged() {
+        List<List<PropertyUpdate>> batches = new CopyOnWriteArrayList<>()
+        PropertyUpdatePipeline propertyUpdatePipeline = new PropertyUpdatePipeline(intLogger, { batches.add(it) } as PropertyUpdateWriter, 10, 100, 60000)
+
+        ArtifactMetaData artifactMetaData = new ArtifactMetaData()
+        artifactMetaData.highSeverityCount = 2
+        artifactMetaData.policyStatus = PolicyStatusApprovalStatusType.IN_VIOLATION
+        propertyUpdatePipeline.submit('repo/a.jar', artifactMetaData)
+        propertyUpdatePipeline.submit('repo/b.jar', [(BlackDuckArtifactoryProperty.UPDATE_STATUS): 'PENDING'])
+        propertyUpdatePipeline.submit('repo/a.jar', [(BlackDuckArtifactoryProperty.LAST_UPDATE): '2018-01-01T00:00:00.000', (BlackDuckArtifactoryProperty.HIGH_VULNERABILITIES): '3'])
+        propertyUpdatePipeline.close()
+
+        Assert.assertEquals(1, batches.size())
+        Assert.assertEquals(['repo/a.jar', 'repo/b.jar'], batches.get(0).collect { it.getPath() })
+        Map<BlackDuckArtifactoryProperty, String> propertyValues = batches.get(0).get(0).getPropertyValues()
+        Assert.assertEquals('3', propertyValues.get(BlackDuckArtifactoryProperty.HIGH_VULNERABILITIES))
+        Assert.assertEquals('IN_VIOLATION', propertyValues.get(BlackDuckArtifactoryProperty.POLICY_STATUS))
+        Assert.assertEquals('2018-01-01T00:00:00.000', propertyValues.get(BlackDuckArtifactoryProperty.LAST_UPDATE))
+        Assert.assertEquals(1, propertyUpdatePipeline.getMergedCount())
+        Assert.assertEquals(2, propertyUpdatePipeline.getWrittenCount())
+    }
+
+    @Test
+    void testMissingMetaDataDoesNotOverwriteEarlierValues() {
+        List<List<PropertyUpdate>> batches = new CopyOnWriteArrayList<>()
+        PropertyUpdatePipeline propertyUpdatePipeline = new PropertyUpdatePipeline(intLogger, { batches.add(it) } as PropertyUpdateWriter, 10, 100, 60000)
+
+        ArtifactMetaData artifactMetaData = new ArtifactMetaData()
+        artifactMetaData.policyStatus = PolicyStatusApprovalStatusType.IN_VIOLATION
+        artifactMetaData.componentVersionLink = 'http://hub/component'
+        propertyUpdatePipeline.submit('repo/a.jar', artifactMetaData)
+        propertyUpdatePipeline.submit('repo/a.jar', new ArtifactMetaData())
+        propertyUpdatePipeline.close()
+
+        Map<BlackDuckArtifactoryProperty, String> propertyValues = batches.get(0).get(0).getPropertyValues()
+        Assert.assertEquals('IN_VIOLATION', propertyValues.get(BlackDuckArtifactoryProperty.POLICY_STATUS))
+        Assert.assertEquals('http://hub/component', propertyValues.get(BlackDuckArtifactoryProperty.COMPONENT_VERSION_URL))
+        Assert.assertFalse(propertyValues.containsValue(null))
+    }
+
+    @Test
+    void testClearedPolicyStatusIsRemoved() {
+        List<List<PropertyUpdate>> batches = new CopyOnWriteArrayList<>()
+        PropertyUpdatePipeline propertyUpdatePipeline = new PropertyUpdatePipeline(intLogger, { batches.add(it) } as PropertyUpdateWriter, 10, 100, 60000)
+
+        ArtifactMetaData previousArtifactMetaData = new ArtifactMetaData()
+        previousArtifactMetaData.forge = 'maven'
+        previousArtifactMetaData.originId = 'a'
+        previousArtifactMetaData.policyStatus = PolicyStatusApprovalStatusType.IN_VIOLATION
+        ArtifactMetaData currentArtifactMetaData = previousArtifactMetaData.copy(null)
+        currentArtifactMetaData.policyStatus = null
+        currentArtifactMetaData.highSeverityCount = 1
+        ArtifactMetaDataDelta artifactMetaDataDelta = new ArtifactMetaDataSnapshot([previousArtifactMetaData]).diffUpdates([currentArtifactMetaData])
+
+        propertyUpdatePipeline.submit('repo/a.jar', [(BlackDuckArtifactoryProperty.POLICY_STATUS): 'NOT_IN_VIOLATION'])
+        propertyUpdatePipeline.submit('repo/a.jar', artifactMetaDataDelta.getChanged().get(0))
+        propertyUpdatePipeline.submit('repo/b.jar', artifactMetaDataDelta.getChanged().get(0))
+        propertyUpdatePipeline.submit('repo/b.jar', [(BlackDuckArtifactoryProperty.POLICY_STATUS): 'IN_VIOLATION'])
+        propertyUpdatePipeline.close()
+
+        PropertyUpdate removed = batches.get(0).get(0)
+        Assert.assertEquals([(BlackDuckArtifactoryProperty.HIGH_VULNERABILITIES): '1'], removed.getPropertyValues())
+        Assert.assertEquals(EnumSet.of(BlackDuckArtifactoryProperty.POLICY_STATUS), removed.getRemovedProperties())
+        PropertyUpdate setAgain = batches.get(0).get(1)
+        Assert.assertEquals('IN_VIOLATION', setAgain.getPropertyValues().get(BlackDuckArtifactoryProperty.POLICY_STATUS))
+        Assert.assertTrue(setAgain.getRemovedProperties().isEmpty())
+    }
+
+    @Test
+    void testUpdatesAreWrittenInBoundedBatches() {
+        List<List<PropertyUpdate>> batches = new CopyOnWriteArrayList<>()
+        PropertyUpdatePipeline propertyUpdatePipeline = new PropertyUpdatePipeline(intLogger, { batches.add(it) } as PropertyUpdateWriter, 10, 20, 60000)
+
+        (0..<35).each { propertyUpdatePipeline.submit("repo/${it}.jar".toString(), [(BlackDuckArtifactoryProperty.UPDATE_STATUS): 'UP_TO_DATE']) }
+        propertyUpdatePipeline.flush()
+
+        Assert.assertTrue(batches.every { it.size() <= 10 })
+        Assert.assertEquals((0..<35).collect { "repo/${it}.jar".toString() }, batches.flatten().collect { it.getPath() })
+        Assert.assertEquals(0, propertyUpdatePipeline.getQueueDepth())
+        Assert.assertTrue(propertyUpdatePipeline.getMaximumQueueDepth() <= 20)
+        propertyUpdatePipeline.close()
+    }
+
+    @Test
+    void testPartialBatchIsWrittenAfterFlushInterval() {
+        CountDownLatch written = new CountDownLatch(1)
+        PropertyUpdatePipeline propertyUpdatePipeline = new PropertyUpdatePipeline(intLogger, { written.countDown() } as PropertyUpdateWriter, 100, 1000, 50)
+
+        propertyUpdatePipeline.submit('repo/a.jar', [(BlackDuckArtifactoryProperty.UPDATE_STATUS): 'UP_TO_DATE'])
+
+        Assert.assertTrue(written.await(10, TimeUnit.SECONDS))
+        propertyUpdatePipeline.close()
+    }
+
+    @Test
+    void testSubmitWaitsWhenQueueIsFull() {
+        CountDownLatch writerReleased = new CountDownLatch(1)
+        PropertyUpdatePipeline propertyUpdatePipeline = new PropertyUpdatePipeline(intLogger, { writerReleased.await() } as PropertyUpdateWriter, 2, 2, 60000)
+
+        (0..<4).each { propertyUpdatePipeline.submit("repo/${it}.jar".toString(), [(BlackDuckArtifactoryProperty.UPDATE_STATUS): 'UP_TO_DATE']) }
+        Thread blockedSubmitter = Thread.start { propertyUpdatePipeline.submit('repo/4.jar', [(BlackDuckArtifactoryProperty.UPDATE_STATUS): 'UP_TO_DATE']) }
+        blockedSubmitter.join(200)
+        Assert.assertTrue(blockedSubmitter.isAlive())
+        Assert.assertEquals(2, propertyUpdatePipeline.getQueueDepth())
+
+        writerReleased.countDown()
+        blockedSubmitter.join()
+        propertyUpdatePipeline.close()
+        Assert.assertEquals(5, propertyUpdatePipeline.getWrittenCount())
+        Assert.assertTrue(propertyUpdatePipeline.getBlockedSubmitCount() >= 1)
+    }
+
+    @Test
+    void testFailedBatchesAreCounted() {
+        PropertyUpdatePipeline propertyUpdatePipeline = new PropertyUpdatePipeline(intLogger, { throw new IntegrationException('database is locked') } as PropertyUpdateWriter, 10, 100, 60000)
+
+        propertyUpdatePipeline.submit('repo/a.jar', [(BlackDuckArtifactoryProperty.UPDATE_STATUS): 'UP_TO_DATE'])
+        propertyUpdatePipeline.close()
+
+        Assert.assertEquals(1, propertyUpdatePipeline.getFailedCount())
+        Assert.assertEquals(1, propertyUpdatePipeline.getRetriedCount())
+        Assert.assertEquals(0, propertyUpdatePipeline.getWrittenCount())
+        Assert.assertTrue(propertyUpdatePipeline.getSummary().contains('1 failed'))
+    }
+
+    @Test
+    void testFailedBatchIsRetriedOnceWithNewerValues() {
+        List<List<PropertyUpdate>> batches = new CopyOnWriteArrayList<>()
+        PropertyUpdatePipeline propertyUpdatePipeline = new PropertyUpdatePipeline(intLogger, { List<PropertyUpdate> batch ->
+            if (batches.isEmpty()) {
+                batches.add(batch)
+                throw new AssertionError('writer crashed')
+            }
+            batches.add(batch)
+        } as PropertyUpdateWriter, 10, 100, 60000)
+
+        propertyUpdatePipeline.submit('repo/a.jar', [(BlackDuckArtifactoryProperty.UPDATE_STATUS): 'UP_TO_DATE', (BlackDuckArtifactoryProperty.HIGH_VULNERABILITIES): '1'])
+        propertyUpdatePipeline.flush()
+        propertyUpdatePipeline.submit('repo/b.jar', [(BlackDuckArtifactoryProperty.UPDATE_STATUS): 'PENDING'])
+        propertyUpdatePipeline.close()
+
+        Assert.assertEquals(0, propertyUpdatePipeline.getFailedCount())
+        Assert.assertEquals(1, propertyUpdatePipeline.getRetriedCount())
+        Assert.assertEquals(2, propertyUpdatePipeline.getWrittenCount())
+        Map<String, Map<BlackDuckArtifactoryProperty, String>> written = batches.drop(1).flatten().collectEntries { PropertyUpdate propertyUpdate -> [(propertyUpdate.path): propertyUpdate.propertyValues] }
+        Assert.assertEquals('1', written.get('repo/a.jar').get(BlackDuckArtifactoryProperty.HIGH_VULNERABILITIES))
+        Assert.assertEquals('PENDING', written.get('repo/b.jar').get(BlackDuckArtifactoryProperty.UPDATE_STATUS))
+    }
+
+}
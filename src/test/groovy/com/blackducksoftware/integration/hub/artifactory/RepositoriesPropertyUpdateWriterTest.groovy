@@ -0,0 +1,25 @@
+package com.blackducksoftware.integration.hub.artifactory
+
+import org.artifactory.repo.RepoPath
+import org.artifactory.repo.Repositories
+import org.junit.Assert
+import org.junit.Test
+
+class RepositoriesPropertyUpdateWriterTest {
+    @Test
+    void testValuesAreSetAndRemovedPropertiesDeleted() {
+        List<String> calls = []
+        Repositories repositories = [
+            setProperty: { RepoPath repoPath, String key, String[] values -> calls.add("set ${repoPath.getPath()} ${key}=${values.join(',')}".toString()); null },
+            deleteProperty: { RepoPath repoPath, String key -> calls.add("delete ${repoPath.getPath()} ${key}".toString()) }
+        ] as Repositories
+        RepositoriesPropertyUpdateWriter repositoriesPropertyUpdateWriter = new RepositoriesPropertyUpdateWriter(repositories, { String path -> [getPath: { path }] as RepoPath })
+
+        repositoriesPropertyUpdateWriter.write([
+            new PropertyUpdate('repo/a.jar', [(BlackDuckArtifactoryProperty.HIGH_VULNERABILITIES): '1'], EnumSet.of(BlackDuckArtifactoryProperty.POLICY_STATUS))
+        ])
+
+        Assert.assertEquals(['set repo/a.jar blackduck.highVulnerabilities=1', 'delete repo/a.jar blackduck.policyStatus'], calls)
+    }
+
+}
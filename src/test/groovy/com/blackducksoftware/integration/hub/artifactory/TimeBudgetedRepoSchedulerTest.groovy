@@ -0,0 +1,147 @@
+package com.blackducksoftware.integration.hub.artifactory
+
+import java.util.concurrent.atomic.AtomicLong
+
+import org.junit.After
+import org.junit.Assert
+import org.junit.Before
+import org.junit.Test
+
+import com.blackducksoftware.integration.exception.IntegrationException
+import com.blackducksoftware.integration.hub.artifactory.inspect.InspectPluginConfig
+import com.blackducksoftware.integration.hub.artifactory.inspect.InspectPluginProperty
+import com.blackducksoftware.integration.log.LogLevel
+import com.blackducksoftware.integration.log.PrintStreamIntLogger
+
+class TimeBudgetedRepoSchedulerTest {
+    private final PrintStreamIntLogger intLogger = new PrintStreamIntLogger(System.out, LogLevel.OFF)
+    private final AtomicLong clock = new AtomicLong(1000)
+    private File directory
+    private File cursorFile
+
+    @Before
+    void createDirectory() {
+        directory = File.createTempDir()
+        cursorFile = new File(directory, 'populate-metadata.cursor')
+    }
+
+    @After
+    void deleteDirectory() {
+        directory.deleteDir()
+    }
+
+    @Test
+    void testTicksResumeWithinBudgetAcrossRestarts() {
+        File reposCsvFile = new File(directory, 'repos.csv')
+        reposCsvFile.text = 'repo0,repo1,repo2\nrepo3, repo4\n\nrepo5,repo6\n'
+        Properties properties = new Properties()
+        properties.setProperty(InspectPluginProperty.REPOS_CSV_PATH.getKey(), reposCsvFile.getAbsolutePath())
+        InspectPluginConfig inspectPluginConfig = new BlackDuckArtifactoryConfigSnapshot(properties).getInspectPluginConfig()
+
+        List<String> processedRepoKeys = []
+        RepoKeyProcessor repoKeyProcessor = { String repoKey ->
+            processedRepoKeys.add(repoKey)
+            clock.addAndGet(100)
+        }
+
+        RepoTickResult first = newScheduler(250).runTick(inspectPluginConfig.&streamRepos, repoKeyProcessor)
+        Assert.assertEquals(['repo0', 'repo1', 'repo2'], processedRepoKeys)
+        Assert.assertEquals(4, first.getRemainingCount())
+        Assert.assertFalse(first.isCycleCompleted())
+
+        processedRepoKeys.clear()
+        newScheduler(250).runTick(inspectPluginConfig.&streamRepos, repoKeyProcessor)
+        Assert.assertEquals(['repo3', 'repo4', 'repo5'], processedRepoKeys)
+
+        processedRepoKeys.clear()
+        RepoTickResult third = newScheduler(250).runTick(inspectPluginConfig.&streamRepos, repoKeyProcessor)
+        Assert.assertEquals(['repo6', 'repo0', 'repo1'], processedRepoKeys)
+        Assert.assertTrue(third.isCycleCompleted())
+        Assert.assertEquals(5, third.getRemainingCount())
+    }
+
+    @Test
+    void testUnlimitedBudgetProcessesEachRepoOncePerTick() {
+        List<String> processedRepoKeys = []
+        TimeBudgetedRepoScheduler timeBudgetedRepoScheduler = newScheduler(0)
+
+        timeBudgetedRepoScheduler.runTick({ ['repo0', 'repo1', 'repo2'].stream() }, { processedRepoKeys.add(it) } as RepoKeyProcessor)
+        RepoTickResult second = timeBudgetedRepoScheduler.runTick({ ['repo0', 'repo1', 'repo2'].stream() }, { processedRepoKeys.add(it) } as RepoKeyProcessor)
+
+        Assert.assertEquals(['repo0', 'repo1', 'repo2', 'repo0', 'repo1', 'repo2'], processedRepoKeys)
+        Assert.assertEquals(3, second.getProcessedCount())
+        Assert.assertTrue(second.isCycleCompleted())
+    }
+
+    @Test
+    void testFailuresAndRemovedReposDoNotStallTheCursor() {
+        List<String> processedRepoKeys = []
+        RepoKeyProcessor repoKeyProcessor = { String repoKey ->
+            processedRepoKeys.add(repoKey)
+            clock.addAndGet(100)
+            if (repoKey == 'repo1') {
+                throw new IntegrationException('Hub unavailable')
+            }
+        }
+
+        RepoTickResult first = newScheduler(150).runTick({ ['repo0', 'repo1', 'repo2', 'repo3'].stream() }, repoKeyProcessor)
+        Assert.assertEquals(1, first.getFailureCount())
+
+        newScheduler(150).runTick({ ['repo0', 'repo2', 'repo3'].stream() }, repoKeyProcessor)
+        Assert.assertEquals(['repo0', 'repo1', 'repo2', 'repo3'], processedRepoKeys)
+    }
+
+    @Test
+    void testCorruptCursorRestartsTheCycle() {
+        cursorFile.text = 'next.position=two\ncycle.started.at=\n'
+        List<String> processedRepoKeys = []
+
+        RepoTickResult result = newScheduler(0).runTick({ ['repo0', 'repo1', 'repo2'].stream() }, { processedRepoKeys.add(it) } as RepoKeyProcessor)
+
+        Assert.assertEquals(['repo0', 'repo1', 'repo2'], processedRepoKeys)
+        Assert.assertTrue(result.isCycleCompleted())
+    }
+
+    @Test
+    void testReposRemovedBetweenReadsEndTheCycle() {
+        List<List<String>> repoKeyLists = [['repo0', 'repo1', 'repo2', 'repo3'], ['repo0', 'repo1']]
+        int supplierCallCount = 0
+        Closure<java.util.stream.Stream<String>> repoKeys = {
+            List<String> repoKeyList = repoKeyLists.get(Math.min(supplierCallCount, repoKeyLists.size() - 1))
+            supplierCallCount++
+            return repoKeyList.stream()
+        }
+        List<String> processedRepoKeys = []
+
+        RepoTickResult result = newScheduler(0).runTick(repoKeys, { processedRepoKeys.add(it) } as RepoKeyProcessor)
+
+        Assert.assertEquals(['repo0', 'repo1'], processedRepoKeys)
+        Assert.assertTrue(result.isCycleCompleted())
+        Assert.assertTrue(supplierCallCount < 5)
+
+        supplierCallCount = 0
+        repoKeyLists = [['repo0', 'repo1', 'repo2'], []]
+        processedRepoKeys.clear()
+        RepoTickResult emptied = newScheduler(0).runTick(repoKeys, { processedRepoKeys.add(it) } as RepoKeyProcessor)
+        Assert.assertTrue(processedRepoKeys.isEmpty())
+        Assert.assertEquals(0, emptied.getProcessedCount())
+    }
+
+    @Test
+    void testOverlappingTickIsSkipped() {
+        TimeBudgetedRepoScheduler timeBudgetedRepoScheduler = newScheduler(0)
+        List<RepoTickResult> overlappingResults = []
+
+        RepoTickResult result = timeBudgetedRepoScheduler.runTick({ ['repo0'].stream() }, { String repoKey ->
+            overlappingResults.add(timeBudgetedRepoScheduler.runTick({ ['repo0'].stream() }, { Assert.fail('An overlapping tick should not process repos') } as RepoKeyProcessor))
+        } as RepoKeyProcessor)
+
+        Assert.assertEquals(1, result.getProcessedCount())
+        Assert.assertTrue(overlappingResults.get(0).isSkipped())
+    }
+
+    private TimeBudgetedRepoScheduler newScheduler(long tickBudgetMillis) {
+        return new TimeBudgetedRepoScheduler(intLogger, cursorFile, tickBudgetMillis, clock.&get)
+    }
+
+}
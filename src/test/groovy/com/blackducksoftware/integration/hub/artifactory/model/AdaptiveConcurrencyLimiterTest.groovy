@@ -0,0 +1,83 @@
+package com.blackducksoftware.integration.hub.artifactory.model
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+import org.junit.Assert
+import org.junit.Test
+
+import com.blackducksoftware.integration.rest.exception.IntegrationRestException
+
+class AdaptiveConcurrencyLimiterTest {
+    @Test
+    void testLimitGrowsWhenHealthyAndShrinksWhenOverloaded() {
+        AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter = new AdaptiveConcurrencyLimiter(1, 2, 4, 100, 0.5)
+
+        adaptiveConcurrencyLimiter.acquire()
+        adaptiveConcurrencyLimiter.release(TimeUnit.MILLISECONDS.toNanos(10), false)
+        Assert.assertEquals(2, adaptiveConcurrencyLimiter.getLimit())
+
+        20.times {
+            int limit = adaptiveConcurrencyLimiter.getLimit()
+            limit.times { adaptiveConcurrencyLimiter.acquire() }
+            limit.times { adaptiveConcurrencyLimiter.release(TimeUnit.MILLISECONDS.toNanos(10), false) }
+        }
+        Assert.assertEquals(4, adaptiveConcurrencyLimiter.getLimit())
+
+        adaptiveConcurrencyLimiter.acquire()
+        adaptiveConcurrencyLimiter.release(TimeUnit.MILLISECONDS.toNanos(500), false)
+        Assert.assertEquals(2, adaptiveConcurrencyLimiter.getLimit())
+
+        adaptiveConcurrencyLimiter.acquire()
+        adaptiveConcurrencyLimiter.release(TimeUnit.MILLISECONDS.toNanos(10), true)
+        adaptiveConcurrencyLimiter.acquire()
+        adaptiveConcurrencyLimiter.release(TimeUnit.MILLISECONDS.toNanos(10), true)
+        Assert.assertEquals(1, adaptiveConcurrencyLimiter.getLimit())
+        Assert.assertEquals(0, adaptiveConcurrencyLimiter.getInFlight())
+    }
+
+    @Test
+    void testCallersQueueBehindTheLimit() {
+        AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 0, 0.5)
+        adaptiveConcurrencyLimiter.acquire()
+
+        CountDownLatch acquired = new CountDownLatch(1)
+        Thread waitingThread = Thread.start {
+            adaptiveConcurrencyLimiter.acquire()
+            acquired.countDown()
+            adaptiveConcurrencyLimiter.release(0, false)
+        }
+        while (adaptiveConcurrencyLimiter.getQueueDepth() == 0) {
+            Thread.sleep(1)
+        }
+        Assert.assertFalse(acquired.await(50, TimeUnit.MILLISECONDS))
+
+        adaptiveConcurrencyLimiter.release(0, false)
+        Assert.assertTrue(acquired.await(5, TimeUnit.SECONDS))
+        waitingThread.join()
+        Assert.assertEquals(0, adaptiveConcurrencyLimiter.getQueueDepth())
+    }
+
+    @Test
+    void testHubCallExecutorBacksOffOnServerErrors() {
+        HubCallStatistics hubCallStatistics = new HubCallStatistics()
+        HubCallExecutor hubCallExecutor = new HubCallExecutor(hubCallStatistics, 1, new AdaptiveConcurrencyLimiter(1, 8, 8, 0, 0.5))
+
+        try {
+            hubCallExecutor.execute(HubCallType.ORIGINS, { throw new IntegrationRestException(503, 'Service Unavailable', 'busy') })
+            Assert.fail()
+        } catch (IntegrationRestException e) {
+            Assert.assertEquals(503, e.getHttpStatusCode())
+        }
+        try {
+            hubCallExecutor.execute(HubCallType.ORIGINS, { throw new IntegrationRestException(404, 'Not Found', 'missing') })
+            Assert.fail()
+        } catch (IntegrationRestException e) {
+            Assert.assertEquals(404, e.getHttpStatusCode())
+        }
+
+        Assert.assertEquals(4, hubCallExecutor.getAdaptiveConcurrencyLimiter().getLimit())
+        Assert.assertEquals(4, hubCallStatistics.getConcurrencyLimit())
+        Assert.assertEquals(2, hubCallStatistics.getErrorCount(HubCallType.ORIGINS))
+    }
+}
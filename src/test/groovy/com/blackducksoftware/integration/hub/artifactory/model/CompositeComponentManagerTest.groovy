@@ -0,0 +1,161 @@
+package com.blackducksoftware.integration.hub.artifactory.model
+
+import org.junit.Assert
+import org.junit.Test
+
+import com.blackducksoftware.integration.hub.api.UriSingleResponse
+import com.blackducksoftware.integration.hub.api.generated.enumeration.PolicyStatusApprovalStatusType
+import com.blackducksoftware.integration.hub.api.generated.view.ComponentVersionView
+import com.blackducksoftware.integration.hub.api.generated.view.OriginView
+import com.blackducksoftware.integration.hub.api.generated.view.ProjectVersionView
+import com.blackducksoftware.integration.hub.api.generated.view.VersionBomComponentView
+import com.blackducksoftware.integration.hub.artifactory.BlackDuckArtifactoryConfigSnapshot
+import com.blackducksoftware.integration.hub.artifactory.FakeHubService
+import com.blackducksoftware.integration.hub.artifactory.FakeNotificationService
+import com.blackducksoftware.integration.hub.artifactory.inspect.InspectPluginConfig
+import com.blackducksoftware.integration.hub.artifactory.inspect.InspectPluginProperty
+import com.blackducksoftware.integration.log.LogLevel
+import com.blackducksoftware.integration.log.PrintStreamIntLogger
+
+class CompositeComponentManagerTest {
+    private static final String PROJECT_VERSION_URI = FakeHubService.HUB_URL + '/api/projects/project/versions/version'
+
+    @Test
+    void testParallelParseBomKeepsOrder() {
+        FakeHubService hubService = new FakeHubService()
+        hubService.latencyMillis = 5
+        ProjectVersionView projectVersionView = FakeHubService.projectVersion(PROJECT_VERSION_URI)
+        List<VersionBomComponentView> versionBomComponentViews = (0..<20).collect { hubService.addComponent(PROJECT_VERSION_URI, it, 1, []) }
+        hubService.failingUris.add(versionBomComponentViews.get(7).componentVersion)
+
+        HubCallExecutor hubCallExecutor = new HubCallExecutor(HubMetrics.NONE, 8, null)
+        try {
+            CompositeComponentManager sequentialManager = new CompositeComponentManager(new PrintStreamIntLogger(System.out, LogLevel.OFF), hubService)
+            CompositeComponentManager parallelManager = new CompositeComponentManager(new PrintStreamIntLogger(System.out, LogLevel.OFF), hubService, InspectPluginConfig.defaults(), ComponentDataCache.disabled(), hubCallExecutor)
+
+            List<CompositeComponentModel> sequentialModels = sequentialManager.parseBom(projectVersionView, versionBomComponentViews)
+            List<CompositeComponentModel> parallelModels = parallelManager.parseBom(projectVersionView, versionBomComponentViews)
+
+            Assert.assertEquals(20, parallelModels.size())
+            Assert.assertNull(parallelModels.get(7).getComponentVersionHref())
+            Assert.assertEquals(sequentialModels.collect { it.getComponentVersionHref() }, parallelModels.collect { it.getComponentVersionHref() })
+            Assert.assertEquals(versionBomComponentViews.get(3).componentVersion, parallelModels.get(3).getComponentVersionHref())
+        } finally {
+            hubCallExecutor.close()
+        }
+    }
+
+    @Test
+    void testHubCallExecutorReusesOnePoolAcrossCalls() {
+        HubCallExecutor hubCallExecutor = new HubCallExecutor(HubMetrics.NONE, 4, null)
+        Set<Thread> workerThreads = []
+        try {
+            3.times {
+                List<Integer> squares = hubCallExecutor.mapInOrder((0..<20).toList()) { Integer item ->
+                    synchronized (workerThreads) {
+                        workerThreads.add(Thread.currentThread())
+                    }
+                    Thread.sleep(2)
+                    item * item
+                }
+                Assert.assertEquals((0..<20).collect { it * it }, squares)
+            }
+        } finally {
+            hubCallExecutor.close()
+        }
+
+        Assert.assertTrue(workerThreads.size() <= 4)
+        Assert.assertTrue(workerThreads.every { it.name == 'blackduck-hub-call' })
+        workerThreads.each { it.join(5000) }
+        Assert.assertTrue(workerThreads.every { !it.isAlive() })
+    }
+
+    @Test
+    void testProjectedModelsKeepOnlyTheFieldsThatAreRead() {
+        FakeHubService hubService = new FakeHubService()
+        ProjectVersionView projectVersionView = FakeHubService.projectVersion(PROJECT_VERSION_URI)
+        List<VersionBomComponentView> versionBomComponentViews = (0..<3).collect { hubService.addComponent(PROJECT_VERSION_URI, it, 2, ['HIGH']) }
+        versionBomComponentViews.each { it.policyStatus = PolicyStatusApprovalStatusType.IN_VIOLATION }
+
+        List<CompositeComponentModel> fullModels = versionBomComponentViews.collect { versionBomComponentView ->
+            ComponentVersionView componentVersionView = hubService.getResponse(new UriSingleResponse<>(versionBomComponentView.componentVersion, ComponentVersionView.class))
+            List<OriginView> originViews = hubService.getAllResponses(componentVersionView, ComponentVersionView.ORIGINS_LINK_RESPONSE)
+            new CompositeComponentModel(PROJECT_VERSION_URI, versionBomComponentView, componentVersionView, originViews, ComponentVersionData.fromViews(hubService, componentVersionView, originViews))
+        }
+        List<CompositeComponentModel> projectedModels = new CompositeComponentManager(new PrintStreamIntLogger(System.out, LogLevel.OFF), hubService).parseBom(projectVersionView, versionBomComponentViews)
+
+        projectedModels.each {
+            Assert.assertNull(it.@versionBomComponentView)
+            Assert.assertNull(it.@componentVersionView)
+            Assert.assertNull(it.@originViews)
+        }
+        Assert.assertEquals(fullModels.collect { it.getComponentVersionHref() }, projectedModels.collect { it.getComponentVersionHref() })
+        Assert.assertEquals(fullModels.collect { it.getVulnerabilitiesLink() }, projectedModels.collect { it.getVulnerabilitiesLink() })
+        Assert.assertNotNull(projectedModels.get(0).getVulnerabilitiesLink())
+        Assert.assertEquals(fullModels.collect { it.getComponentOrigins() }, projectedModels.collect { it.getComponentOrigins() })
+        Assert.assertEquals([PolicyStatusApprovalStatusType.IN_VIOLATION] * 3, projectedModels.collect { it.getPolicyStatus() })
+        Assert.assertEquals('group:component-1:1', projectedModels.get(1).getComponentOrigins().get(1).originId)
+    }
+
+    @Test
+    void testComponentDataCacheIsSharedAcrossManagers() {
+        FakeHubService hubService = new FakeHubService()
+        ProjectVersionView projectVersionView = FakeHubService.projectVersion(PROJECT_VERSION_URI)
+        List<VersionBomComponentView> versionBomComponentViews = (0..<5).collect { hubService.addComponent(PROJECT_VERSION_URI, it, 2, []) }
+        ComponentDataCache componentDataCache = new ComponentDataCache(100, 60000)
+
+        new CompositeComponentManager(new PrintStreamIntLogger(System.out, LogLevel.OFF), hubService, InspectPluginConfig.defaults(), componentDataCache, new HubCallExecutor()).parseBom(projectVersionView, versionBomComponentViews)
+        List<CompositeComponentModel> cachedModels = new CompositeComponentManager(new PrintStreamIntLogger(System.out, LogLevel.OFF), hubService, InspectPluginConfig.defaults(), componentDataCache, new HubCallExecutor()).parseBom(projectVersionView, versionBomComponentViews)
+
+        Assert.assertEquals(10, hubService.totalRequestCount())
+        Assert.assertEquals(5, componentDataCache.getHitCount())
+        Assert.assertEquals(5, componentDataCache.getMissCount())
+        Assert.assertEquals(2, cachedModels.get(4).getComponentOrigins().size())
+        Assert.assertEquals(versionBomComponentViews.get(4).componentVersion, cachedModels.get(4).getComponentVersionHref())
+    }
+
+    @Test
+    void testDuplicateNotificationsAreCoalesced() {
+        FakeHubService hubService = new FakeHubService()
+        FakeNotificationService notificationService = new FakeNotificationService(hubService)
+        VersionBomComponentView firstComponent = hubService.addComponent(PROJECT_VERSION_URI, 0, 1, [])
+        VersionBomComponentView secondComponent = hubService.addComponent(PROJECT_VERSION_URI, 1, 1, [])
+        (0..<10).each {
+            notificationService.addNotification([
+                FakeNotificationService.vulnerabilityDetail(PROJECT_VERSION_URI, firstComponent.componentVersion),
+                FakeNotificationService.vulnerabilityDetail(PROJECT_VERSION_URI, secondComponent.componentVersion)
+            ])
+        }
+
+        CompositeComponentManager compositeComponentManager = new CompositeComponentManager(new PrintStreamIntLogger(System.out, LogLevel.OFF), hubService)
+        List<CompositeComponentModel> compositeComponentModels = compositeComponentManager.parseNotifications(notificationService.getAllNotificationDetailResults(null, null, null), [FakeHubService.projectVersion(PROJECT_VERSION_URI)])
+
+        Assert.assertEquals([firstComponent.componentVersion, secondComponent.componentVersion], compositeComponentModels.collect { it.getComponentVersionHref() })
+        Assert.assertEquals(18, compositeComponentManager.getCollapsedNotificationCount())
+        Assert.assertEquals(6, hubService.totalRequestCount())
+    }
+
+    @Test
+    void testBomIndexIsUsedAboveThreshold() {
+        FakeHubService hubService = new FakeHubService()
+        FakeNotificationService notificationService = new FakeNotificationService(hubService)
+        List<VersionBomComponentView> versionBomComponentViews = (0..<3).collect { hubService.addComponent(PROJECT_VERSION_URI, it, 1, []) }
+        hubService.multipleResponses.get(PROJECT_VERSION_URI + '/components').remove(2)
+        notificationService.addNotification(versionBomComponentViews.collect { FakeNotificationService.vulnerabilityDetail(PROJECT_VERSION_URI, it.componentVersion) })
+
+        CompositeComponentManager compositeComponentManager = new CompositeComponentManager(new PrintStreamIntLogger(System.out, LogLevel.OFF), hubService, inspectPluginConfig([(InspectPluginProperty.BOM_INDEX_THRESHOLD): '3']),
+                ComponentDataCache.disabled(), new HubCallExecutor())
+        List<CompositeComponentModel> compositeComponentModels = compositeComponentManager.parseNotifications(notificationService.getAllNotificationDetailResults(null, null, null), [FakeHubService.projectVersion(PROJECT_VERSION_URI)])
+
+        Assert.assertEquals(3, compositeComponentModels.size())
+        Assert.assertEquals(1, hubService.requestCount(PROJECT_VERSION_URI + '/components'))
+        Assert.assertEquals(0, hubService.requestCount(versionBomComponentViews.get(0)._meta.href))
+        Assert.assertEquals(1, hubService.requestCount(versionBomComponentViews.get(2)._meta.href))
+    }
+
+    private InspectPluginConfig inspectPluginConfig(Map<InspectPluginProperty, String> values) {
+        Properties properties = new Properties()
+        values.each { property, value -> properties.setProperty(property.getKey(), value) }
+        return new BlackDuckArtifactoryConfigSnapshot(properties).getInspectPluginConfig()
+    }
+}
@@ -0,0 +1,45 @@
+package com.blackducksoftware.integration.hub.artifactory.model
+
+import org.junit.Assert
+import org.junit.Test
+
+class ExpiringLruCacheTest {
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(2, 0)
+        cache.put('a', 'A')
+        cache.put('b', 'B')
+        Assert.assertEquals('A', cache.get('a').get())
+
+        cache.put('c', 'C')
+
+        Assert.assertFalse(cache.get('b').isPresent())
+        Assert.assertTrue(cache.get('a').isPresent())
+        Assert.assertTrue(cache.get('c').isPresent())
+        Assert.assertEquals(2, cache.size())
+        Assert.assertEquals(3, cache.getHitCount())
+        Assert.assertEquals(1, cache.getMissCount())
+        Assert.assertEquals(1, cache.getEvictionCount())
+    }
+
+    @Test
+    void testExpiredEntryIsMissed() {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(10, 20)
+        cache.put('a', 'A')
+        Assert.assertTrue(cache.get('a').isPresent())
+
+        Thread.sleep(50)
+
+        Assert.assertFalse(cache.get('a').isPresent())
+        Assert.assertEquals(0, cache.size())
+    }
+
+    @Test
+    void testZeroSizeCacheStoresNothing() {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(0, 0)
+        cache.put('a', 'A')
+
+        Assert.assertFalse(cache.get('a').isPresent())
+        Assert.assertEquals(0, cache.size())
+    }
+}
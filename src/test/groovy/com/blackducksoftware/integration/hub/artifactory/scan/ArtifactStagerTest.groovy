@@ -0,0 +1,153 @@
+package com.blackducksoftware.integration.hub.artifactory.scan
+
+import java.nio.file.Files
+import java.util.concurrent.atomic.AtomicLong
+
+import org.junit.Assert
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+import com.blackducksoftware.integration.exception.IntegrationException
+import com.blackducksoftware.integration.log.LogLevel
+import com.blackducksoftware.integration.log.PrintStreamIntLogger
+
+class ArtifactStagerTest {
+    private final PrintStreamIntLogger intLogger = new PrintStreamIntLogger(System.out, LogLevel.OFF)
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder()
+
+    @Test
+    void testFilesOnTheSameFileSystemAreHardLinked() {
+        File sourceFile = temporaryFolder.newFile('component-1.0.jar')
+        sourceFile.bytes = new byte[4096]
+        File binariesDirectory = temporaryFolder.newFolder('binaries')
+        ArtifactStager artifactStager = new ArtifactStager(intLogger, binariesDirectory, 1024, 1)
+
+        StagedArtifact stagedArtifact = artifactStager.stage(ArtifactSource.fromFile(sourceFile))
+        Assert.assertEquals(StagingMethod.HARD_LINK, stagedArtifact.stagingMethod)
+        Assert.assertEquals('component-1.0.jar', stagedArtifact.stagedFile.name)
+        Assert.assertEquals(4096, stagedArtifact.stagedFile.length())
+        Assert.assertEquals(0, artifactStager.diskUsageBytes)
+
+        stagedArtifact.close()
+        stagedArtifact.close()
+        Assert.assertFalse(stagedArtifact.stagedFile.exists())
+        Assert.assertTrue(sourceFile.exists())
+        Assert.assertEquals(0, binariesDirectory.listFiles().length)
+    }
+
+    @Test
+    void testStreamsAreCopiedWithinTheDiskBudget() {
+        byte[] content = 'streamed artifact content'.bytes
+        File binariesDirectory = temporaryFolder.newFolder('binaries')
+        ArtifactStager artifactStager = new ArtifactStager(intLogger, binariesDirectory, 1024, 1)
+
+        StagedArtifact stagedArtifact = artifactStager.stage(ArtifactSource.fromInputStream('../remote.zip', content.length, { new ByteArrayInputStream(content) }))
+        Assert.assertEquals(StagingMethod.STREAM, stagedArtifact.stagingMethod)
+        Assert.assertEquals('remote.zip', stagedArtifact.stagedFile.name)
+        Assert.assertEquals(binariesDirectory, stagedArtifact.stagedFile.parentFile.parentFile)
+        Assert.assertArrayEquals(content, stagedArtifact.stagedFile.bytes)
+        Assert.assertEquals(content.length, artifactStager.diskUsageBytes)
+
+        stagedArtifact.close()
+        Assert.assertEquals(0, artifactStager.diskUsageBytes)
+        Assert.assertEquals(1, artifactStager.getStagedCount(StagingMethod.STREAM))
+    }
+
+    @Test
+    void testParallelStagingStaysWithinTheDiskBudget() {
+        File binariesDirectory = temporaryFolder.newFolder('binaries')
+        ArtifactStager artifactStager = new ArtifactStager(intLogger, binariesDirectory, 300, 4)
+        List<ArtifactSource> artifactSources = (1..8).collect { index ->
+            byte[] content = new byte[100]
+            ArtifactSource.fromInputStream("artifact-${index}.jar", content.length, { new ByteArrayInputStream(content) })
+        }
+
+        AtomicLong maximumStagedFiles = new AtomicLong()
+        int processedCount = artifactStager.stageAndProcess(artifactSources, { StagedArtifact stagedArtifact ->
+            Assert.assertTrue(stagedArtifact.stagedFile.exists())
+            long stagedFiles = binariesDirectory.listFiles().length
+            maximumStagedFiles.accumulateAndGet(stagedFiles, { a, b -> Math.max(a, b) })
+            Thread.sleep(20)
+        } as StagedArtifactProcessor)
+
+        Assert.assertEquals(8, processedCount)
+        Assert.assertTrue(artifactStager.peakDiskUsageBytes <= 300)
+        Assert.assertTrue(maximumStagedFiles.get() <= 3)
+        Assert.assertEquals(0, artifactStager.diskUsageBytes)
+        Assert.assertEquals(800, artifactStager.stagedBytes)
+        Assert.assertEquals(0, binariesDirectory.listFiles().length)
+    }
+
+    @Test
+    void testStreamsMustStayWithinTheirDeclaredSize() {
+        File binariesDirectory = temporaryFolder.newFolder('binaries')
+        ArtifactStager artifactStager = new ArtifactStager(intLogger, binariesDirectory, 1024, 1)
+
+        [
+            ArtifactSource.fromInputStream('understated.jar', 4, { new ByteArrayInputStream(new byte[10]) }),
+            ArtifactSource.fromInputStream('unknown.jar', -1, { new ByteArrayInputStream(new byte[10]) })
+        ].each { artifactSource ->
+            try {
+                artifactStager.stage(artifactSource)
+                Assert.fail("${artifactSource.name} should not be staged")
+            } catch (IntegrationException e) {
+                Assert.assertTrue(e.getMessage().contains(artifactSource.name))
+            }
+        }
+        Assert.assertEquals(0, artifactStager.diskUsageBytes)
+        Assert.assertEquals(4, artifactStager.peakDiskUsageBytes)
+        Assert.assertEquals(0, binariesDirectory.listFiles().length)
+    }
+
+    @Test
+    void testOversizedArtifactIsStagedAlone() {
+        File binariesDirectory = temporaryFolder.newFolder('binaries')
+        ArtifactStager artifactStager = new ArtifactStager(intLogger, binariesDirectory, 10, 1)
+        byte[] content = new byte[50]
+
+        StagedArtifact stagedArtifact = artifactStager.stage(ArtifactSource.fromInputStream('large.iso', content.length, { new ByteArrayInputStream(content) }))
+        Assert.assertEquals(50, artifactStager.peakDiskUsageBytes)
+        stagedArtifact.close()
+        Assert.assertEquals(0, artifactStager.diskUsageBytes)
+    }
+
+    @Test
+    void testFailedArtifactsAreCountedAndCleanedUp() {
+        File binariesDirectory = temporaryFolder.newFolder('binaries')
+        ArtifactStager artifactStager = new ArtifactStager(intLogger, binariesDirectory, 0, 2)
+        List<ArtifactSource> artifactSources = [
+            ArtifactSource.fromInputStream('good.jar', 4, { new ByteArrayInputStream('good'.bytes) }),
+            ArtifactSource.fromInputStream('bad.jar', 3, { new ByteArrayInputStream('bad'.bytes) }),
+            ArtifactSource.fromInputStream('missing.jar', 3, { throw new IOException('not found') })
+        ]
+
+        int processedCount = artifactStager.stageAndProcess(artifactSources, { StagedArtifact stagedArtifact ->
+            if (stagedArtifact.stagedFile.name == 'bad.jar') {
+                throw new IntegrationException('scan failed')
+            }
+        } as StagedArtifactProcessor)
+
+        Assert.assertEquals(1, processedCount)
+        Assert.assertEquals(2, artifactStager.failedCount)
+        Assert.assertEquals(0, artifactStager.diskUsageBytes)
+        Assert.assertEquals(0, binariesDirectory.listFiles().length)
+    }
+
+    @Test
+    void testStaleStagingDirectoriesAreDeleted() {
+        File binariesDirectory = temporaryFolder.newFolder('binaries')
+        File staleDirectory = Files.createTempDirectory(binariesDirectory.toPath(), ArtifactStager.STAGING_DIRECTORY_PREFIX).toFile()
+        new File(staleDirectory, 'leftover.jar').text = 'leftover'
+        File unrelatedFile = new File(binariesDirectory, 'keep.txt')
+        unrelatedFile.text = 'keep'
+
+        ArtifactStager artifactStager = new ArtifactStager(intLogger, binariesDirectory, 0, 1)
+        Assert.assertEquals(1, artifactStager.deleteStaleStagingDirectories())
+        Assert.assertFalse(staleDirectory.exists())
+        Assert.assertTrue(unrelatedFile.exists())
+    }
+
+}